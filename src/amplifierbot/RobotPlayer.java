@@ -0,0 +1,251 @@
+package amplifierbot;
+
+import battlecode.common.*;
+
+import java.util.Random;
+
+/**
+ * Reference opponent: amplifier heavy. Every third military unit an HQ builds is an amplifier. Amplifiers
+ * post the enemy nearest them to the shared array (enemy x, y and the round, in slots 0 and 1) and walk toward the
+ * enemy HQ with the launchers; launchers go for the last posted enemy while it is fresh, otherwise stay with the
+ * nearest amplifier, otherwise head for the enemy HQ. Deterministic and cheap.
+ */
+public strictfp class RobotPlayer {
+    static final Random rng = new Random(6147);
+    static final Direction[] directions = {
+        Direction.NORTH,
+        Direction.NORTHEAST,
+        Direction.EAST,
+        Direction.SOUTHEAST,
+        Direction.SOUTH,
+        Direction.SOUTHWEST,
+        Direction.WEST,
+        Direction.NORTHWEST,
+    };
+    static final int maxCarriers = 6; //per HQ
+    static final int sightingSlot = 0;
+    static final int sightingRoundSlot = 1;
+    static final int freshRounds = 8;
+    static final int escortRadiusSquared = 20; //amplifiers wait for a launcher this close
+
+    static MapLocation home;
+    static MapLocation well;
+    static ResourceType wellType;
+    static MapLocation exploreTarget;
+    static int guess = 0; //0 rotational, 1 vertical, 2 horizontal
+    static int carriersBuilt = 0;
+    static int militaryBuilt = 0;
+
+    public static void run(RobotController rc) throws GameActionException {
+        home = nearestHQ(rc);
+        while (true) {
+            try {
+                switch (rc.getType()) {
+                    case HEADQUARTERS: runHeadquarters(rc); break;
+                    case CARRIER: runCarrier(rc); break;
+                    case LAUNCHER: runLauncher(rc); break;
+                    case AMPLIFIER: runAmplifier(rc); break;
+                    default: break;
+                }
+            } catch (GameActionException e) {
+                e.printStackTrace();
+            } finally {
+                Clock.yield();
+            }
+        }
+    }
+
+    static MapLocation nearestHQ(RobotController rc) throws GameActionException {
+        if (rc.getType() == RobotType.HEADQUARTERS) {
+            return rc.getLocation();
+        }
+        MapLocation nearest = rc.getLocation();
+        int nearestDistance = Integer.MAX_VALUE;
+        for (RobotInfo robot : rc.senseNearbyRobots(-1, rc.getTeam())) {
+            if (robot.type == RobotType.HEADQUARTERS && rc.getLocation().distanceSquaredTo(robot.location) < nearestDistance) {
+                nearest = robot.location;
+                nearestDistance = rc.getLocation().distanceSquaredTo(robot.location);
+            }
+        }
+        return nearest;
+    }
+
+    static void runHeadquarters(RobotController rc) throws GameActionException {
+        if (carriersBuilt < maxCarriers && build(rc, RobotType.CARRIER)) {
+            carriersBuilt++;
+        }
+        while (build(rc, militaryBuilt % 3 == 2 ? RobotType.AMPLIFIER : RobotType.LAUNCHER)) {
+            militaryBuilt++;
+        }
+        postNearestEnemy(rc);
+    }
+
+    /** Builds type on the first free tile around us, toward the middle of the map first. */
+    static boolean build(RobotController rc, RobotType type) throws GameActionException {
+        Direction toward = rc.getLocation().directionTo(new MapLocation(rc.getMapWidth() / 2, rc.getMapHeight() / 2));
+        for (int i = 0; i < 8; i ++) {
+            MapLocation location = rc.getLocation().add(directions[(toward.ordinal() + i) % 8]);
+            if (rc.canBuildRobot(type, location)) {
+                rc.buildRobot(type, location);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static void runCarrier(RobotController rc) throws GameActionException {
+        mine(rc, rc.getID() % 2 == 0 ? ResourceType.ADAMANTIUM : ResourceType.MANA);
+    }
+
+    static void runAmplifier(RobotController rc) throws GameActionException {
+        postNearestEnemy(rc);
+        checkGuess(rc);
+        MapLocation me = rc.getLocation();
+        MapLocation nearestLauncher = null;
+        for (RobotInfo friend : rc.senseNearbyRobots(-1, rc.getTeam())) {
+            if (friend.type == RobotType.LAUNCHER && (nearestLauncher == null || me.distanceSquaredTo(friend.location) < me.distanceSquaredTo(nearestLauncher))) {
+                nearestLauncher = friend.location;
+            }
+        }
+        if (nearestLauncher != null && me.distanceSquaredTo(nearestLauncher) <= escortRadiusSquared) {
+            MapLocation sighting = freshSighting(rc);
+            moveToward(rc, sighting != null ? sighting : enemyHQGuess(rc));
+        } else if (nearestLauncher != null) {
+            moveToward(rc, nearestLauncher);
+        }
+    }
+
+    static void runLauncher(RobotController rc) throws GameActionException {
+        attackWeakest(rc);
+        checkGuess(rc);
+        MapLocation me = rc.getLocation();
+        MapLocation target = freshSighting(rc);
+        if (target == null) {
+            for (RobotInfo friend : rc.senseNearbyRobots(-1, rc.getTeam())) {
+                if (friend.type == RobotType.AMPLIFIER && (target == null || me.distanceSquaredTo(friend.location) < me.distanceSquaredTo(target))) {
+                    target = friend.location;
+                }
+            }
+            if (target != null && me.distanceSquaredTo(target) <= 2) {
+                target = null; //already with it; lead the way
+            }
+        }
+        moveToward(rc, target != null ? target : enemyHQGuess(rc));
+        attackWeakest(rc);
+    }
+
+    static void postNearestEnemy(RobotController rc) throws GameActionException {
+        if (!rc.canWriteSharedArray(sightingSlot, 0)) {
+            return;
+        }
+        MapLocation me = rc.getLocation();
+        MapLocation nearest = null;
+        for (RobotInfo enemy : rc.senseNearbyRobots(-1, rc.getTeam().opponent())) {
+            if (enemy.type != RobotType.HEADQUARTERS && (nearest == null || me.distanceSquaredTo(enemy.location) < me.distanceSquaredTo(nearest))) {
+                nearest = enemy.location;
+            }
+        }
+        if (nearest != null) {
+            rc.writeSharedArray(sightingSlot, nearest.x * 64 + nearest.y + 1);
+            rc.writeSharedArray(sightingRoundSlot, rc.getRoundNum());
+        }
+    }
+
+    static MapLocation freshSighting(RobotController rc) throws GameActionException {
+        int word = rc.readSharedArray(sightingSlot);
+        if (word == 0 || rc.getRoundNum() - rc.readSharedArray(sightingRoundSlot) > freshRounds) {
+            return null;
+        }
+        return new MapLocation((word - 1) / 64, (word - 1) % 64);
+    }
+
+    /** The mirror of home under the symmetry we currently suspect: rotational, vertical, then horizontal. */
+    static MapLocation enemyHQGuess(RobotController rc) {
+        int x = guess == 2 ? home.x : rc.getMapWidth() - 1 - home.x;
+        int y = guess == 1 ? home.y : rc.getMapHeight() - 1 - home.y;
+        return new MapLocation(x, y);
+    }
+
+    /** Moves on to the next guess once we can see there is no enemy HQ at this one. */
+    static void checkGuess(RobotController rc) throws GameActionException {
+        MapLocation target = enemyHQGuess(rc);
+        if (rc.canSenseLocation(target)) {
+            RobotInfo robot = rc.senseRobotAtLocation(target);
+            if (robot == null || robot.type != RobotType.HEADQUARTERS || robot.team == rc.getTeam()) {
+                guess = (guess + 1) % 3;
+            }
+        }
+    }
+
+    /** Fills up at the nearest well we have seen (preferred resource first) and unloads at home. */
+    static void mine(RobotController rc, ResourceType preferred) throws GameActionException {
+        int carried = rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ELIXIR);
+        if (carried >= GameConstants.CARRIER_CAPACITY) {
+            for (ResourceType type : new ResourceType[] {ResourceType.ADAMANTIUM, ResourceType.MANA, ResourceType.ELIXIR}) {
+                int amount = rc.getResourceAmount(type);
+                if (amount > 0 && rc.canTransferResource(home, type, amount)) {
+                    rc.transferResource(home, type, amount);
+                }
+            }
+            moveToward(rc, home);
+            return;
+        }
+        if (well == null || wellType != preferred) {
+            for (WellInfo info : rc.senseNearbyWells()) {
+                if (well == null || (info.getResourceType() == preferred && wellType != preferred)) {
+                    well = info.getMapLocation();
+                    wellType = info.getResourceType();
+                }
+            }
+        }
+        if (well != null && rc.canCollectResource(well, -1)) {
+            rc.collectResource(well, -1);
+        } else if (well != null) {
+            moveToward(rc, well);
+        } else {
+            explore(rc);
+        }
+    }
+
+    /** Heads for a random point of the map, and a new one once there. */
+    static void explore(RobotController rc) throws GameActionException {
+        if (exploreTarget == null || rc.getLocation().distanceSquaredTo(exploreTarget) <= 4) {
+            exploreTarget = new MapLocation(rng.nextInt(rc.getMapWidth()), rng.nextInt(rc.getMapHeight()));
+        }
+        moveToward(rc, exploreTarget);
+    }
+
+    static void attackWeakest(RobotController rc) throws GameActionException {
+        if (!rc.isActionReady()) {
+            return;
+        }
+        RobotInfo weakest = null;
+        for (RobotInfo enemy : rc.senseNearbyRobots(rc.getType().actionRadiusSquared, rc.getTeam().opponent())) {
+            if (enemy.type != RobotType.HEADQUARTERS && (weakest == null || enemy.health < weakest.health)) {
+                weakest = enemy;
+            }
+        }
+        if (weakest != null && rc.canAttack(weakest.location)) {
+            rc.attack(weakest.location);
+        }
+    }
+
+    /** Straight at target, or up to 90 degrees off it, or anywhere. */
+    static void moveToward(RobotController rc, MapLocation target) throws GameActionException {
+        Direction direction = rc.getLocation().directionTo(target);
+        if (direction == Direction.CENTER) {
+            return;
+        }
+        Direction[] tries = {direction, direction.rotateLeft(), direction.rotateRight(), direction.rotateLeft().rotateLeft(), direction.rotateRight().rotateRight()};
+        for (Direction tryDirection : tries) {
+            if (rc.canMove(tryDirection)) {
+                rc.move(tryDirection);
+                return;
+            }
+        }
+        Direction random = directions[rng.nextInt(directions.length)];
+        if (rc.canMove(random)) {
+            rc.move(random);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package gopherbot;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Worst-case iteration count of the loop that declares the annotated variable, for the static bytecode
+ * estimator (tools/estimator). Put it on the loop variable: `for (@Bound(69) MapInfo mapInfo : mapInfos)`.
+ * Loops with constant bounds, or over enum values() and static final arrays, are bounded automatically.
+ * When the true count grows with the game rather than being fixed, say so in scalesWith and the estimator
+ * flags every method that reaches the loop.
+ * Class retention only, so it never exists at runtime.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE_USE)
+public @interface Bound {
+    int value();
+
+    /** What the real iteration count grows with ("robot count", "map size", ...), if anything. */
+    String scalesWith() default "";
+}
@@ -0,0 +1,126 @@
+package gopherbot;
+
+import battlecode.common.*;
+import gopherbot.comms.*;
+
+/**
+ * Carriers: deliver anchors to unclaimed islands, otherwise mine the well chooseWell() picks and bring the
+ * cargo back, to the HQ or to the well being converted to elixir (see Economy).
+ */
+public strictfp class CarrierStrategy implements Strategy {
+    public void takeTurn(RobotController rc) throws GameActionException {
+        MapLocation me = rc.getLocation();
+        TurnSnapshot.robots(); //sense before moving so the unload block around me lines up with the snapshot
+        //boolean foundWellTarget = false;
+        if (rc.getAnchor() != null) {
+            if (rc.canWriteSharedArray(0,0)) {
+                Channels.writeAnchorCarriers(rc, Channels.readAnchorCarriers(rc)+1);
+            }
+            if (RobotPlayer.currMoveTarget == null || RobotPlayer.islandLocations.get(RobotPlayer.currMoveTarget) != Team.NEUTRAL) {
+                RobotPlayer.currMoveTarget = Islands.nearestUnclaimed(rc);
+                RobotPlayer.moveTargetRange = 0;
+            }
+            if (RobotPlayer.currMoveTarget != null) {
+                Islands.claim(rc, RobotPlayer.currMoveTarget);
+            }
+
+            if (RobotPlayer.currMoveTarget != null) {
+                if (rc.getLocation().equals(RobotPlayer.currMoveTarget)) {
+                    if (rc.canPlaceAnchor()) {
+                        rc.placeAnchor();
+                        int encoded = RobotPlayer.mapInfoToInt(rc, rc.senseMapInfo(rc.getLocation()));
+                        RobotPlayer.mapInfoOutbox.post(rc, encoded, RobotPlayer.outboxPriorityAnchor);
+                    }
+                }
+                if (RobotPlayer.islandLocations.get(RobotPlayer.currMoveTarget) == rc.getTeam()) {
+                    RobotPlayer.currMoveTarget = null;
+                    int encoded = RobotPlayer.mapInfoToInt(rc, rc.senseMapInfo(rc.getLocation()));
+                    RobotPlayer.mapInfoOutbox.post(rc, encoded, RobotPlayer.outboxPriorityAnchor);
+                }
+            }
+            if (rc.canPlaceAnchor() && rc.senseTeamOccupyingIsland(rc.senseIsland(rc.getLocation())) != rc.getTeam()) {
+                rc.placeAnchor();
+            }
+        } else {
+            if (Islands.claimSlot != -1) { //placed our anchor
+                Islands.release(rc);
+            }
+            if (RobotPlayer.currMoveTarget == RobotPlayer.spawnHQLocation && rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ELIXIR) < 40) {
+                RobotPlayer.currMoveTarget = null;
+            }
+            if (!RobotPlayer.isUnloading && rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ELIXIR) == 40) {
+                RobotPlayer.currMoveTarget = Economy.dropOff(rc);
+                RobotPlayer.moveTargetRange = RobotPlayer.currMoveTarget == RobotPlayer.spawnHQLocation ? 0 : 2;
+            } else if (!RobotPlayer.isUnloading && !RobotPlayer.isLoading && RobotPlayer.currMoveTarget == null) {
+                if (RobotPlayer.wellLocations.size() >= 1) {
+                    RobotPlayer.currMoveTarget = chooseWell(rc);
+                    RobotPlayer.moveTargetRange = 2;
+                }
+            }
+        }
+        if (Debug.enabled) Debug.indicate("target", RobotPlayer.currMoveTarget);
+        if (Evasion.evade(rc, RobotPlayer.currMoveTarget != null ? RobotPlayer.currMoveTarget : RobotPlayer.spawnHQLocation)) {
+            //a launcher has us in range; evade() took the move, even mid-load. Otherwise routing skips tiles in range
+        } else if (!RobotPlayer.isLoading && !RobotPlayer.isUnloading) {
+            if (RobotPlayer.currMoveTarget == null) {
+                RobotPlayer.exploreMove(rc);
+            } else {
+                RobotPlayer.pathfindTowardMoveTarget(rc);
+            }
+        }
+
+        if (Debug.enabled) Debug.indicate("target", RobotPlayer.currMoveTarget);
+
+        // Try to gather from and transfer to squares around us.
+        RobotPlayer.isUnloading = false;
+        RobotPlayer.isLoading = false;
+        if (rc.getAnchor() == null) {
+            Economy.feed(rc);
+        }
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                MapLocation newLocation = new MapLocation(me.x + dx, me.y + dy);
+                if (rc.canCollectResource(newLocation, -1) && RobotPlayer.currMoveTarget == null) {
+                    RobotPlayer.isLoading = true;
+                    rc.collectResource(newLocation, -1);
+                    Economy.loadedFrom(newLocation);
+                }
+                if (rc.canTakeAnchor(newLocation, Anchor.STANDARD)) {
+                    rc.takeAnchor(newLocation, Anchor.STANDARD);
+                    RobotPlayer.currMoveTarget = null;
+                }
+                RobotInfo adjacentRobot = TurnSnapshot.adjacentRobot(newLocation);
+                if (adjacentRobot == null || adjacentRobot.getType() != RobotType.HEADQUARTERS || adjacentRobot.getTeam() != rc.getTeam()) {
+                    continue;
+                }
+                for (ResourceType resourceType : ResourceType.values()) {
+                    if (rc.canTransferResource(newLocation, resourceType, 1)) {
+                        rc.transferResource(newLocation, resourceType, 1);
+                        RobotPlayer.isUnloading = true;
+                        break;
+                    }
+                }
+            }
+        }
+        Economy.trackTrip(rc);
+        if (Debug.enabled) {
+            Debug.indicate("unloading", RobotPlayer.isUnloading);
+            Debug.indicate("loading", RobotPlayer.isLoading);
+        }
+
+
+        boolean enemyHasAttackers = TurnSnapshot.numEnemiesOfType(RobotType.LAUNCHER) > 0;
+        boolean selfHasAttackers = TurnSnapshot.numAlliesOfType(RobotType.LAUNCHER) > 0;
+        if (enemyHasAttackers && !selfHasAttackers) {
+            RobotInfo firstEnemy = TurnSnapshot.enemies()[0];
+            if (rc.canAttack(firstEnemy.location)) {
+                rc.attack(firstEnemy.location);
+            }
+        }
+    }
+
+    /** Well to mine next, or null to explore. */
+    MapLocation chooseWell(RobotController rc) throws GameActionException {
+        return Economy.bestWell(rc, Economy.targetResource(rc));
+    }
+}
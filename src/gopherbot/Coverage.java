@@ -0,0 +1,289 @@
+package gopherbot;
+
+import battlecode.common.*;
+import gopherbot.comms.*;
+
+/**
+ * Keeps the army inside write range of the shared array.
+ *
+ * Every robot tracks how long it has been out of range; once it can write again it reports where it went
+ * blind (coverageGap) and, when Debug is on, for how many turns (blindTurns). Amplifiers score the tiles they
+ * can step to by how many sensed allies would come into their range that no HQ (our spawn HQ or one in
+ * sight) or other amplifier already covers, and take the best one; with nobody uncovered around them they head for a recent coverage gap. Each
+ * amplifier posts where it is heading in amplifierPost, and allies near another amplifier's post count as
+ * covered, so two amplifiers never chase the same group. The round stamp is only 4 bits, so the leader HQ
+ * clears posts and gaps once they go stale; otherwise a slot nobody rewrites would look fresh again every
+ * 16 rounds.
+ *
+ * HQs add up robot-turns with write access (the unit census only counts robots that could write) and
+ * without it (blindTurns), and report the fraction.
+ */
+public strictfp class Coverage {
+    static final int ampRadiusSquared = RobotType.AMPLIFIER.actionRadiusSquared;
+    static final int hqRadiusSquared = RobotType.HEADQUARTERS.actionRadiusSquared;
+    static final int staleRounds = 3; //posts and gaps older than this are ignored
+    static final int maxUncovered = 40; //allies scored per turn, to bound the candidate loop
+    static final int reportInterval = 200;
+    static final int maxHqs = 4; //per team
+
+    //every robot
+    static int blindStreak = 0;
+    static MapLocation lastBlindLocation;
+
+    //amplifiers
+    static int postSlot = -1;
+    static int postedWord; //what we last wrote to postSlot
+    static final int[] otherPostX = new int[Channels.amplifierPostSize];
+    static final int[] otherPostY = new int[Channels.amplifierPostSize];
+    static int numOtherPosts = 0;
+    static final int[] sensedHqX = new int[maxHqs]; //our HQs in sight, besides the spawn HQ isCovered() always checks
+    static final int[] sensedHqY = new int[maxHqs];
+    static int numSensedHqs = 0;
+    static final int[] uncoveredX = new int[maxUncovered];
+    static final int[] uncoveredY = new int[maxUncovered];
+    static int numUncovered = 0;
+
+    //headquarters
+    static int accessTurns = 0;
+    static int blindTurns = 0;
+
+    /** Rounds since word was stamped, or 16 for an empty slot. */
+    static int age(int word, int round) {
+        if (word == 0) {
+            return 16;
+        }
+        return (round - Messages.stampedLocationRound(word)) & 15;
+    }
+
+    /** A StampedLocation; x goes in plus one, so even (0, 0) on round 0 is not taken for an empty slot. */
+    static int stamp(int x, int y, int round) {
+        return Messages.packStampedLocation(x + 1, y, round & 15);
+    }
+
+    static int stampX(int word) {
+        return Messages.stampedLocationXPlus1(word) - 1;
+    }
+
+    static int stampY(int word) {
+        return Messages.stampedLocationY(word);
+    }
+
+    /** Leader HQ, every round: clears posts and gaps before their stamp can wrap around. */
+    static void expire(RobotController rc) throws GameActionException {
+        int round = rc.getRoundNum();
+        for (int i = 0; i < Channels.amplifierPostSize; i ++) {
+            int word = Channels.readAmplifierPost(rc, i);
+            if (word != 0 && age(word, round) >= staleRounds) {
+                Channels.writeAmplifierPost(rc, i, 0);
+            }
+        }
+        for (int i = 0; i < Channels.coverageGapSize; i ++) {
+            int word = Channels.readCoverageGap(rc, i);
+            if (word != 0 && age(word, round) >= staleRounds) {
+                Channels.writeCoverageGap(rc, i, 0);
+            }
+        }
+    }
+
+    /** Every robot but HQs, once per turn after Bus.beginTurn(). */
+    static void trackAccess(RobotController rc) throws GameActionException {
+        if (!rc.canWriteSharedArray(0, 0)) {
+            blindStreak++;
+            lastBlindLocation = rc.getLocation();
+            return;
+        }
+        if (blindStreak == 0) {
+            return;
+        }
+        if (Debug.enabled) Channels.writeBlindTurns(rc, Channels.readBlindTurns(rc) + blindStreak);
+        blindStreak = 0;
+
+        //replace the older of the two gap reports
+        int round = rc.getRoundNum();
+        int slot = age(Channels.readCoverageGap(rc, 0), round) >= age(Channels.readCoverageGap(rc, 1), round) ? 0 : 1;
+        Channels.writeCoverageGap(rc, slot, stamp(lastBlindLocation.x, lastBlindLocation.y, round));
+    }
+
+    /** HQs, every turn before the counters are reset: adds last round's robot-turns with and without access. */
+    static void recordAccess(RobotController rc) throws GameActionException {
+        for (int i = 0; i < Channels.unitCountSize; i ++) {
+            accessTurns += Channels.readUnitCount(rc, i);
+        }
+        blindTurns += Channels.readBlindTurns(rc);
+    }
+
+    static int accessPercent() {
+        int total = accessTurns + blindTurns;
+        return total == 0 ? 100 : 100 * accessTurns / total;
+    }
+
+    static void report(RobotController rc) {
+        Debug.indicate("access%", accessPercent());
+        if (rc.getRoundNum() % reportInterval == 0) {
+            System.out.println("write access " + accessPercent() + "% of " + (accessTurns + blindTurns) + " robot-turns");
+        }
+    }
+
+    static boolean isCovered(int x, int y) {
+        MapLocation hq = RobotPlayer.spawnHQLocation;
+        if (hq != null && (hq.x - x) * (hq.x - x) + (hq.y - y) * (hq.y - y) <= hqRadiusSquared) {
+            return true;
+        }
+        for (@Bound(maxHqs) int i = 0; i < numSensedHqs; i ++) {
+            int dx = sensedHqX[i] - x;
+            int dy = sensedHqY[i] - y;
+            if (dx * dx + dy * dy <= hqRadiusSquared) {
+                return true;
+            }
+        }
+        for (@Bound(Channels.amplifierPostSize) int i = 0; i < numOtherPosts; i ++) {
+            int dx = otherPostX[i] - x;
+            int dy = otherPostY[i] - y;
+            if (dx * dx + dy * dy <= ampRadiusSquared) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int score(int x, int y) {
+        int score = 0;
+        for (@Bound(maxUncovered) int i = 0; i < numUncovered; i ++) {
+            int dx = uncoveredX[i] - x;
+            int dy = uncoveredY[i] - y;
+            if (dx * dx + dy * dy <= ampRadiusSquared) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    static void runAmplifier(RobotController rc) throws GameActionException {
+        MapLocation me = rc.getLocation();
+        int round = rc.getRoundNum();
+
+        //read the other posts and make sure we hold a slot
+        numOtherPosts = 0;
+        int freeSlot = -1;
+        for (int i = 0; i < Channels.amplifierPostSize; i ++) {
+            int word = Channels.readAmplifierPost(rc, i);
+            if (i == postSlot) {
+                if (word == postedWord) {
+                    continue;
+                }
+                postSlot = -1; //expired while we were out of range, and maybe taken since
+            }
+            if (age(word, round) >= staleRounds) {
+                if (freeSlot == -1) {
+                    freeSlot = i;
+                }
+                continue;
+            }
+            otherPostX[numOtherPosts] = stampX(word);
+            otherPostY[numOtherPosts] = stampY(word);
+            numOtherPosts++;
+        }
+        if (postSlot == -1) {
+            postSlot = freeSlot; //stays -1 with every slot taken; we still plan, just without posting
+        }
+
+        RobotInfo[] hqs = TurnSnapshot.alliesOfType(RobotType.HEADQUARTERS);
+        numSensedHqs = Math.min(TurnSnapshot.numAlliesOfType(RobotType.HEADQUARTERS), maxHqs);
+        for (@Bound(maxHqs) int i = 0; i < numSensedHqs; i ++) {
+            sensedHqX[i] = hqs[i].location.x;
+            sensedHqY[i] = hqs[i].location.y;
+        }
+
+        //sensed amplifiers cover their surroundings too, wherever they are heading
+        RobotInfo[] amplifiers = TurnSnapshot.alliesOfType(RobotType.AMPLIFIER);
+        int numAmplifiers = TurnSnapshot.numAlliesOfType(RobotType.AMPLIFIER);
+        numUncovered = 0;
+        RobotInfo[] allies = TurnSnapshot.allies();
+        int numAllies = TurnSnapshot.numAllies();
+        for (@Bound(value = 109, scalesWith = "robot count") int i = 0; i < numAllies && numUncovered < maxUncovered; i ++) {
+            RobotInfo ally = allies[i];
+            if (ally.type == RobotType.HEADQUARTERS || ally.type == RobotType.AMPLIFIER) {
+                continue;
+            }
+            MapLocation location = ally.location;
+            if (isCovered(location.x, location.y)) {
+                continue;
+            }
+            boolean nearAmplifier = false;
+            for (@Bound(value = 8, scalesWith = "robot count") int j = 0; j < numAmplifiers; j ++) {
+                if (amplifiers[j].location.distanceSquaredTo(location) <= ampRadiusSquared) {
+                    nearAmplifier = true;
+                    break;
+                }
+            }
+            if (nearAmplifier) {
+                continue;
+            }
+            uncoveredX[numUncovered] = location.x;
+            uncoveredY[numUncovered] = location.y;
+            numUncovered++;
+        }
+
+        //best tile we can reach this turn
+        Direction bestDirection = Direction.CENTER;
+        int bestScore = score(me.x, me.y);
+        if (rc.isMovementReady()) {
+            for (Direction direction : RobotPlayer.directions) {
+                if (!rc.canMove(direction)) {
+                    continue;
+                }
+                MapLocation next = me.add(direction);
+                int score = score(next.x, next.y);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestDirection = direction;
+                }
+            }
+        }
+        if (Debug.enabled) Debug.indicate("covers", bestScore);
+
+        MapLocation target = null;
+        if (bestScore > 0) {
+            target = me.add(bestDirection);
+            if (bestDirection != Direction.CENTER) {
+                rc.move(bestDirection);
+            }
+        } else {
+            //nobody around needs us; go where robots recently lost range, unless someone else is on it
+            int bestAge = staleRounds;
+            for (int i = 0; i < Channels.coverageGapSize; i ++) {
+                int word = Channels.readCoverageGap(rc, i);
+                int age = age(word, round);
+                if (age < bestAge && !isCovered(stampX(word), stampY(word))) {
+                    bestAge = age;
+                    target = new MapLocation(stampX(word), stampY(word));
+                }
+            }
+            if (target != null) {
+                moveToward(rc, target);
+            } else {
+                RobotPlayer.followTeammates(rc, Params.idleAmplifierWeights);
+                target = rc.getLocation();
+            }
+        }
+
+        if (postSlot != -1 && rc.canWriteSharedArray(0, 0)) {
+            postedWord = stamp(target.x, target.y, round);
+            Channels.writeAmplifierPost(rc, postSlot, postedWord);
+        }
+    }
+
+    static void moveToward(RobotController rc, MapLocation target) throws GameActionException {
+        Direction direction = rc.getLocation().directionTo(target);
+        if (direction == Direction.CENTER) {
+            return;
+        }
+        if (rc.canMove(direction)) {
+            rc.move(direction);
+        } else if (rc.canMove(direction.rotateLeft())) {
+            rc.move(direction.rotateLeft());
+        } else if (rc.canMove(direction.rotateRight())) {
+            rc.move(direction.rotateRight());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package gopherbot;
+
+import battlecode.common.*;
+
+/**
+ * Indicator and exception output that costs nothing in tournament builds.
+ *
+ * enabled is a compile-time constant: zipForSubmit (and run with -PdebugBuild=false) compiles this file with
+ * it set to false, so every `if (Debug.enabled)` block disappears from the bytecode. Call sites on hot paths
+ * should wrap themselves in that check; the methods below also return immediately when disabled.
+ *
+ * Messages are stored unformatted in a ring buffer (label plus raw value) and only turned into a string
+ * by flush() at the end of the turn, so the newest ringSize messages of a turn win.
+ */
+public strictfp class Debug {
+    public static final boolean enabled = true;
+
+    static final int ringSize = 8;
+    static final int kindInt = 0;
+    static final int kindFloat = 1;
+    static final int kindObject = 2;
+
+    static final String[] labels = new String[ringSize];
+    static final int[] kinds = new int[ringSize];
+    static final int[] intValues = new int[ringSize];
+    static final float[] floatValues = new float[ringSize];
+    static final Object[] objectValues = new Object[ringSize];
+    static int head = 0; //next slot to write
+    static int count = 0;
+
+    static int push(String label, int kind) {
+        int slot = head;
+        labels[slot] = label;
+        kinds[slot] = kind;
+        head = (head + 1) % ringSize;
+        if (count < ringSize) {
+            count++;
+        }
+        return slot;
+    }
+
+    static void indicate(String label, int value) {
+        if (!enabled) return;
+        intValues[push(label, kindInt)] = value;
+    }
+
+    static void indicate(String label, boolean value) {
+        if (!enabled) return;
+        intValues[push(label, kindInt)] = value ? 1 : 0;
+    }
+
+    static void indicate(String label, float value) {
+        if (!enabled) return;
+        floatValues[push(label, kindFloat)] = value;
+    }
+
+    static void indicate(String label, Object value) {
+        if (!enabled) return;
+        objectValues[push(label, kindObject)] = value;
+    }
+
+    /** Formats this turn's messages into the indicator string and empties the ring. */
+    static void flush(RobotController rc) {
+        if (!enabled) return;
+        if (count == 0) {
+            return;
+        }
+        StringBuilder indicatorString = new StringBuilder();
+        int slot = (head - count + ringSize) % ringSize;
+        for (@Bound(ringSize) int i = 0; i < count; i ++) {
+            if (i > 0) {
+                indicatorString.append(" | ");
+            }
+            if (labels[slot] != null) {
+                indicatorString.append(labels[slot]).append(' ');
+            }
+            if (kinds[slot] == kindInt) {
+                indicatorString.append(intValues[slot]);
+            } else if (kinds[slot] == kindFloat) {
+                indicatorString.append(RobotPlayer.round(floatValues[slot]));
+            } else {
+                indicatorString.append(objectValues[slot]);
+                objectValues[slot] = null;
+            }
+            slot = (slot + 1) % ringSize;
+        }
+        count = 0;
+        rc.setIndicatorString(indicatorString.toString());
+    }
+
+    public static void exception(RobotController rc, Exception e) {
+        if (!enabled) return;
+        System.out.println(rc.getType() + " Exception");
+        e.printStackTrace();
+    }
+}
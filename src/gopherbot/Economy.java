@@ -0,0 +1,235 @@
+package gopherbot;
+
+import battlecode.common.*;
+import gopherbot.comms.*;
+
+import java.util.Map;
+
+/**
+ * Which wells carriers work, and when a well is worth turning into an elixir well.
+ *
+ * A well becomes an elixir well once carriers have dropped enough of the other basic resource into it (mana
+ * into an adamantium well, adamantium into a mana well). The leader HQ watches the team's stock, summed over
+ * all HQs (see Production): when one resource stays above elixirSurplus for elixirSurplusRounds rounds,
+ * income is outrunning what we spend, so the leader posts the nearest well of the other type in elixirWell,
+ * as long as that is not our only well of its type. The feeder share of carriers then mines the surplus
+ * resource and drops it in that well instead of at the HQ. The leader clears the post once the well shows up
+ * as elixir in map info, or after elixirConversionTimeout rounds.
+ *
+ * Every carrier keeps what it delivered from each well it worked and how many rounds those trips took, and
+ * picks the well with the best measured rate; wells it has not worked yet are estimated from the distance
+ * there and back, so a far well is only taken when the near ones are slow.
+ */
+public strictfp class Economy {
+    static final int maxTrackedWells = 8;
+    static final int loadRounds = 8; //rounds a carrier spends filling up at a well
+    static final ResourceType[] basicResources = {ResourceType.ADAMANTIUM, ResourceType.MANA};
+
+    //leader HQ
+    static final int[] surplusRounds = new int[basicResources.length];
+    static int conversionRound;
+
+    //carriers
+    static final MapLocation[] trackedWells = new MapLocation[maxTrackedWells];
+    static final int[] delivered = new int[maxTrackedWells];
+    static final int[] tripRounds = new int[maxTrackedWells];
+    static int numTrackedWells = 0;
+    static MapLocation lastWell;
+    static int cargo; //most we carried since the last drop-off
+    static int tripStart;
+
+    static ResourceType other(ResourceType type) {
+        return type == ResourceType.ADAMANTIUM ? ResourceType.MANA : ResourceType.ADAMANTIUM;
+    }
+
+    /** The well being converted, or null when there is none. */
+    static MapLocation conversionWell(RobotController rc) throws GameActionException {
+        int word = Channels.readElixirWell(rc);
+        if (word == 0) {
+            return null;
+        }
+        return new MapLocation(Coverage.stampX(word), Coverage.stampY(word));
+    }
+
+    /** Leader HQ, every round after collectStock(): starts a conversion when a resource piles up, ends it once the well turned. */
+    static void plan(RobotController rc) throws GameActionException {
+        int round = rc.getRoundNum();
+        MapLocation converting = conversionWell(rc);
+        if (converting != null) {
+            ResourceType type = RobotPlayer.wellLocations.get(converting);
+            if (type == ResourceType.ELIXIR || round - conversionRound > Params.elixirConversionTimeout) {
+                Channels.writeElixirWell(rc, 0);
+            }
+            return;
+        }
+
+        for (@Bound(2) int i = 0; i < basicResources.length; i ++) {
+            if (Production.teamStock(basicResources[i]) >= Params.elixirSurplus) {
+                surplusRounds[i]++;
+            } else {
+                surplusRounds[i] = 0;
+            }
+            if (surplusRounds[i] < Params.elixirSurplusRounds) {
+                continue;
+            }
+            surplusRounds[i] = 0;
+            MapLocation well = convertibleWell(rc, other(basicResources[i]));
+            if (well != null) {
+                Channels.writeElixirWell(rc, Coverage.stamp(well.x, well.y, round));
+                conversionRound = round;
+                if (Debug.enabled) Debug.indicate("convert", well);
+                return;
+            }
+        }
+    }
+
+    /** Our nearest well of type, unless it is the only one of its type we know of or we have enough elixir wells. */
+    static MapLocation convertibleWell(RobotController rc, ResourceType type) {
+        MapLocation me = rc.getLocation();
+        MapLocation nearest = null;
+        int count = 0;
+        int elixirWells = 0;
+        for (Map.@Bound(value = RobotPlayer.maxWells, scalesWith = RobotPlayer.wellCount) Entry<MapLocation, ResourceType> entry : RobotPlayer.wellLocations.entrySet()) {
+            if (entry.getValue() == ResourceType.ELIXIR) {
+                elixirWells++;
+            }
+            if (entry.getValue() != type) {
+                continue;
+            }
+            count++;
+            if (nearest == null || me.distanceSquaredTo(entry.getKey()) < me.distanceSquaredTo(nearest)) {
+                nearest = entry.getKey();
+            }
+        }
+        return count >= 2 && elixirWells < Params.maxElixirWells ? nearest : null;
+    }
+
+    static boolean isFeeder(RobotController rc) {
+        return rc.getID() % 100 < Params.elixirFeederPercent;
+    }
+
+    /** What a carrier without a target should go and mine. */
+    static ResourceType targetResource(RobotController rc) throws GameActionException {
+        if (isFeeder(rc)) {
+            MapLocation converting = conversionWell(rc);
+            if (converting != null && RobotPlayer.wellLocations.get(converting) != null && RobotPlayer.wellLocations.get(converting) != ResourceType.ELIXIR) {
+                return other(RobotPlayer.wellLocations.get(converting));
+            }
+        }
+        if (rc.getID() % 100 >= 100 - Params.elixirCarrierPercent && RobotPlayer.wellLocations.containsValue(ResourceType.ELIXIR)) {
+            return ResourceType.ELIXIR;
+        }
+        return basicResources[RobotPlayer.turnCount % 2];
+    }
+
+    /** Known well of type with the best delivered amount per round, measured or estimated; null if none. */
+    static MapLocation bestWell(RobotController rc, ResourceType type) {
+        MapLocation me = rc.getLocation();
+        MapLocation hq = RobotPlayer.spawnHQLocation;
+        MapLocation best = null;
+        float bestRate = 0;
+        for (Map.@Bound(value = RobotPlayer.maxWells, scalesWith = RobotPlayer.wellCount) Entry<MapLocation, ResourceType> entry : RobotPlayer.wellLocations.entrySet()) {
+            if (entry.getValue() != type) {
+                continue;
+            }
+            MapLocation well = entry.getKey();
+            float rate;
+            int tracked = tracked(well);
+            if (tracked != -1 && tripRounds[tracked] > 0) {
+                rate = (float) delivered[tracked] / tripRounds[tracked];
+            } else {
+                int rounds = Math.max(Math.abs(well.x - me.x), Math.abs(well.y - me.y)) + Math.max(Math.abs(well.x - hq.x), Math.abs(well.y - hq.y)) + loadRounds;
+                rate = (float) GameConstants.CARRIER_CAPACITY / rounds;
+            }
+            if (rate > bestRate) {
+                best = well;
+                bestRate = rate;
+            }
+        }
+        return best;
+    }
+
+    static int tracked(MapLocation well) {
+        for (@Bound(maxTrackedWells) int i = 0; i < numTrackedWells; i ++) {
+            if (trackedWells[i].equals(well)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Where a full carrier drops off: the well being converted for feeders carrying what it needs, else the HQ. */
+    static MapLocation dropOff(RobotController rc) throws GameActionException {
+        if (isFeeder(rc)) {
+            MapLocation converting = conversionWell(rc);
+            if (converting != null) {
+                ResourceType type = RobotPlayer.wellLocations.get(converting);
+                if (type != null && type != ResourceType.ELIXIR && rc.getResourceAmount(other(type)) > 0) {
+                    return converting;
+                }
+            }
+        }
+        return RobotPlayer.spawnHQLocation;
+    }
+
+    /** Carriers, after moving: drops the fed resource into the well being converted if it is in reach. */
+    static boolean feed(RobotController rc) throws GameActionException {
+        MapLocation target = RobotPlayer.currMoveTarget;
+        if (target == null || target == RobotPlayer.spawnHQLocation) {
+            target = dropOff(rc);
+        }
+        if (target == RobotPlayer.spawnHQLocation || !rc.canSenseLocation(target)) {
+            return false;
+        }
+        WellInfo well = rc.senseWell(target);
+        if (well == null || well.getResourceType() == ResourceType.ELIXIR) {
+            return false;
+        }
+        ResourceType fed = other(well.getResourceType());
+        int amount = rc.getResourceAmount(fed);
+        if (amount == 0 || !rc.canTransferResource(target, fed, amount)) {
+            return false;
+        }
+        rc.transferResource(target, fed, amount);
+        if (RobotPlayer.currMoveTarget != null && RobotPlayer.currMoveTarget.equals(target)) {
+            RobotPlayer.currMoveTarget = null;
+        }
+        lastWell = null; //not a delivery to measure the well by
+        cargo = 0;
+        tripStart = rc.getRoundNum();
+        return true;
+    }
+
+    static void loadedFrom(MapLocation well) {
+        lastWell = well;
+    }
+
+    /** Carriers, after the load/unload loop: ends the trip once the cargo is all at the HQ. */
+    static void trackTrip(RobotController rc) {
+        if (tripStart == 0) {
+            tripStart = rc.getRoundNum();
+        }
+        int carried = rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ELIXIR);
+        if (carried > cargo) {
+            cargo = carried;
+            return;
+        }
+        if (carried > 0 || cargo == 0) {
+            return;
+        }
+        int round = rc.getRoundNum();
+        if (lastWell != null) {
+            int i = tracked(lastWell);
+            if (i == -1 && numTrackedWells < maxTrackedWells) {
+                i = numTrackedWells++;
+                trackedWells[i] = lastWell;
+            }
+            if (i != -1) {
+                delivered[i] += cargo;
+                tripRounds[i] += round - tripStart;
+            }
+        }
+        cargo = 0;
+        tripStart = round;
+    }
+}
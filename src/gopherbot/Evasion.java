@@ -0,0 +1,98 @@
+package gopherbot;
+
+import battlecode.common.*;
+
+/**
+ * Carrier flee step. Every enemy launcher in view adds one to the danger of each tile around us that is in
+ * its action radius. When our own tile is in range the carrier takes the least dangerous tile it can reach,
+ * breaking ties by distance to where it is going, so it keeps making progress home or to its well while it
+ * gets out of range. Otherwise it leaves the move to the normal routing, which only vetoes steps into a
+ * dangerous tile (isSafe).
+ *
+ * The danger of all nine tiles is summed in one long: dangerMasks holds, for every enemy offset within
+ * maxOffset, a 4 bit counter per tile (RobotPlayer.directions order, then CENTER) set to 1 where that tile is
+ * in range. One lookup and one add per launcher, counting at most maxCounted of them so no counter overflows
+ * into the next.
+ */
+public strictfp class Evasion {
+    static final int launcherRadiusSquared = 16; //RobotType.LAUNCHER.actionRadiusSquared the table was built for
+    static final int maxOffset = 5; //an enemy further than this along either axis cannot reach any tile next to us
+    static final int tableWidth = 2 * maxOffset + 1;
+    static final int centerField = 8;
+    static final int maxCounted = 15; //launchers counted per turn, so no counter overflows into the next
+
+    static long field; //danger around us this turn, as evade() last summed it
+
+    //indexed by (dx + maxOffset) * tableWidth + dy + maxOffset, with (dx, dy) the enemy relative to us
+    static final long[] dangerMasks = {
+        0x000000000L, 0x000000000L, 0x000000000L, 0x000000000L, 0x000100000L, 0x001000000L, 0x010000000L, 0x000000000L, 0x000000000L, 0x000000000L, 0x000000000L, //dx = -5
+        0x000000000L, 0x000000000L, 0x000100000L, 0x001100000L, 0x011110000L, 0x111100000L, 0x011100001L, 0x011000000L, 0x010000000L, 0x000000000L, 0x000000000L, //dx = -4
+        0x000000000L, 0x000100000L, 0x001110000L, 0x111110000L, 0x111111001L, 0x111110101L, 0x111110011L, 0x111100001L, 0x011000001L, 0x010000000L, 0x000000000L, //dx = -3
+        0x000000000L, 0x000110000L, 0x101111000L, 0x111111101L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111110111L, 0x111000011L, 0x010000001L, 0x000000000L, //dx = -2
+        0x000100000L, 0x001111000L, 0x111111100L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111100111L, 0x011000011L, 0x010000000L, //dx = -1
+        0x000010000L, 0x100111000L, 0x101111101L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111010111L, 0x110000011L, 0x000000001L, //dx = 0
+        0x000001000L, 0x000111100L, 0x101111110L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111001111L, 0x010000111L, 0x000000010L, //dx = 1
+        0x000000000L, 0x000011000L, 0x100111100L, 0x101111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111011111L, 0x110000111L, 0x000000011L, 0x000000000L, //dx = 2
+        0x000000000L, 0x000001000L, 0x000011100L, 0x100011110L, 0x100111111L, 0x101011111L, 0x110011111L, 0x100001111L, 0x000000111L, 0x000000010L, 0x000000000L, //dx = 3
+        0x000000000L, 0x000000000L, 0x000001000L, 0x000001100L, 0x000011110L, 0x100001110L, 0x000001111L, 0x000000110L, 0x000000010L, 0x000000000L, 0x000000000L, //dx = 4
+        0x000000000L, 0x000000000L, 0x000000000L, 0x000000000L, 0x000001000L, 0x000000100L, 0x000000010L, 0x000000000L, 0x000000000L, 0x000000000L, 0x000000000L, //dx = 5
+    };
+
+    static int danger(long field, int tile) {
+        return (int) (field >>> (tile << 2)) & 15;
+    }
+
+    /** Whether stepping in direction keeps us out of every launcher's range, as of this turn's evade(). */
+    static boolean isSafe(Direction direction) {
+        return field == 0 || danger(field, direction.ordinal()) == 0; //directions is in Direction ordinal order
+    }
+
+    /**
+     * Steps away from enemy launchers toward goal (may be null); returns false, without moving, when none of
+     * them covers our own tile.
+     */
+    static boolean evade(RobotController rc, MapLocation goal) throws GameActionException {
+        field = 0;
+        int numLaunchers = Math.min(TurnSnapshot.numEnemiesOfType(RobotType.LAUNCHER), maxCounted);
+        if (numLaunchers == 0) {
+            return false;
+        }
+        RobotInfo[] launchers = TurnSnapshot.enemiesOfType(RobotType.LAUNCHER);
+        MapLocation me = rc.getLocation();
+        for (@Bound(maxCounted) int i = 0; i < numLaunchers; i ++) {
+            MapLocation location = launchers[i].location;
+            int dx = location.x - me.x + maxOffset;
+            int dy = location.y - me.y + maxOffset;
+            if (dx >= 0 && dx < tableWidth && dy >= 0 && dy < tableWidth) {
+                field += dangerMasks[dx * tableWidth + dy];
+            }
+        }
+        if (danger(field, centerField) == 0) {
+            return false;
+        }
+
+        Direction bestDirection = Direction.CENTER;
+        int bestDanger = danger(field, centerField);
+        int bestDistance = goal == null ? 0 : me.distanceSquaredTo(goal);
+        if (rc.isMovementReady()) {
+            for (@Bound(8) int i = 0; i < RobotPlayer.directions.length; i ++) {
+                Direction direction = RobotPlayer.directions[i];
+                int danger = danger(field, i);
+                if (danger > bestDanger || !rc.canMove(direction)) {
+                    continue;
+                }
+                int distance = goal == null ? 0 : me.add(direction).distanceSquaredTo(goal);
+                if (danger < bestDanger || distance < bestDistance) {
+                    bestDirection = direction;
+                    bestDanger = danger;
+                    bestDistance = distance;
+                }
+            }
+        }
+        if (Debug.enabled) Debug.indicate("danger", bestDanger);
+        if (bestDirection != Direction.CENTER) {
+            rc.move(bestDirection);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package gopherbot;
+
+import battlecode.common.*;
+import gopherbot.comms.*;
+
+/** Headquarters: team planning when we lead (see Production), then our share of the builds. */
+public strictfp class HeadquartersStrategy implements Strategy {
+    public void takeTurn(RobotController rc) throws GameActionException {
+        if (rc.getRoundNum() == 1) { //pass first round so every HQ has registered
+            Production.register(rc);
+            return;
+        }
+        Production.beginTurn(rc);
+        RobotPlayer.indicateMapInfos(rc);
+
+        if (Production.isLeader()) {
+            IslandWatch.decayRequests(rc);
+            Islands.expireClaims(rc);
+            Coverage.expire(rc);
+            Production.collectStock(rc);
+            Economy.plan(rc);
+            Production.plan(rc);
+        }
+        if (Debug.enabled) {
+            Coverage.recordAccess(rc);
+            Coverage.report(rc);
+        }
+
+        //set indicator string to robot counts
+        if (Debug.enabled) {
+            for (int i = 0; i < Channels.unitCountSize; i ++) {
+                Debug.indicate(null, Channels.readUnitCount(rc, i));
+            }
+            Debug.indicate(null, Channels.readAnchorCarriers(rc));
+        }
+
+        Production.build(rc);
+        if (!Production.isLeader()) {
+            Production.postStock(rc);
+        }
+
+        if (Production.isLast()) {
+            for (int i = 0; i < Channels.unitCountSize; i ++) {
+                Channels.writeUnitCount(rc, i, 0);
+            }
+            Channels.writeAnchorCarriers(rc, 0);
+            if (Debug.enabled) Channels.writeBlindTurns(rc, 0);
+        }
+    }
+}
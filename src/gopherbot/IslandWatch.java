@@ -0,0 +1,174 @@
+package gopherbot;
+
+import battlecode.common.*;
+import gopherbot.comms.*;
+
+/**
+ * What each robot last saw of every island it has sensed, keyed by island id: when, who held it and, for ours,
+ * how much health the anchor had. Broadcast island tiles only say who held a tile when somebody last looked;
+ * this is what lets a robot notice an island is being taken from us.
+ *
+ * An island of ours with enemies around it, a falling anchor, or that we held last time and lost, is posted
+ * as a defense request with a threat from 1 to 15 (enemy weights as in Threats). Requests for the same island
+ * keep the higher threat, and HQs lower every request by one each defenseDecayRounds rounds, so a request
+ * lasts while someone keeps seeing the attack. Launchers answer the most threatening request, and defending
+ * launchers with nothing to answer re-scout the island of ours they have gone longest without seeing.
+ */
+public strictfp class IslandWatch {
+    static final int contestRadiusSquared = 20; //enemies this close to an island count against it
+    static final int healthDropThreat = 4;
+    static final int lostThreat = 8;
+    static final int defenseDecayRounds = 2;
+    static final int staleRounds = 150; //an island of ours unseen this long is worth a look
+
+    static final MapLocation[] representative = new MapLocation[Islands.maxIslands + 1]; //island tile nearest the middle of what we first sensed
+    static final int[] verifiedRound = new int[Islands.maxIslands + 1];
+    static final Team[] owner = new Team[Islands.maxIslands + 1];
+    static final int[] anchorHealth = new int[Islands.maxIslands + 1];
+
+    /** Every robot, once per turn: re-verifies the islands in view and posts the ones under attack. */
+    static void observe(RobotController rc) throws GameActionException {
+        int[] islands = TurnSnapshot.islands();
+        if (islands.length == 0) {
+            return;
+        }
+        int round = rc.getRoundNum();
+        Team team = rc.getTeam();
+        for (@Bound(value = 35, scalesWith = "island count") int i = 0; i < islands.length; i ++) {
+            int id = islands[i];
+            if (representative[id] == null) {
+                representative[id] = middleTile(TurnSnapshot.islandLocations(i));
+            }
+            Team previousOwner = owner[id];
+            int previousHealth = anchorHealth[id];
+            owner[id] = rc.senseTeamOccupyingIsland(id);
+            anchorHealth[id] = owner[id] == team ? rc.senseAnchorPlantedHealth(id) : 0;
+            verifiedRound[id] = round;
+
+            int threat = 0;
+            if (owner[id] == team) {
+                threat = enemyThreatNear(representative[id]);
+                if (previousOwner == team && anchorHealth[id] < previousHealth) {
+                    threat += healthDropThreat;
+                }
+            } else if (previousOwner == team) {
+                threat = lostThreat + enemyThreatNear(representative[id]);
+            }
+            if (threat > 0) {
+                request(rc, representative[id], Math.min(threat, 15));
+            }
+        }
+    }
+
+    static MapLocation middleTile(MapLocation[] tiles) {
+        int sumX = 0;
+        int sumY = 0;
+        for (@Bound(109) MapLocation tile : tiles) {
+            sumX += tile.x;
+            sumY += tile.y;
+        }
+        MapLocation middle = new MapLocation(sumX / tiles.length, sumY / tiles.length);
+        MapLocation best = tiles[0];
+        for (@Bound(109) MapLocation tile : tiles) {
+            if (tile.distanceSquaredTo(middle) < best.distanceSquaredTo(middle)) {
+                best = tile;
+            }
+        }
+        return best;
+    }
+
+    static int enemyThreatNear(MapLocation location) {
+        RobotInfo[] enemies = TurnSnapshot.enemies();
+        int numEnemies = TurnSnapshot.numEnemies();
+        int threat = 0;
+        for (@Bound(value = 109, scalesWith = "robot count") int i = 0; i < numEnemies; i ++) {
+            if (enemies[i].location.distanceSquaredTo(location) <= contestRadiusSquared) {
+                threat += Threats.threatWeights[RobotPlayer.robotTypeToInt(enemies[i].type)];
+            }
+        }
+        return threat;
+    }
+
+    /** Posts or raises the request for location's island; takes the weakest slot if it is weaker than threat. */
+    static void request(RobotController rc, MapLocation location, int threat) throws GameActionException {
+        if (!rc.canWriteSharedArray(0, 0)) {
+            return;
+        }
+        int root = Islands.root(location);
+        int weakestSlot = -1;
+        int weakestThreat = threat;
+        for (int i = 0; i < Channels.defenseRequestSize; i ++) {
+            int word = Channels.readDefenseRequest(rc, i);
+            int slotThreat = Messages.defenseRequestThreat(word);
+            if (word != 0 && Islands.root(new MapLocation(Messages.defenseRequestX(word), Messages.defenseRequestY(word))) == root) {
+                if (slotThreat < threat) {
+                    Channels.writeDefenseRequest(rc, i, location.x, location.y, threat);
+                }
+                return;
+            }
+            if (slotThreat < weakestThreat) {
+                weakestSlot = i;
+                weakestThreat = slotThreat;
+            }
+        }
+        if (weakestSlot != -1) {
+            Channels.writeDefenseRequest(rc, weakestSlot, location.x, location.y, threat);
+        }
+    }
+
+    /** First HQ to run each round. */
+    static void decayRequests(RobotController rc) throws GameActionException {
+        if (rc.getRoundNum() % defenseDecayRounds != 0) {
+            return;
+        }
+        for (int i = 0; i < Channels.defenseRequestSize; i ++) {
+            int word = Channels.readDefenseRequest(rc, i);
+            int threat = Messages.defenseRequestThreat(word);
+            if (threat > 1) {
+                Channels.writeDefenseRequest(rc, i, Messages.defenseRequestX(word), Messages.defenseRequestY(word), threat - 1);
+            } else if (word != 0) {
+                Channels.writeDefenseRequest(rc, i, 0);
+            }
+        }
+    }
+
+    /** The most threatening request within radiusSquared (nearest on ties), or null. */
+    static MapLocation defenseTarget(RobotController rc, int radiusSquared) throws GameActionException {
+        MapLocation me = rc.getLocation();
+        MapLocation best = null;
+        int bestThreat = 0;
+        int bestDistance = 0;
+        for (int i = 0; i < Channels.defenseRequestSize; i ++) {
+            int word = Channels.readDefenseRequest(rc, i);
+            int threat = Messages.defenseRequestThreat(word);
+            if (threat == 0) {
+                continue;
+            }
+            MapLocation location = new MapLocation(Messages.defenseRequestX(word), Messages.defenseRequestY(word));
+            int distance = me.distanceSquaredTo(location);
+            if (distance > radiusSquared) {
+                continue;
+            }
+            if (threat > bestThreat || (threat == bestThreat && distance < bestDistance)) {
+                best = location;
+                bestThreat = threat;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /** The island of ours we have gone longest without seeing, if that is over staleRounds; otherwise null. */
+    static MapLocation stalestOwnedIsland(RobotController rc) {
+        Team team = rc.getTeam();
+        int oldestRound = rc.getRoundNum() - staleRounds;
+        MapLocation stalest = null;
+        for (int id = 1; id <= Islands.maxIslands; id ++) {
+            if (owner[id] == team && verifiedRound[id] < oldestRound) {
+                oldestRound = verifiedRound[id];
+                stalest = representative[id];
+            }
+        }
+        return stalest;
+    }
+}
@@ -0,0 +1,221 @@
+package gopherbot;
+
+import battlecode.common.*;
+import gopherbot.comms.*;
+
+import java.util.Map;
+
+/**
+ * Which island tiles belong together, and which islands anchors are already on their way to.
+ *
+ * Island tiles arrive one by one as map info, without their island id, so tiles are joined into islands with
+ * a union-find over the map as they come in: two tiles are on the same island when they share a root.
+ *
+ * An anchor carrier claims its target island by writing the tile it is heading to in an islandClaim slot and
+ * refreshing it every turn it can write. Other carriers skip islands with a live claim and take the nearest
+ * unclaimed one, so anchors spread over islands instead of converging on the first in the map. HQs drop claims
+ * nobody refreshed for claimExpiry rounds, before the 4 bit round stamp can wrap, and build anchors while
+ * there are more unclaimed islands than anchors without a claim.
+ */
+public strictfp class Islands {
+    static final int maxIslands = 35; //GameConstants.MAX_NUMBER_ISLANDS
+    static final int maxIslandTiles = maxIslands * 20; //for @Bound; assumes islands of at most 20 tiles, as tools/maps generates them
+    static final int claimExpiry = 10; //rounds
+
+    static int mapHeight;
+    static int[] parent; //by tile x * mapHeight + y: parent tile + 1, or 0 for tiles not known to be island
+
+    static int claimSlot = -1;
+    static int claimWord = 0; //what we last wrote there
+    static final int[] claimedRoots = new int[Channels.islandClaimSize];
+    static int numClaimedRoots = 0;
+    static final int[] roots = new int[maxIslands];
+
+    static void init(RobotController rc) {
+        mapHeight = rc.getMapHeight();
+        parent = new int[rc.getMapWidth() * mapHeight];
+    }
+
+    static int tile(int x, int y) {
+        return x * mapHeight + y;
+    }
+
+    static int find(int tile) {
+        @Bound(value = 16, scalesWith = "island size") int next = parent[tile] - 1;
+        while (next != tile) {
+            parent[tile] = parent[next]; //path halving
+            tile = next;
+            next = parent[tile] - 1;
+        }
+        return tile;
+    }
+
+    static void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            parent[rootA] = rootB + 1;
+        }
+    }
+
+    /** Every island tile we learn about, sensed or broadcast. */
+    static void addTile(int x, int y) {
+        int tile = tile(x, y);
+        if (parent[tile] != 0) {
+            return;
+        }
+        parent[tile] = tile + 1;
+        if (x > 0 && parent[tile - mapHeight] != 0) {
+            union(tile, tile - mapHeight);
+        }
+        if (x < parent.length / mapHeight - 1 && parent[tile + mapHeight] != 0) {
+            union(tile, tile + mapHeight);
+        }
+        if (y > 0 && parent[tile - 1] != 0) {
+            union(tile, tile - 1);
+        }
+        if (y < mapHeight - 1 && parent[tile + 1] != 0) {
+            union(tile, tile + 1);
+        }
+    }
+
+    static int root(MapLocation location) {
+        int tile = tile(location.x, location.y);
+        return parent[tile] == 0 ? tile : find(tile);
+    }
+
+    /** Roots of the islands under a live claim, other than our own. */
+    static void readClaims(RobotController rc) throws GameActionException {
+        int round = rc.getRoundNum();
+        numClaimedRoots = 0;
+        for (int i = 0; i < Channels.islandClaimSize; i ++) {
+            int word = Channels.readIslandClaim(rc, i);
+            if (i == claimSlot || Coverage.age(word, round) >= claimExpiry) {
+                continue;
+            }
+            int tile = tile(Coverage.stampX(word), Coverage.stampY(word));
+            if (parent[tile] != 0) {
+                claimedRoots[numClaimedRoots++] = find(tile);
+            }
+        }
+    }
+
+    static boolean isClaimed(int root) {
+        for (@Bound(Channels.islandClaimSize) int i = 0; i < numClaimedRoots; i ++) {
+            if (claimedRoots[i] == root) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Closest island tile we do not own, by moves, skipping claimed islands unless every island we do not own
+     * is claimed. null when we own every island we know of.
+     */
+    static MapLocation nearestUnclaimed(RobotController rc) throws GameActionException {
+        readClaims(rc);
+        MapLocation me = rc.getLocation();
+        Team team = rc.getTeam();
+        MapLocation best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        MapLocation bestClaimed = null;
+        int bestClaimedDistance = Integer.MAX_VALUE;
+        for (Map.@Bound(value = maxIslandTiles, scalesWith = "island count") Entry<MapLocation, Team> entry : RobotPlayer.islandLocations.entrySet()) {
+            if (entry.getValue() == team) {
+                continue;
+            }
+            MapLocation location = entry.getKey();
+            int distance = Math.max(Math.abs(location.x - me.x), Math.abs(location.y - me.y));
+            if (distance >= bestDistance) {
+                continue;
+            }
+            if (!isClaimed(root(location))) {
+                best = location;
+                bestDistance = distance;
+            } else if (distance < bestClaimedDistance) {
+                bestClaimed = location;
+                bestClaimedDistance = distance;
+            }
+        }
+        return best != null ? best : bestClaimed;
+    }
+
+    /** Claims target's island, or refreshes our claim; needs write access, otherwise waits for it. */
+    static void claim(RobotController rc, MapLocation target) throws GameActionException {
+        if (!rc.canWriteSharedArray(0, 0)) {
+            return;
+        }
+        int round = rc.getRoundNum();
+        if (claimSlot != -1 && Channels.readIslandClaim(rc, claimSlot) != claimWord && Coverage.age(Channels.readIslandClaim(rc, claimSlot), round) < claimExpiry) {
+            claimSlot = -1; //ours expired while we were out of range and someone else took the slot
+        }
+        if (claimSlot == -1) {
+            for (int i = 0; i < Channels.islandClaimSize; i ++) {
+                if (Coverage.age(Channels.readIslandClaim(rc, i), round) >= claimExpiry) {
+                    claimSlot = i;
+                    break;
+                }
+            }
+            if (claimSlot == -1) {
+                return;
+            }
+        }
+        claimWord = Coverage.stamp(target.x, target.y, round);
+        Channels.writeIslandClaim(rc, claimSlot, claimWord);
+    }
+
+    /** Gives up our claim once the anchor is placed. */
+    static void release(RobotController rc) throws GameActionException {
+        if (claimSlot != -1 && rc.canWriteSharedArray(0, 0) && Channels.readIslandClaim(rc, claimSlot) == claimWord) {
+            Channels.writeIslandClaim(rc, claimSlot, 0);
+        }
+        claimSlot = -1;
+    }
+
+    /** HQs, every turn: clears claims nobody refreshed for claimExpiry rounds. */
+    static void expireClaims(RobotController rc) throws GameActionException {
+        int round = rc.getRoundNum();
+        for (int i = 0; i < Channels.islandClaimSize; i ++) {
+            int word = Channels.readIslandClaim(rc, i);
+            if (word != 0 && Coverage.age(word, round) >= claimExpiry) {
+                Channels.writeIslandClaim(rc, i, 0);
+            }
+        }
+    }
+
+    static int liveClaims(RobotController rc) throws GameActionException {
+        int round = rc.getRoundNum();
+        int count = 0;
+        for (int i = 0; i < Channels.islandClaimSize; i ++) {
+            if (Coverage.age(Channels.readIslandClaim(rc, i), round) < claimExpiry) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Islands we know of, do not own and nobody has claimed. */
+    static int unclaimedIslands(RobotController rc) throws GameActionException {
+        readClaims(rc);
+        Team team = rc.getTeam();
+        int numRoots = 0;
+        for (Map.@Bound(value = maxIslandTiles, scalesWith = "island count") Entry<MapLocation, Team> entry : RobotPlayer.islandLocations.entrySet()) {
+            if (entry.getValue() == team) {
+                continue;
+            }
+            int root = root(entry.getKey());
+            if (isClaimed(root)) {
+                continue;
+            }
+            @Bound(maxIslands) int i = 0;
+            while (i < numRoots && roots[i] != root) {
+                i++;
+            }
+            if (i == numRoots && numRoots < maxIslands) {
+                roots[numRoots++] = root;
+            }
+        }
+        return numRoots;
+    }
+}
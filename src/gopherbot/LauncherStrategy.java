@@ -0,0 +1,85 @@
+package gopherbot;
+
+import battlecode.common.*;
+
+/** Launchers: shoot by targetPriorities, then defend, chase sightings or go for islands. */
+public strictfp class LauncherStrategy implements Strategy {
+    static final RobotType[] targetPriorities = {RobotType.LAUNCHER, RobotType.CARRIER, RobotType.DESTABILIZER, RobotType.BOOSTER, RobotType.AMPLIFIER};
+
+    public void takeTurn(RobotController rc) throws GameActionException {
+        // Try to attack someone
+        int radius = rc.getType().actionRadiusSquared;
+        if (TurnSnapshot.numEnemies() >= 1) {
+            MapLocation me = rc.getLocation();
+            MapLocation toAttack = null;
+            for (RobotType targetType : targetPriorities) {
+                RobotInfo[] targets = TurnSnapshot.enemiesOfType(targetType);
+                for (@Bound(value = 109, scalesWith = "robot count") int i = TurnSnapshot.numEnemiesOfType(targetType) - 1; i >= 0; i --) {
+                    if (me.distanceSquaredTo(targets[i].getLocation()) <= radius) {
+                        toAttack = targets[i].getLocation();
+                        break;
+                    }
+                }
+                if (toAttack != null) {
+                    break;
+                }
+            }
+
+            if (toAttack != null && rc.canAttack(toAttack)) {
+                rc.attack(toAttack);
+            }
+        }
+        
+        if (RobotPlayer.currMoveTarget == null) {
+            //islands under attack first, from anywhere if we are a defender, then recent sightings
+            RobotPlayer.currMoveTarget = IslandWatch.defenseTarget(rc, RobotPlayer.launcherWillingToDefend ? Integer.MAX_VALUE : Threats.dispatchRadiusSquared);
+            if (RobotPlayer.currMoveTarget == null) {
+                RobotPlayer.currMoveTarget = Threats.hottestSectorNear(rc);
+            }
+            RobotPlayer.moveTargetRange = radius;
+        }
+        if (RobotPlayer.currMoveTarget == null) {
+            RobotPlayer.moveTargetRange = 0;
+            int numNonOccupiedIslands = 0;
+            int numOccupiedIslands = 0;
+            for (@Bound(value = Islands.maxIslandTiles, scalesWith = "island count") MapLocation mapLocation : RobotPlayer.islandLocations.keySet()) {
+                if (RobotPlayer.islandLocations.get(mapLocation) == Team.NEUTRAL) {
+                    numNonOccupiedIslands++;
+                } else {
+                    numOccupiedIslands++;
+                }
+            }
+            MapLocation staleIsland = RobotPlayer.launcherWillingToDefend ? IslandWatch.stalestOwnedIsland(rc) : null;
+            if (numNonOccupiedIslands > 0 && RobotPlayer.launcherWillingToAttack) {
+                int i = 0;
+                int targetIsland = RobotPlayer.rng.nextInt(numNonOccupiedIslands);
+                for (@Bound(value = Islands.maxIslandTiles, scalesWith = "island count") MapLocation mapLocation : RobotPlayer.islandLocations.keySet()) {
+                    if (RobotPlayer.islandLocations.get(mapLocation) == Team.NEUTRAL) {
+                        if (i == targetIsland) {
+                            RobotPlayer.currMoveTarget = mapLocation;
+                            break;
+                        }
+                        i++;
+                    }
+                }
+            } else if (staleIsland != null) {
+                RobotPlayer.currMoveTarget = staleIsland; //check on it
+            } else if (numOccupiedIslands > 0 && RobotPlayer.launcherWillingToDefend) {
+                int i = 0;
+                int targetIsland = RobotPlayer.rng.nextInt(numOccupiedIslands);
+                for (@Bound(value = Islands.maxIslandTiles, scalesWith = "island count") MapLocation mapLocation : RobotPlayer.islandLocations.keySet()) {
+                    if (RobotPlayer.islandLocations.get(mapLocation) == rc.getTeam()) {
+                        if (i == targetIsland) {
+                            RobotPlayer.currMoveTarget = mapLocation;
+                            break;
+                        }
+                        i++;
+                    }
+                }
+            } else {
+                RobotPlayer.exploreMove(rc);
+            }
+        }
+        RobotPlayer.pathfindTowardMoveTarget(rc);
+    }
+}
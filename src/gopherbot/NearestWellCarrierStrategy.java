@@ -0,0 +1,27 @@
+package gopherbot;
+
+import battlecode.common.*;
+
+import java.util.Map;
+
+/**
+ * Carriers that pick wells as they did before Economy: the nearest one, alternating adamantium and mana by
+ * turn, instead of the best measured rate. Selected with Params.nearestWellCarriers, mostly as a baseline to
+ * ladder Economy against.
+ */
+public strictfp class NearestWellCarrierStrategy extends CarrierStrategy {
+    @Override
+    MapLocation chooseWell(RobotController rc) {
+        ResourceType targetType = ResourceType.values()[RobotPlayer.turnCount % 2 + 1];
+        MapLocation me = rc.getLocation();
+        MapLocation nearest = null;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (Map.@Bound(value = RobotPlayer.maxWells, scalesWith = RobotPlayer.wellCount) Entry<MapLocation, ResourceType> entry : RobotPlayer.wellLocations.entrySet()) {
+            if (entry.getValue() == targetType && entry.getKey().distanceSquaredTo(me) < nearestDistance) {
+                nearest = entry.getKey();
+                nearestDistance = entry.getKey().distanceSquaredTo(me);
+            }
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,24 @@
+package gopherbot;
+
+/**
+ * Hand-picked strategy constants, kept in one place so they can be tuned.
+ *
+ * Fields here can be overridden at build time with -Pparams=<file> (lines of gopherbot.<name>=<value>, arrays
+ * as comma separated values), which is how tools/tuner tries candidates. Copy values worth keeping back here;
+ * submissions are compiled from this file as it is.
+ */
+public strictfp class Params {
+    static final float amplifierToRobotRatio = 0.1f;
+    static final int launcherDefendPercent = 20; //launchers willing to go back for our islands
+    static final int launcherAttackPercent = 50; //launchers willing to go for islands we do not hold
+    static final int carriersPerHQ = 10; //HQs stop planning carriers above this many per HQ
+    static final int elixirSurplus = 300; //stock of a basic resource that counts as more than we spend
+    static final int elixirSurplusRounds = 20; //rounds a surplus has to last before a well is converted to elixir
+    static final int elixirConversionTimeout = 300; //rounds before the leader gives up on a conversion
+    static final int maxElixirWells = 2;
+    static final int elixirFeederPercent = 30; //carriers that feed the well being converted
+    static final int elixirCarrierPercent = 30; //carriers that mine elixir once we have an elixir well
+    static final float[] supportWeights = {-0.3f, 1, 1, 1, 1, 1}; //followTeammates weights for boosters and destabilizers, by robot type ordinal
+    static final boolean nearestWellCarriers = false; //NearestWellCarrierStrategy instead of CarrierStrategy; see Strategy
+    static final float[] idleAmplifierWeights = {-5, 1, 3, 1, 1, -5}; //followTeammates weights for amplifiers with nobody to cover
+}
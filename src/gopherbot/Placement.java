@@ -0,0 +1,192 @@
+package gopherbot;
+
+import battlecode.common.*;
+
+/**
+ * Where boosters and destabilizers use their abilities.
+ *
+ * Both count, for every spot they could use the ability from or on, how many launchers it would reach, with
+ * the same packed counters as Evasion: an offset table gives, for a launcher at (dx, dy) from us, a 4 bit 1 in
+ * the counter of every candidate spot it is in range of, so each sensed launcher costs a lookup and an add no
+ * matter how many spots there are. A destabilizer scores the 45 tiles within its action radius against enemy
+ * launchers (three longs of 16 counters), a booster the tile it stands on and the 8 it can step to against
+ * allied ones (one long, in RobotPlayer.directions order, then CENTER).
+ *
+ * Each use adds the launchers it reached to a running total; with Debug on both report launchers reached per
+ * use, which is what a use has to be worth against building another launcher.
+ */
+public strictfp class Placement {
+    static final int destabilizeRadiusSquared = 15; //enemies this close to the target are destabilized
+    static final int boostRadiusSquared = 20; //allies this close to the booster are boosted
+    static final int maxOffset = 4; //vision radius 20
+    static final int tableWidth = 2 * maxOffset + 1;
+    static final int centerField = 8;
+    static final int maxCounted = 15; //launchers counted per use, so no counter overflows into the next
+    static final int reportInterval = 200;
+
+    //destabilizer targets, relative to us; counter i lives in bits 4 * (i % 16) of destabilizeMasks[i / 16]
+    static final int numTargets = 45;
+    static final int[] targetDx = {-3, -3, -3, -3, -3, -2, -2, -2, -2, -2, -2, -2, -1, -1, -1, -1, -1, -1, -1, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 2, 2, 2, 3, 3, 3, 3, 3};
+    static final int[] targetDy = {-2, -1, 0, 1, 2, -3, -2, -1, 0, 1, 2, 3, -3, -2, -1, 0, 1, 2, 3, -3, -2, -1, 0, 1, 2, 3, -3, -2, -1, 0, 1, 2, 3, -3, -2, -1, 0, 1, 2, 3, -2, -1, 0, 1, 2};
+
+    //indexed by (dx + maxOffset) * tableWidth + dy + maxOffset, with (dx, dy) the launcher relative to us
+    static final long[] destabilizeMasks0 = {
+        0x0011000011100011L, 0x0111000111100111L, 0x1111001111101111L, 0x1111011111111111L, 0x1110111111111111L, 0x1100111111011111L, 0x1000111110011110L, 0x0000111100011100L, 0x0000111000011000L, //dx = -4
+        0x0111000011100011L, 0x1111000111100111L, 0x1111001111101111L, 0x1111011111111111L, 0x1111111111111111L, 0x1110111111011111L, 0x1100111110011110L, 0x1000111100011100L, 0x0000111000011000L, //dx = -3
+        0x0111000011100011L, 0x1111000111100111L, 0x1111001111101111L, 0x1111011111111111L, 0x1111111111111111L, 0x1110111111011111L, 0x1100111110011110L, 0x1000111100011100L, 0x0000111000011000L, //dx = -2
+        0x0111000011100011L, 0x1111000111100111L, 0x1111001111101111L, 0x1111011111111111L, 0x1111111111111111L, 0x1110111111011111L, 0x1100111110011110L, 0x1000111100011100L, 0x0000111000011000L, //dx = -1
+        0x0111000011100001L, 0x1111000111100011L, 0x1111001111100111L, 0x1111011111101111L, 0x1111111111111111L, 0x1110111111011110L, 0x1100111110011100L, 0x1000111100011000L, 0x0000111000010000L, //dx = 0
+        0x0111000001100000L, 0x1111000011100000L, 0x1111000111100000L, 0x1111001111100000L, 0x1111011111000000L, 0x1110111110000000L, 0x1100111100000000L, 0x1000111000000000L, 0x0000110000000000L, //dx = 1
+        0x0011000000000000L, 0x0111000000000000L, 0x1111000000000000L, 0x1111000000000000L, 0x1110000000000000L, 0x1100000000000000L, 0x1000000000000000L, 0x0000000000000000L, 0x0000000000000000L, //dx = 2
+        0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, //dx = 3
+        0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, //dx = 4
+    };
+    static final long[] destabilizeMasks1 = {
+        0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000001L, 0x0000000000000011L, 0x0000000000000111L, 0x0000000000000111L, 0x0000000000000111L, 0x0000000000000110L, //dx = -4
+        0x0000000000011000L, 0x0000000000111000L, 0x0000000001111001L, 0x0000000011111011L, 0x0000000111110111L, 0x0000001111100111L, 0x0000001111000111L, 0x0000001110000111L, 0x0000001100000111L, //dx = -3
+        0x0000110000111000L, 0x0001110001111000L, 0x0011110011111001L, 0x0111110111111011L, 0x1111101111111111L, 0x1111001111110111L, 0x1110001111100111L, 0x1100001111000111L, 0x1000001110000111L, //dx = -2
+        0x0001110000111000L, 0x0011110001111000L, 0x0111110011111001L, 0x1111110111111011L, 0x1111111111111111L, 0x1111101111110111L, 0x1111001111100111L, 0x1110001111000111L, 0x1100001110000111L, //dx = -1
+        0x0001110000111000L, 0x0011110001111000L, 0x0111110011111001L, 0x1111110111111011L, 0x1111111111111111L, 0x1111101111110111L, 0x1111001111100111L, 0x1110001111000111L, 0x1100001110000111L, //dx = 0
+        0x0001110000111000L, 0x0011110001111000L, 0x0111110011111001L, 0x1111110111111011L, 0x1111111111111111L, 0x1111101111110111L, 0x1111001111100111L, 0x1110001111000111L, 0x1100001110000111L, //dx = 1
+        0x0001110000111000L, 0x0011110001111000L, 0x0111110011111000L, 0x1111110111111001L, 0x1111111111111011L, 0x1111101111110111L, 0x1111001111100111L, 0x1110001111000111L, 0x1100001110000110L, //dx = 2
+        0x0001110000011000L, 0x0011110000111000L, 0x0111110001111000L, 0x1111110011111000L, 0x1111110111110000L, 0x1111101111100000L, 0x1111001111000000L, 0x1110001110000000L, 0x1100001100000000L, //dx = 3
+        0x0000110000000000L, 0x0001110000000000L, 0x0011110000000000L, 0x0111110000000000L, 0x1111100000000000L, 0x1111000000000000L, 0x1110000000000000L, 0x1100000000000000L, 0x1000000000000000L, //dx = 4
+    };
+    static final long[] destabilizeMasks2 = {
+        0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, //dx = -4
+        0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, //dx = -3
+        0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000000L, 0x0000000000000001L, 0x0000000000000001L, 0x0000000000000001L, 0x0000000000000001L, //dx = -2
+        0x0000000000000110L, 0x0000000000001110L, 0x0000000000011110L, 0x0000000000111110L, 0x0000000001111101L, 0x0000000011111001L, 0x0000000011110001L, 0x0000000011100001L, 0x0000000011000001L, //dx = -1
+        0x0000000100001110L, 0x0000001100011110L, 0x0000011100111110L, 0x0000111101111110L, 0x0001111111111111L, 0x0001111011111101L, 0x0001110011111001L, 0x0001100011110001L, 0x0001000011100001L, //dx = 0
+        0x0000001100001110L, 0x0000011100011110L, 0x0000111100111110L, 0x0001111101111110L, 0x0001111111111111L, 0x0001111111111101L, 0x0001111011111001L, 0x0001110011110001L, 0x0001100011100001L, //dx = 1
+        0x0000001100001110L, 0x0000011100011110L, 0x0000111100111110L, 0x0001111101111110L, 0x0001111111111111L, 0x0001111111111101L, 0x0001111011111001L, 0x0001110011110001L, 0x0001100011100001L, //dx = 2
+        0x0000001100001110L, 0x0000011100011110L, 0x0000111100111110L, 0x0001111101111110L, 0x0001111111111111L, 0x0001111111111101L, 0x0001111011111001L, 0x0001110011110001L, 0x0001100011100001L, //dx = 3
+        0x0000001100001110L, 0x0000011100011110L, 0x0000111100111110L, 0x0001111101111110L, 0x0001111111111110L, 0x0001111111111101L, 0x0001111011111001L, 0x0001110011110001L, 0x0001100011100001L, //dx = 4
+    };
+    static final long[] boostMasks = {
+        0x000100000L, 0x001110000L, 0x111110000L, 0x111110001L, 0x111110001L, 0x111110001L, 0x111100001L, 0x011000001L, 0x010000000L, //dx = -4
+        0x001110000L, 0x111111000L, 0x111111101L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111110111L, 0x111100011L, 0x011000001L, //dx = -3
+        0x101111000L, 0x111111101L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111110111L, 0x111000011L, //dx = -2
+        0x101111100L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111000111L, //dx = -1
+        0x101111100L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111000111L, //dx = 0
+        0x101111100L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111000111L, //dx = 1
+        0x100111100L, 0x101111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111011111L, 0x110000111L, //dx = 2
+        0x000011100L, 0x100111110L, 0x101111111L, 0x111111111L, 0x111111111L, 0x111111111L, 0x111011111L, 0x110001111L, 0x000000111L, //dx = 3
+        0x000001000L, 0x000011100L, 0x100011110L, 0x100011111L, 0x100011111L, 0x100011111L, 0x100001111L, 0x000000111L, 0x000000010L, //dx = 4
+    };
+
+    static int uses = 0;
+    static int launchersReached = 0;
+
+    static int tableIndex(MapLocation me, MapLocation location) {
+        int dx = location.x - me.x + maxOffset;
+        int dy = location.y - me.y + maxOffset;
+        if (dx < 0 || dx >= tableWidth || dy < 0 || dy >= tableWidth) {
+            return -1;
+        }
+        return dx * tableWidth + dy;
+    }
+
+    static int counter(long field, int i) {
+        return (int) (field >>> ((i & 15) << 2)) & 15;
+    }
+
+    /** Destabilizes the tile reaching the most enemy launchers, if any is in reach; returns how many it reached. */
+    static int destabilize(RobotController rc) throws GameActionException {
+        int numLaunchers = Math.min(TurnSnapshot.numEnemiesOfType(RobotType.LAUNCHER), maxCounted);
+        if (numLaunchers == 0 || !rc.isActionReady()) {
+            return 0;
+        }
+        RobotInfo[] launchers = TurnSnapshot.enemiesOfType(RobotType.LAUNCHER);
+        MapLocation me = rc.getLocation();
+        long field0 = 0;
+        long field1 = 0;
+        long field2 = 0;
+        for (@Bound(maxCounted) int i = 0; i < numLaunchers; i ++) {
+            int index = tableIndex(me, launchers[i].location);
+            if (index != -1) {
+                field0 += destabilizeMasks0[index];
+                field1 += destabilizeMasks1[index];
+                field2 += destabilizeMasks2[index];
+            }
+        }
+
+        MapLocation best = null;
+        int bestCount = 0;
+        for (int i = 0; i < numTargets; i ++) {
+            int count = counter(i < 16 ? field0 : i < 32 ? field1 : field2, i);
+            if (count > bestCount) {
+                MapLocation target = new MapLocation(me.x + targetDx[i], me.y + targetDy[i]);
+                if (rc.canDestabilize(target)) {
+                    best = target;
+                    bestCount = count;
+                }
+            }
+        }
+        if (best == null) {
+            return 0;
+        }
+        rc.destabilize(best);
+        record(bestCount);
+        return bestCount;
+    }
+
+    /**
+     * Steps to the tile (or stays) where the most allied launchers are in boost range and boosts if it can;
+     * returns false, without moving, when no launcher is in range of any of them.
+     */
+    static boolean boost(RobotController rc) throws GameActionException {
+        int numLaunchers = Math.min(TurnSnapshot.numAlliesOfType(RobotType.LAUNCHER), maxCounted);
+        if (numLaunchers == 0) {
+            return false;
+        }
+        RobotInfo[] launchers = TurnSnapshot.alliesOfType(RobotType.LAUNCHER);
+        MapLocation me = rc.getLocation();
+        long field = 0;
+        for (@Bound(maxCounted) int i = 0; i < numLaunchers; i ++) {
+            int index = tableIndex(me, launchers[i].location);
+            if (index != -1) {
+                field += boostMasks[index];
+            }
+        }
+        if (field == 0) {
+            return false;
+        }
+
+        Direction bestDirection = Direction.CENTER;
+        int bestCount = counter(field, centerField);
+        if (rc.isMovementReady()) {
+            for (@Bound(8) int i = 0; i < RobotPlayer.directions.length; i ++) {
+                int count = counter(field, i);
+                if (count > bestCount && rc.canMove(RobotPlayer.directions[i])) {
+                    bestDirection = RobotPlayer.directions[i];
+                    bestCount = count;
+                }
+            }
+        }
+        if (bestDirection != Direction.CENTER) {
+            rc.move(bestDirection);
+        }
+        if (bestCount > 0 && rc.canBoost()) {
+            rc.boost();
+            record(bestCount);
+        }
+        return true;
+    }
+
+    static void record(int reached) {
+        uses++;
+        launchersReached += reached;
+    }
+
+    static void report(RobotController rc) {
+        if (uses == 0) {
+            return;
+        }
+        float perUse = (float) launchersReached / uses;
+        Debug.indicate("perUse", perUse);
+        if (rc.getRoundNum() % reportInterval == 0) {
+            System.out.println(rc.getType() + " reached " + perUse + " launchers per use over " + uses + " uses");
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package gopherbot;
+
+import battlecode.common.*;
+import gopherbot.comms.*;
+
+import java.util.Map;
+
+/**
+ * What the HQs build, planned once for the team.
+ *
+ * On round 1 every HQ takes the next index from hqCount; HQs run in the same order every round, so index 0
+ * (the leader) runs first and the HQ with the highest index runs last. Each HQ has its own stock, so every
+ * HQ after the leader adds what it has left after building to teamStock; the leader takes those sums, adds
+ * its own stock and resets them. Out of that total it funds builds (an anchor, then amplifiers, carriers and
+ * launchers, the order the HQs used to spend in, then boosters or destabilizers out of elixir) and writes
+ * them to productionPlan. Each HQ builds out of its own stock and takes what it built off the plan, so the
+ * team's stock is split once instead of each HQ spending it on its own. The last HQ resets the per-round
+ * counters.
+ *
+ * Roles only depend on the number of HQs and the index, and only decide what an HQ builds first: after its
+ * own share it builds whatever is left of the plan that it can pay for, so no HQ sits on income its role does
+ * not spend (carriers deliver to the HQ that built them) and elixir is spent wherever it was delivered. Only
+ * the leader builds anchors, since it needs getNumAnchors() for the anchors waiting at its HQ, so anchors are
+ * funded out of its own stock. Carriers spawn on the side facing the nearest known well, everything else on
+ * the side facing the middle of the map.
+ */
+public strictfp class Production {
+    static final int eco = 1; //carriers
+    static final int military = 2; //launchers and amplifiers
+    static final int anchors = 4;
+    static final int[][] roles = { //by number of HQs, then index
+        {eco | military | anchors},
+        {eco | anchors, military},
+        {eco | anchors, military, eco},
+        {eco | anchors, military, eco, military},
+    };
+
+    static int index = -1;
+    static int role;
+
+    static final ResourceType[] stockTypes = {ResourceType.ADAMANTIUM, ResourceType.MANA, ResourceType.ELIXIR}; //by ordinal - 1
+
+    //leader, this round: the team's stock, in stockTypes order
+    static final int[] teamStock = new int[Channels.teamStockSize];
+
+    /** HQs, round 1. */
+    static void register(RobotController rc) throws GameActionException {
+        index = Channels.readHqCount(rc);
+        Channels.writeHqCount(rc, index + 1);
+    }
+
+    /** HQs, every round after the first; fills in numHeadquarters and our role on the first call. */
+    static void beginTurn(RobotController rc) throws GameActionException {
+        if (RobotPlayer.numHeadquarters == 0) {
+            RobotPlayer.numHeadquarters = Channels.readHqCount(rc);
+            role = roles[Math.min(RobotPlayer.numHeadquarters, roles.length) - 1][Math.min(index, roles.length - 1)];
+        }
+    }
+
+    static boolean isLeader() {
+        return index == 0;
+    }
+
+    static boolean isLast() {
+        return index == RobotPlayer.numHeadquarters - 1;
+    }
+
+    /** Leader, every round before planning: adds our stock to what the other HQs had left last round. */
+    static void collectStock(RobotController rc) throws GameActionException {
+        for (int i = 0; i < Channels.teamStockSize; i ++) {
+            teamStock[i] = Channels.readTeamStock(rc, i) + rc.getResourceAmount(stockTypes[i]);
+            Channels.writeTeamStock(rc, i, 0);
+        }
+    }
+
+    /** Every HQ but the leader, after building: adds what we have left for the leader's next plan. */
+    static void postStock(RobotController rc) throws GameActionException {
+        for (int i = 0; i < Channels.teamStockSize; i ++) {
+            int sum = Channels.readTeamStock(rc, i) + rc.getResourceAmount(stockTypes[i]);
+            Channels.writeTeamStock(rc, i, Math.min(sum, GameConstants.MAX_SHARED_ARRAY_VALUE));
+        }
+    }
+
+    static int teamStock(ResourceType type) {
+        return teamStock[type.ordinal() - 1];
+    }
+
+    /** Leader, every round after collectStock(): funds this round's builds out of the team's stock. */
+    static void plan(RobotController rc) throws GameActionException {
+        int adamantium = teamStock(ResourceType.ADAMANTIUM);
+        int mana = teamStock(ResourceType.MANA);
+        int elixir = teamStock(ResourceType.ELIXIR);
+
+        //one anchor for every island nobody has claimed yet; anchors already out without a claim count against it
+        int anchorsInFlight = Channels.readAnchorCarriers(rc) + rc.getNumAnchors(Anchor.STANDARD);
+        int anchorsWanted = Islands.unclaimedIslands(rc) - Math.max(0, anchorsInFlight - Islands.liveClaims(rc));
+        int plannedAnchors = 0;
+        if (anchorsWanted > 0) {
+            int anchorAdamantium = Anchor.STANDARD.getBuildCost(ResourceType.ADAMANTIUM);
+            int anchorMana = Anchor.STANDARD.getBuildCost(ResourceType.MANA);
+            if (rc.getResourceAmount(ResourceType.ADAMANTIUM) >= anchorAdamantium && rc.getResourceAmount(ResourceType.MANA) >= anchorMana) {
+                plannedAnchors = 1;
+                adamantium -= anchorAdamantium;
+                mana -= anchorMana;
+            } else if (anchorsInFlight == 0) { //save up for the first one; further ones only when we can afford them outright
+                Channels.writeProductionPlan(rc, 0, 0, 0, 1, 0);
+                return;
+            }
+        }
+
+        int amplifiersWanted = Math.round(Params.amplifierToRobotRatio * (rc.getRobotCount() - RobotPlayer.numHeadquarters)) - Channels.readUnitCount(rc, RobotType.AMPLIFIER.ordinal() - 1);
+        int plannedAmplifiers = Math.max(0, Math.min(Math.min(amplifiersWanted, 7), affordable(RobotType.AMPLIFIER, adamantium, mana)));
+        adamantium -= plannedAmplifiers * RobotType.AMPLIFIER.buildCostAdamantium;
+        mana -= plannedAmplifiers * RobotType.AMPLIFIER.buildCostMana;
+
+        int plannedCarriers = 0;
+        if (Channels.readUnitCount(rc, RobotType.CARRIER.ordinal() - 1) < Params.carriersPerHQ * RobotPlayer.numHeadquarters) {
+            plannedCarriers = Math.min(affordable(RobotType.CARRIER, adamantium, mana), 31);
+            adamantium -= plannedCarriers * RobotType.CARRIER.buildCostAdamantium;
+            mana -= plannedCarriers * RobotType.CARRIER.buildCostMana;
+        }
+
+        int plannedLaunchers = Math.min(affordable(RobotType.LAUNCHER, adamantium, mana), 31);
+        adamantium -= plannedLaunchers * RobotType.LAUNCHER.buildCostAdamantium;
+        mana -= plannedLaunchers * RobotType.LAUNCHER.buildCostMana;
+
+        //elixir only comes in once a well is converted (see Economy), and only these two are built out of it
+        RobotType elixirUnit = elixirUnit(rc);
+        int plannedElixirUnits = Math.min(affordable(elixirUnit, adamantium, mana), 3);
+        if (elixirUnit.buildCostElixir > 0) {
+            plannedElixirUnits = Math.min(plannedElixirUnits, elixir / elixirUnit.buildCostElixir);
+        }
+
+        Channels.writeProductionPlan(rc, plannedCarriers, plannedLaunchers, plannedAmplifiers, plannedAnchors, plannedElixirUnits);
+        if (Debug.enabled) Debug.indicate("plan", plannedCarriers + "c " + plannedLaunchers + "l " + plannedAmplifiers + "a " + plannedAnchors + "A " + plannedElixirUnits + "e");
+    }
+
+    /** Boosters while we have fewer than half as many as destabilizers, destabilizers otherwise. */
+    static RobotType elixirUnit(RobotController rc) throws GameActionException {
+        RobotType[] types = RobotPlayer.resourceTypeToRobotTypes(ResourceType.ELIXIR);
+        int boosters = Channels.readUnitCount(rc, RobotType.BOOSTER.ordinal() - 1);
+        int destabilizers = Channels.readUnitCount(rc, RobotType.DESTABILIZER.ordinal() - 1);
+        return boosters * 2 < destabilizers ? types[0] : types[1];
+    }
+
+    static int affordable(RobotType type, int adamantium, int mana) {
+        int count = Integer.MAX_VALUE;
+        if (type.buildCostAdamantium > 0) {
+            count = adamantium / type.buildCostAdamantium;
+        }
+        if (type.buildCostMana > 0) {
+            count = Math.min(count, mana / type.buildCostMana);
+        }
+        return Math.max(count, 0);
+    }
+
+    /** Every HQ, every round after the leader planned: builds our role's share of the plan, then what is left. */
+    static void build(RobotController rc) throws GameActionException {
+        int plan = Channels.readProductionPlan(rc);
+        int carriers = Messages.productionPlanCarriers(plan);
+        int launchers = Messages.productionPlanLaunchers(plan);
+        int amplifiers = Messages.productionPlanAmplifiers(plan);
+        int anchorCount = Messages.productionPlanAnchors(plan);
+        int elixirUnits = Messages.productionPlanElixirUnits(plan);
+
+        if ((role & anchors) != 0 && anchorCount > 0 && rc.canBuildAnchor(Anchor.STANDARD)) {
+            rc.buildAnchor(Anchor.STANDARD);
+            anchorCount--;
+        }
+        MapLocation middle = new MapLocation(rc.getMapWidth() / 2, rc.getMapHeight() / 2);
+        MapLocation well = carriers > 0 ? nearestWell(rc, middle) : middle;
+        if ((role & military) != 0) {
+            amplifiers -= buildUpTo(rc, RobotType.AMPLIFIER, amplifiers, middle);
+        }
+        if ((role & eco) != 0) {
+            carriers -= buildUpTo(rc, RobotType.CARRIER, carriers, well);
+        }
+        if ((role & military) != 0) {
+            launchers -= buildUpTo(rc, RobotType.LAUNCHER, launchers, middle);
+        }
+        //then whatever HQs before us could not pay for; elixir units are built wherever the elixir was delivered
+        amplifiers -= buildUpTo(rc, RobotType.AMPLIFIER, amplifiers, middle);
+        carriers -= buildUpTo(rc, RobotType.CARRIER, carriers, well);
+        launchers -= buildUpTo(rc, RobotType.LAUNCHER, launchers, middle);
+        elixirUnits -= buildUpTo(rc, elixirUnit(rc), elixirUnits, middle);
+        Channels.writeProductionPlan(rc, carriers, launchers, amplifiers, anchorCount, elixirUnits);
+    }
+
+    /** Builds type up to count times, each on the free tile closest to toward; returns how many it built. */
+    static int buildUpTo(RobotController rc, RobotType type, int count, MapLocation toward) throws GameActionException {
+        if (count == 0) {
+            return 0;
+        }
+        MapLocation[] buildLocations = rc.getAllLocationsWithinRadiusSquared(rc.getLocation(), rc.getType().actionRadiusSquared);
+        @Bound(5) int built = 0; //builds are limited by the action cooldown, not count
+        while (built < count) {
+            MapLocation buildLocation = null;
+            for (@Bound(29) MapLocation possLocation : buildLocations) { //tiles within the HQ action radius (9)
+                if (rc.canBuildRobot(type, possLocation) && (buildLocation == null || possLocation.distanceSquaredTo(toward) < buildLocation.distanceSquaredTo(toward))) {
+                    buildLocation = possLocation;
+                }
+            }
+            if (buildLocation == null) {
+                break;
+            }
+            rc.buildRobot(type, buildLocation);
+            built++;
+        }
+        return built;
+    }
+
+    static MapLocation nearestWell(RobotController rc, MapLocation fallback) {
+        MapLocation me = rc.getLocation();
+        MapLocation nearest = fallback;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (Map.@Bound(value = RobotPlayer.maxWells, scalesWith = RobotPlayer.wellCount) Entry<MapLocation, ResourceType> entry : RobotPlayer.wellLocations.entrySet()) {
+            int distance = me.distanceSquaredTo(entry.getKey());
+            if (distance < nearestDistance) {
+                nearest = entry.getKey();
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+}
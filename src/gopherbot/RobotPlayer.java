@@ -1,6 +1,7 @@
 package gopherbot;
 
 import battlecode.common.*;
+import gopherbot.comms.*;
 
 import java.rmi.server.ExportException;
 import java.util.*;
@@ -17,8 +18,7 @@ public strictfp class RobotPlayer {
     static int turnCount = 0;
     static int sumX = 0;
     static int sumY = 0;
-    static final int mapInfoStart1 = 7; //where the map info queue starts in the shared array; WELL AND ISLAND ONLY
-    static final int mapInfoStart2 = 64;
+    //shared array layout: see gopherbot/comms/comms.schema
     static final int sharedArraySize = 64;
 
     /**
@@ -30,43 +30,41 @@ public strictfp class RobotPlayer {
     static Random rng;
 
     //static float[] buildRatios = {5, 10, 1, 2, 2};
-    static float amplifierToRobotRatio = 0.1f;
-
-    static int robotTypeToInt(RobotType robotType) {
-        if (robotType == RobotType.HEADQUARTERS) {
-            return 0;
-        } else if (robotType == RobotType.CARRIER) {
-            return 1;
-        } else if (robotType == RobotType.LAUNCHER) {
-            return 2;
-        } else if (robotType == RobotType.DESTABILIZER) {
-            return 3;
-        } else if (robotType == RobotType.BOOSTER) {
-            return 4;
-        } else {
-            return 5;
-        }
+
+    static int robotTypeToInt(RobotType robotType) { //same order as the RobotType enum, so the ordinal is the index
+        return robotType.ordinal();
     }
 
     static RobotType intToRobotType(int robotType) {
         return RobotType.values()[robotType];
     }
 
-    static RobotType[] adRobotTypes = new RobotType[]{RobotType.CARRIER, RobotType.AMPLIFIER};
-    static RobotType[] mnRobotTypes = new RobotType[]{RobotType.AMPLIFIER, RobotType.LAUNCHER};
-    static RobotType[] exRobotTypes = new RobotType[]{RobotType.BOOSTER, RobotType.DESTABILIZER};
+    static final RobotType[][] robotTypesByResource = { //by resource type ordinal
+        {},
+        {RobotType.CARRIER, RobotType.AMPLIFIER},
+        {RobotType.AMPLIFIER, RobotType.LAUNCHER},
+        {RobotType.BOOSTER, RobotType.DESTABILIZER},
+    };
 
     static RobotType[] resourceTypeToRobotTypes(ResourceType resourceType) {
-        if (resourceType == ResourceType.ADAMANTIUM) {
-            return adRobotTypes;
-        } else if (resourceType == ResourceType.MANA) {
-            return mnRobotTypes;
-        } else {
-            return exRobotTypes;
-        }
+        return robotTypesByResource[resourceType.ordinal()];
     }
 
-    static int numHeadquarters;
+    /**
+     * The turn of each robot type, by ordinal; see Strategy. Variants are chosen on Params constants, so only
+     * the module picked is compiled into the table.
+     */
+    static final Strategy[] strategies = new Strategy[RobotType.values().length];
+    static {
+        strategies[RobotType.HEADQUARTERS.ordinal()] = new HeadquartersStrategy();
+        strategies[RobotType.CARRIER.ordinal()] = Params.nearestWellCarriers ? new NearestWellCarrierStrategy() : new CarrierStrategy();
+        strategies[RobotType.LAUNCHER.ordinal()] = new LauncherStrategy();
+        strategies[RobotType.DESTABILIZER.ordinal()] = new SupportStrategy.Destabilizer();
+        strategies[RobotType.BOOSTER.ordinal()] = new SupportStrategy.Booster();
+        strategies[RobotType.AMPLIFIER.ordinal()] = new SupportStrategy.Amplifier();
+    }
+
+    static int numHeadquarters; //HQs only, from round 2 on; see Production
     static MapLocation spawnHQLocation;
 
     /** Array containing all the possible movement directions. */
@@ -130,22 +128,16 @@ public strictfp class RobotPlayer {
 
     @SuppressWarnings("unused")
     public static void run(RobotController rc) throws GameActionException {
-        if (rc.getType() == RobotType.HEADQUARTERS) {
-            numHeadquarters = rc.getRobotCount();
-        }
         rng = new Random(rc.getID());
-        launcherWillingToDefend = rng.nextInt(100) <= 19;
-        launcherWillingToAttack = rng.nextInt(100) <= 49;
-        if (rc.getType() != RobotType.HEADQUARTERS) {
-            RobotInfo[] robotInfos = rc.senseNearbyRobots(-1, rc.getTeam());
-            for (RobotInfo robotInfo : robotInfos) {
-                if (robotInfo.getType() == RobotType.HEADQUARTERS) {
-                    spawnHQLocation = robotInfo.getLocation();
-                    break;
-                }
-            }
+        launcherWillingToDefend = rng.nextInt(100) < Params.launcherDefendPercent;
+        launcherWillingToAttack = rng.nextInt(100) < Params.launcherAttackPercent;
+        TurnSnapshot.init(rc);
+        if (rc.getType() != RobotType.HEADQUARTERS && TurnSnapshot.numAlliesOfType(RobotType.HEADQUARTERS) > 0) {
+            spawnHQLocation = TurnSnapshot.alliesOfType(RobotType.HEADQUARTERS)[0].getLocation();
         }
         staticInfoGrid = new int[rc.getMapWidth()][rc.getMapHeight()];
+        Islands.init(rc);
+        Strategy strategy = strategies[rc.getType().ordinal()];
         while (true) {
             turnCount += 1;  // We have now been alive for one more turn!
             sumX += rc.getLocation().x;
@@ -153,46 +145,45 @@ public strictfp class RobotPlayer {
 
             try {
                 if (rc.getType() != RobotType.HEADQUARTERS && rc.canWriteSharedArray(0, 0)) {
-                    rc.writeSharedArray(robotTypeToInt(rc.getType()), rc.readSharedArray(robotTypeToInt(rc.getType()))+1);
-                }
-                if (rc.getType() != RobotType.HEADQUARTERS && rc.getRoundNum() % 2 == 1) {
-                    if (/*rng.nextInt(rc.getRobotCount()) <= 10-1*/true) {
-                        broadcastMapInfos(rc);
-                    }
-                    // if (rng.nextInt(rc.getRobotCount()) <= 5-1) {
-                    //     broadcastHQInfos(rc, rc.getTeam());
-                    // }
-                    // broadcastHQInfos(rc, rc.getTeam().opponent());
+                    int countIndex = robotTypeToInt(rc.getType()) - 1;
+                    Channels.writeUnitCount(rc, countIndex, Channels.readUnitCount(rc, countIndex)+1);
                 }
-                if (rc.getRoundNum() % 2 == 0) {
-                    readBroadcastedMapInfos(rc);
-                    // readBroadcastedHQInfos(rc);
+                //read what was written last round, then write for the next one; both happen every round
+                Bus.beginTurn(rc);
+                readBroadcastedMapInfos(rc);
+                Threats.readSightings(rc);
+                Threats.reportSightings(rc);
+                IslandWatch.observe(rc);
+                if (rc.getType() != RobotType.HEADQUARTERS) {
+                    Coverage.trackAccess(rc);
+                    broadcastMapInfos(rc);
                 }
-                switch (rc.getType()) {
-                    case HEADQUARTERS:     runHeadquarters(rc);  break;
-                    case CARRIER:      runCarrier(rc);   break; //1
-                    case LAUNCHER: runLauncher(rc); break; //2
-                    case BOOSTER: runBooster(rc); break; //3
-                    case DESTABILIZER: runDestabilizer(rc); break; //4
-                    case AMPLIFIER:       runAmplifier(rc); break; //5
+                strategy.takeTurn(rc);
+                if (mapInfoOutbox.size() > 0) { //we may have moved into range this turn
+                    mapInfoOutbox.flush(rc);
+                    if (Debug.enabled) Debug.indicate("outbox", mapInfoOutbox.size());
                 }
 
             } catch (GameActionException e) {
                 // Oh no! It looks like we did something illegal in the Battlecode world. You should
                 // handle GameActionExceptions judiciously, in case unexpected events occur in the game
                 // world. Remember, uncaught exceptions cause your robot to explode!
-                System.out.println(rc.getType() + " Exception");
-                e.printStackTrace();
+                if (Debug.enabled) Debug.exception(rc, e);
 
             } catch (Exception e) {
                 // Oh no! It looks like our code tried to do something bad. This isn't a
                 // GameActionException, so it's more likely to be a bug in our code.
-                System.out.println(rc.getType() + " Exception");
-                e.printStackTrace();
+                if (Debug.enabled) Debug.exception(rc, e);
 
             } finally {
                 // Signify we've done everything we want to do, thereby ending our turn.
                 // This will make our code wait until the next turn, and then perform this loop again.
+                TurnSnapshot.invalidate();
+                Bus.endTurn(rc);
+                if (Debug.enabled) {
+                    Debug.indicate("comms", Bus.bandwidth());
+                    Debug.flush(rc);
+                }
                 Clock.yield();
             }
             // End of loop: go back to the top. Clock.yield() has ended, so it's time for another turn!
@@ -214,24 +205,15 @@ public strictfp class RobotPlayer {
         return Direction.allDirections()[direction-2];
     }
 
+    static final int[] resourceTypeInts = {13, 11, 12, 13}; //by resource type ordinal; map info types 11-13
+    static final ResourceType[] intResourceTypes = {ResourceType.ADAMANTIUM, ResourceType.MANA, ResourceType.ELIXIR}; //by map info type - 11
+
     static int resourceTypeToInt(ResourceType resourceType) {
-        if (resourceType == ResourceType.ADAMANTIUM) {
-            return 11;
-        } else if (resourceType == ResourceType.MANA) {
-            return 12;
-        } else {
-            return 13;
-        }
+        return resourceTypeInts[resourceType.ordinal()];
     }
 
     static ResourceType intToResourceType(int resourceType) {
-        if (resourceType == 11) {
-            return ResourceType.ADAMANTIUM;
-        } else if (resourceType == 12) {
-            return ResourceType.MANA;
-        } else {
-            return ResourceType.ELIXIR;
-        }
+        return intResourceTypes[resourceType - 11];
     }
 
     static int teamToInt(Team currTeam, Team team) {
@@ -279,61 +261,43 @@ public strictfp class RobotPlayer {
             return -1;
         }
 
-        result += location.y << 4;
-        result += location.x << 10;
-        
-        return result;
+        return Messages.packMapInfo(location.x, location.y, result);
     }
 
-    static private strictfp class BroadcastedMapInfo {
-        public static MapLocation location;
-        public static int locType;
-        BroadcastedMapInfo(MapLocation argLocation, int argLocType) {
-            location = argLocation;
-            locType = argLocType;
-        }
+    static boolean processEncodedMapInfo(RobotController rc, int encoded) {
+        return processBroadcastedMapInfo(rc, Messages.mapInfoX(encoded), Messages.mapInfoY(encoded), Messages.mapInfoType(encoded));
     }
 
-    static BroadcastedMapInfo intToBroadcastedInfo(RobotController rc, int i) throws GameActionException {
-        int x = i >> 10;
-        int y = (i >> 4) & 0b111111;
-        int locType = i & 0b1111;
-        return new BroadcastedMapInfo(new MapLocation(x,y), locType);
-    }
+    /**
+     * Map info this robot discovered but could not write yet, mostly while out of range of HQs, amplifiers
+     * and islands. Flushed every turn, so a scout coming back delivers what it saw, anchors first.
+     */
+    static final Outbox mapInfoOutbox = new Outbox(Channels.mapInfoQueue, 24);
+    static final int outboxPriorityIsland = 1;
+    static final int outboxPriorityWell = 2;
+    static final int outboxPriorityAnchor = 3;
 
     static void broadcastMapInfos(RobotController rc) throws GameActionException {
         boolean writeToArray = rng.nextInt(rc.getRobotCount()) <= 10-1;
+        mapInfoOutbox.flush(rc);
 
         int byteCodeStart = Clock.getBytecodeNum();
 
-        int firstAvailableInd1 = 64;
-        int firstAvailableInd2 = 64;
-        for (int i = mapInfoStart1; i < 64; i ++) {
-            if (rc.readSharedArray(i) == 0) {
-                if (i >= mapInfoStart1 && i < mapInfoStart2 && firstAvailableInd1 == 64) {
-                    firstAvailableInd1 = i;
-                } else if (firstAvailableInd2 == 64) {
-                    firstAvailableInd2 = i;
-                }
-            }
-        }
-
-        
-        for (int islandInd : rc.senseNearbyIslands()) {
+        int[] islands = TurnSnapshot.islands();
+        for (@Bound(value = 35, scalesWith = "island count") int islandInd = 0; islandInd < islands.length; islandInd ++) {
             // if (firstAvailableInd1 == mapInfoStart2) {
             //     break;
             // }
-            MapLocation[] mapLocations = rc.senseNearbyIslandLocations(islandInd);
-            for (MapLocation mapLocation : mapLocations) {
+            MapLocation[] mapLocations = TurnSnapshot.islandLocations(islandInd);
+            for (@Bound(109) MapLocation mapLocation : mapLocations) {
                 // if (firstAvailableInd1 == mapInfoStart2) {
                 //     break;
                 // }
                 int encoded = mapInfoToInt(rc, new MapInfo(mapLocation, false, true, null, Direction.CENTER, null, null));
-                processBroadcastedMapInfo(rc, intToBroadcastedInfo(rc,encoded));
-
-                if (writeToArray && rc.canWriteSharedArray(firstAvailableInd1,encoded)) {
-                    rc.writeSharedArray(firstAvailableInd1, encoded);
-                    firstAvailableInd1++;
+                if (processEncodedMapInfo(rc, encoded)) { //discoveries are kept until delivered
+                    mapInfoOutbox.post(rc, encoded, outboxPriorityIsland);
+                } else if (writeToArray) { //re-broadcasts are best effort
+                    Channels.mapInfoQueue.append(rc, encoded);
                 }
                 if (Clock.getBytecodeNum() - byteCodeStart >= rc.getType().bytecodeLimit/4) {
                     break;
@@ -341,54 +305,61 @@ public strictfp class RobotPlayer {
             }
         }
 
-        WellInfo[] wellInfos = rc.senseNearbyWells();
-        for (WellInfo wellInfo : wellInfos) {
+        WellInfo[] wellInfos = TurnSnapshot.wells();
+        for (@Bound(109) WellInfo wellInfo : wellInfos) {
             // if (firstAvailableInd1 == mapInfoStart2) {
             //     break;
             // }
             int encoded = mapInfoToInt(rc, new MapInfo(wellInfo.getMapLocation(), false, true, null, Direction.CENTER, null, null));
-            processBroadcastedMapInfo(rc, intToBroadcastedInfo(rc,encoded));
-
-            if (writeToArray && rc.canWriteSharedArray(firstAvailableInd1,encoded)) {
-                rc.writeSharedArray(firstAvailableInd1, encoded);
-                firstAvailableInd1++;
+            if (processEncodedMapInfo(rc, encoded)) {
+                mapInfoOutbox.post(rc, encoded, outboxPriorityWell);
+            } else if (writeToArray) {
+                Channels.mapInfoQueue.append(rc, encoded);
             }
             if (Clock.getBytecodeNum() - byteCodeStart >= rc.getType().bytecodeLimit/4) {
-                break;
+                return;
             }
         }
 
-        MapInfo[] mapInfos = rc.senseNearbyMapInfos();
-
-        for (MapInfo mapInfo : mapInfos) {
-            if (firstAvailableInd1 == mapInfoStart2 && firstAvailableInd2 == 64) {
-                return;
+        //terrain is best effort: a third of it, in whatever room wells and islands left in the queue
+        MapInfo[] mapInfos = TurnSnapshot.mapInfos();
+        for (@Bound(109) MapInfo mapInfo : mapInfos) {
+            int encoded = terrainToInt(mapInfo);
+            if (encoded == -1) {
+                continue;
             }
-            int encoded = mapInfoToInt(rc, mapInfo);
-            if (encoded != -1) {
-                int locType = encoded & 0b1111;
-                if (locType >= 11 && locType <= 15 && firstAvailableInd1 < mapInfoStart2) {
-                    // if (rc.canWriteSharedArray(firstAvailableInd1,encoded)) {
-                    //     rc.writeSharedArray(firstAvailableInd1, encoded);
-                    // }
-                    // firstAvailableInd1++;
-                } else if (locType < 11 && firstAvailableInd2 < 64 && rng.nextInt(3) == 1) {
-                    if (writeToArray && rc.canWriteSharedArray(firstAvailableInd2,encoded)) {
-                        rc.writeSharedArray(firstAvailableInd2, encoded);
-                        firstAvailableInd2++;
-                    }
-                }
+            processEncodedMapInfo(rc, encoded);
+            if (writeToArray && rng.nextInt(3) == 1 && !Channels.mapInfoQueue.append(rc, encoded)) {
+                return; //bank full or out of range
             }
             if (Clock.getBytecodeNum() - byteCodeStart >= rc.getType().bytecodeLimit/4) {
-                break;
+                return;
             }
         }
     }
 
+    /** mapInfoToInt for walls, clouds and currents only, or -1; skips the well and island senses. */
+    static int terrainToInt(MapInfo mapInfo) {
+        int locType;
+        if (!mapInfo.isPassable()) {
+            locType = 1;
+        } else if (mapInfo.hasCloud()) {
+            locType = 2;
+        } else if (mapInfo.getCurrentDirection() != Direction.CENTER) {
+            locType = directionToInt(mapInfo.getCurrentDirection());
+        } else {
+            return -1;
+        }
+        MapLocation location = mapInfo.getMapLocation();
+        return Messages.packMapInfo(location.x, location.y, locType);
+    }
+
 
     //static Set<MapLocation> impassibleLocations = new TreeSet<MapLocation>();
     //static Set<Current> currentLocations = new TreeSet<Current>();
     static Map<MapLocation, ResourceType> wellLocations = new TreeMap<MapLocation, ResourceType>();
+    static final int maxWells = 144; //for @Bound; the spec sets no limit, this is a generous guess for a 60x60 map
+    static final String wellCount = "well count (estimated bound of " + maxWells + ")"; //so the estimate says it rests on that guess
     static Map<MapLocation, Team> islandLocations = new TreeMap<MapLocation, Team>(); //neutral island means unoccupied or occupied by other team
     //static Set<MapLocation> cloudLocations = new TreeSet<MapLocation>();
 
@@ -399,7 +370,7 @@ public strictfp class RobotPlayer {
     static void dfsIsland(RobotController rc, MapLocation location, Team mark) {
         islandLocations.put(location, mark);
 
-        for (Direction direction : Direction.cardinalDirections()) {
+        for (@Bound(4) Direction direction : Direction.cardinalDirections()) {
             MapLocation newLoc = location.add(direction);
             Team res = islandLocations.get(newLoc);
             if (res != null && res != mark) {
@@ -408,45 +379,55 @@ public strictfp class RobotPlayer {
         }
     }
 
-    static void processBroadcastedMapInfo(RobotController rc, BroadcastedMapInfo broadcastedMapInfo) {
-        if (broadcastedMapInfo.locType == 1) { //impassible
-
-            //impassibleLocations.add(broadcastedMapInfo.location);
-            staticInfoGrid[broadcastedMapInfo.location.x][broadcastedMapInfo.location.y] = broadcastedMapInfo.locType;
-
-        } else if (broadcastedMapInfo.locType == 2) { //cloud
+    //takes the decoded fields as primitives; a MapLocation is only made for wells and islands, which are kept in maps
+    //returns whether this was news to us
+    static boolean processBroadcastedMapInfo(RobotController rc, int x, int y, int locType) {
+        if (locType >= 1 && locType <= 10) { //impassible, cloud or current
 
-            //cloudLocations.add(broadcastedMapInfo.location);
-            staticInfoGrid[broadcastedMapInfo.location.x][broadcastedMapInfo.location.y] = broadcastedMapInfo.locType;
+            boolean isNew = staticInfoGrid[x][y] != locType;
+            staticInfoGrid[x][y] = locType;
+            return isNew;
 
-        } else if (broadcastedMapInfo.locType >= 3 && broadcastedMapInfo.locType <= 10) { //current
+        } else if (locType >= 11 && locType <= 13) { //well
 
-            //currentLocations.add(new Current(intToDirection(broadcastedMapInfo.locType), broadcastedMapInfo.location));
-            staticInfoGrid[broadcastedMapInfo.location.x][broadcastedMapInfo.location.y] = broadcastedMapInfo.locType;
+            ResourceType resourceType = intToResourceType(locType);
+            return wellLocations.put(new MapLocation(x, y), resourceType) != resourceType;
 
-        } else if (broadcastedMapInfo.locType >= 10 && broadcastedMapInfo.locType <= 13) { //well
+        } else if (locType >= 14 && locType <= 15) { //island
 
-            wellLocations.put(broadcastedMapInfo.location, intToResourceType(broadcastedMapInfo.locType));
-
-        } else if (broadcastedMapInfo.locType >= 14 && broadcastedMapInfo.locType <= 15) { //island
-
-            // islandLocations.put(broadcastedMapInfo.location, intToTeam(rc.getTeam(), broadcastedMapInfo.locType));
-            dfsIsland(rc, broadcastedMapInfo.location, intToTeam(rc.getTeam(), broadcastedMapInfo.locType));
+            Islands.addTile(x, y);
+            MapLocation location = new MapLocation(x, y);
+            Team team = intToTeam(rc.getTeam(), locType);
+            if (islandLocations.get(location) == team) {
+                return false;
+            }
+            dfsIsland(rc, location, team);
+            return true;
 
         }
+        return false;
     }
 
+    /**
+     * Last value this robot decoded from each shared array slot. Only slots whose word differs from the shadow
+     * are decoded, so re-broadcasts of facts we already hold (the same word landing in the same slot of a
+     * bank) cost one read and a compare instead of a decode.
+     */
+    static final int[] sharedArrayShadow = new int[sharedArraySize];
+
     static void readBroadcastedMapInfos(RobotController rc) throws GameActionException {
         int byteCodeStart = Clock.getBytecodeNum();
-        for (int i = mapInfoStart1; i < 64; i ++) {
-            int currVal = rc.readSharedArray(i);
-            if (currVal == 0) {
+        int budget = rc.getType().bytecodeLimit/4;
+        QueueChannel queue = Channels.mapInfoQueue;
+        for (@Bound(QueueChannel.maxBankSize) int n = 0; n < queue.readCount(); n ++) {
+            int i = queue.readSlot(n);
+            int currVal = queue.read(rc, n);
+            if (currVal == sharedArrayShadow[i]) {
                 continue;
             }
-            BroadcastedMapInfo currBroadcastedMapInfo = intToBroadcastedInfo(rc, currVal);
-            
-            processBroadcastedMapInfo(rc, currBroadcastedMapInfo);
-            if (Clock.getBytecodeNum() - byteCodeStart >= rc.getType().bytecodeLimit/4) {
+            sharedArrayShadow[i] = currVal;
+            processEncodedMapInfo(rc, currVal);
+            if (Clock.getBytecodeNum() - byteCodeStart >= budget) {
                 break;
             }
         }
@@ -488,7 +469,7 @@ public strictfp class RobotPlayer {
 
     static void dfsIslandVisited(MapLocation loc, Set<MapLocation> visited) {
         visited.add(loc);
-        for (Direction dir : Direction.cardinalDirections()) {
+        for (@Bound(4) Direction dir : Direction.cardinalDirections()) {
             MapLocation newLoc = loc.add(dir);
             if (!visited.contains(newLoc) && islandLocations.containsKey(newLoc)) {
                 dfsIslandVisited(newLoc, visited);
@@ -497,177 +478,9 @@ public strictfp class RobotPlayer {
     }
 
 
-    static void runHeadquarters(RobotController rc) throws GameActionException {
-        if (rc.getRoundNum() == 1) { //pass first round to get correct headquarter count
-            return;
-        }
-        indicateMapInfos(rc);
-
-        if (rc.readSharedArray(0) == numHeadquarters) { //is first to run
-            if (rc.getRoundNum() % 2 == 1) { //clear map info queue after even turns (odd turns for writing, even turns for reading)
-                for (int i = mapInfoStart1; i < sharedArraySize; i ++) {
-                    if (rc.readSharedArray(i) != 0) {
-                        rc.writeSharedArray(i, 0);
-                    }
-                }
-            }
-            rc.writeSharedArray(0, 0);
-        }
-
-
-        //set indicator string to robot counts
-        String indicatorString = "";
-        for (int i = 1; i <= 6; i ++) {
-            indicatorString += rc.readSharedArray(i) + " ";
-        }
-
-
-        int numNonOccupiedIslands = 0;
-        for (MapLocation islandLocation : islandLocations.keySet()) {
-            if (islandLocations.get(islandLocation) != rc.getTeam()) {
-                numNonOccupiedIslands++;
-                break;
-            }
-        }
-        if (numNonOccupiedIslands > 0 && rc.readSharedArray(6) + rc.getNumAnchors(Anchor.STANDARD) == 0) {
-            if (rc.canBuildAnchor(Anchor.STANDARD)) {
-                rc.buildAnchor(Anchor.STANDARD);
-            }
-        } else {
-            MapLocation[] buildLocations = rc.getAllLocationsWithinRadiusSquared(rc.getLocation(), rc.getType().actionRadiusSquared);
-
-            //calculate new robot position if we were to make a new robot
-            float reccAmplifierCount = amplifierToRobotRatio*(rc.getRobotCount() - numHeadquarters);
-            for (int i = 0; i < Math.round(reccAmplifierCount - (float)rc.readSharedArray(robotTypeToInt(RobotType.AMPLIFIER))); i++) {
-                MapLocation buildLocation = null;
-                for (MapLocation possLocation : buildLocations) {
-                    if (rc.canBuildRobot(RobotType.AMPLIFIER, possLocation)) {
-                        buildLocation = possLocation;
-                    }
-                }
-                if (buildLocation != null) {
-                    rc.buildRobot(RobotType.AMPLIFIER, buildLocation);
-                } else {
-                    break;
-                }
-            }
-    
-    
-            if (rc.readSharedArray(robotTypeToInt(RobotType.CARRIER)) < 10 * numHeadquarters) {
-                while (true) {
-                    MapLocation buildLocation = null;
-                    for (MapLocation possLocation : buildLocations) {
-                        if (rc.canBuildRobot(RobotType.CARRIER, possLocation)) {
-                            buildLocation = possLocation;
-                        }
-                    }
-                    if (buildLocation != null) {
-                        rc.buildRobot(RobotType.CARRIER, buildLocation);
-                    } else {
-                        break;
-                    }
-                }
-            }
-    
-            while (true) {
-                MapLocation buildLocation = null;
-                for (MapLocation possLocation : buildLocations) {
-                    if (rc.canBuildRobot(RobotType.LAUNCHER, possLocation)) {
-                        buildLocation = possLocation;
-                    }
-                }
-                if (buildLocation != null) {
-                    rc.buildRobot(RobotType.LAUNCHER, buildLocation);
-                } else {
-                    break;
-                }
-            }
-        }
-
-        
-        // MapLocation newLoc = null;
-        // for (Direction dir : directions) {
-        //     newLoc = rc.getLocation().add(dir);
-        //     if (rc.onTheMap(newLoc) && rc.sensePassability(newLoc) && rc.senseRobotAtLocation(newLoc) == null) {
-        //         break;
-        //     }
-        // }
-
-        // if (rc.onTheMap(newLoc) && rc.sensePassability(newLoc) && rc.senseRobotAtLocation(newLoc) == null) {
-        //     float[] reccAmounts = {0, 0, 0, 0, 0};
-        //     int totalCountedRobots = 0;
-        //     float totalRatio = 0;
-        //     for (int i = 1; i <= 5; i ++) {
-        //         totalCountedRobots += rc.readSharedArray(i);
-        //         totalRatio += buildRatios[i-1];
-        //     }
-        //     int newRobotCount = totalCountedRobots+1;
-    
-        //     //calculate recommended amounts
-        //     indicatorString += "| ";
-        //     for (int i = 1; i <= 5; i ++) {
-        //         reccAmounts[i-1] = ((float) newRobotCount) * buildRatios[i-1]/totalRatio;
-        //         indicatorString += round(reccAmounts[i-1]) + " ";
-        //     }
-    
-        //     for (ResourceType resourceType : ResourceType.values()) {
-        //         if (resourceType == ResourceType.NO_RESOURCE) {
-        //             continue;
-        //         }
-        //         float maxBuildDiff = -Float.MAX_VALUE;
-        //         RobotType maxBuildDiffType = RobotType.CARRIER;
-    
-        //         for (RobotType robotType : resourceTypeToRobotTypes(resourceType)) {
-        //             int i = robotTypeToInt(robotType) - 1;
-        //             float currDiff = reccAmounts[i] - ((float) rc.readSharedArray(i + 1));
-        //             if (currDiff > maxBuildDiff) {
-        //                 maxBuildDiff = currDiff;
-        //                 maxBuildDiffType = intToRobotType(i + 1);
-        //             }
-        //         }
-        //         if (resourceType == ResourceType.ADAMANTIUM || resourceType == ResourceType.MANA) {
-        //             int numOccupiedIslands = 0;
-        //             for (MapLocation islandLocation : islandLocations.keySet()) {
-        //                 if (islandLocations.get(islandLocation) != rc.getTeam()) {
-        //                     numOccupiedIslands++;
-        //                     break;
-        //                 }
-        //             }
-        //             float anchorDiff= 0 ;
-        //             if (numOccupiedIslands > 0 && rc.readSharedArray(6) + rc.getNumAnchors(Anchor.STANDARD) == 0) {
-        //                 anchorDiff = 1000;
-        //             }
-        //             indicatorString += "| " + round(anchorDiff) + "," + round(maxBuildDiff);
-    
-        //             if (anchorDiff > maxBuildDiff) {
-        //                 if (rc.canBuildAnchor(Anchor.STANDARD)) {
-        //                     rc.buildAnchor(Anchor.STANDARD);
-        //                     break;
-        //                 }
-        //                 continue;
-        //             }
-        //         }
-    
-        //         if (rc.canBuildRobot(maxBuildDiffType, newLoc)) {
-        //             rc.buildRobot(maxBuildDiffType, newLoc);
-        //             break;
-        //         }
-        //     }
-        // }
-
-        //increase headquarter run count
-        rc.writeSharedArray(0, rc.readSharedArray(0)+1);
-        if (rc.readSharedArray(0) == numHeadquarters) {
-            for (int i = 1; i <= 6; i ++) {
-                rc.writeSharedArray(i, 0);
-            }
-        }
-        rc.setIndicatorString(indicatorString);
-    }
-
     static void randomMove(RobotController rc) throws GameActionException {
         Direction dir = directions[rng.nextInt(directions.length)];
-        if (rc.canMove(dir)) {
+        if (rc.canMove(dir) && Evasion.isSafe(dir)) {
             rc.move(dir);
         }
     }
@@ -688,8 +501,8 @@ public strictfp class RobotPlayer {
         if (currDists == null) {
             currDists = new int[rc.getMapWidth()][rc.getMapHeight()];
         }
-        for (int i = 0; i < rc.getMapWidth(); i ++) {
-            for (int j = 0 ;j < rc.getMapHeight(); j ++) {
+        for (@Bound(value = 60, scalesWith = "map size") int i = 0; i < rc.getMapWidth(); i ++) {
+            for (@Bound(value = 60, scalesWith = "map size") int j = 0 ;j < rc.getMapHeight(); j ++) {
                 currDists[i][j] = bigDist+1;
             }
         }
@@ -699,9 +512,8 @@ public strictfp class RobotPlayer {
         bfs.add(currMoveTarget);
         currDists[currMoveTarget.x][currMoveTarget.y] = 0;
 
-        while (!bfs.isEmpty()) {
-            MapLocation currLocation = bfs.getFirst();
-            bfs.pop();
+        //each tile is queued at most once
+        for (@Bound(value = GameConstants.MAP_MAX_WIDTH * GameConstants.MAP_MAX_HEIGHT, scalesWith = "map size") MapLocation currLocation = bfs.poll(); currLocation != null; currLocation = bfs.poll()) {
             for (Direction direction : directions) {
                 MapLocation newLocation = currLocation.add(direction);
                 if (rc.onTheMap(newLocation) && staticInfoGrid[newLocation.x][newLocation.y] != 1 && currDists[newLocation.x][newLocation.y] == bigDist+1) {
@@ -737,7 +549,10 @@ public strictfp class RobotPlayer {
             //     currMoveTarget = null;
             // }
             Direction direction = rc.getLocation().directionTo(currMoveTarget);
-            if (rc.canMove(direction)) {
+            if (rc.getType() == RobotType.CARRIER) {
+                direction = Threats.saferDirection(rc, direction);
+            }
+            if (rc.canMove(direction) && Evasion.isSafe(direction)) {
                 rc.move(direction);
             } else {
                 randomMove(rc); //TODO: new explore move for pathfinding
@@ -749,208 +564,8 @@ public strictfp class RobotPlayer {
         }
     }
 
-    static void runCarrier(RobotController rc) throws GameActionException {
-        String indicatorString = "";
-
-        MapLocation me = rc.getLocation();
-        //boolean foundWellTarget = false;
-        if (rc.getAnchor() != null) {
-            if (rc.canWriteSharedArray(0,0)) {
-                rc.writeSharedArray(6, rc.readSharedArray(6)+1);
-            }
-            //TODO: also don't let a launcher move to the same island
-            if (islandLocations.size() >= 1) {
-                if (currMoveTarget == null) {
-                    for (MapLocation mapLocation : islandLocations.keySet()) {
-                        if (islandLocations.get(mapLocation) == Team.NEUTRAL) {
-                            currMoveTarget = mapLocation;
-                            break;
-                        }
-                    }
-                }
-            }
-                
-            if (currMoveTarget != null) {
-                if (rc.getLocation().equals(currMoveTarget)) {
-                    if (rc.canPlaceAnchor()) {
-                        rc.placeAnchor();
-                        int encoded = mapInfoToInt(rc, rc.senseMapInfo(rc.getLocation()));
-                        if (rc.canWriteSharedArray(mapInfoStart2-1, encoded)) {
-                            rc.writeSharedArray(mapInfoStart2-1, encoded);
-                        }
-                    }
-                }
-                if (islandLocations.get(currMoveTarget) == rc.getTeam()) {
-                    currMoveTarget = null;
-                    int encoded = mapInfoToInt(rc, rc.senseMapInfo(rc.getLocation()));
-                    if (rc.canWriteSharedArray(mapInfoStart2-1, encoded)) {
-                        rc.writeSharedArray(mapInfoStart2-1, encoded);
-                    }
-                }
-            }
-            if (rc.canPlaceAnchor() && rc.senseTeamOccupyingIsland(rc.senseIsland(rc.getLocation())) != rc.getTeam()) {
-                rc.placeAnchor();
-            }
-        } else {
-            if (currMoveTarget == spawnHQLocation && rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ELIXIR) < 40) {
-                currMoveTarget = null;
-            }
-            if (!isUnloading && rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ELIXIR) == 40) {
-                currMoveTarget = spawnHQLocation;
-                moveTargetRange = 0;
-            } else if (!isUnloading && !isLoading && currMoveTarget == null) {
-                if (wellLocations.size() >= 1) {
-                    ResourceType targetType = ResourceType.values()[turnCount%2+1]; //TODO: include elixir wells when converted
-                    int minWellDistSquared = Integer.MAX_VALUE;
-                    for (MapLocation well : wellLocations.keySet()) {
-                        if (wellLocations.get(well) == targetType && well.distanceSquaredTo(rc.getLocation())<minWellDistSquared) {
-                            currMoveTarget = well;
-                            moveTargetRange = 2;
-                            minWellDistSquared = well.distanceSquaredTo(rc.getLocation());
-                        }
-                    }
-                }
-            }
-        }
-        indicatorString += " | " + String.valueOf(currMoveTarget);
-        if (!isLoading && !isUnloading) {
-            if (currMoveTarget == null) {
-                exploreMove(rc);
-            } else {
-                pathfindTowardMoveTarget(rc);
-            }
-        }
-
-        indicatorString += " | " + String.valueOf(currMoveTarget);
-
-        // Try to gather from and transfer to squares around us.
-        isUnloading = false;
-        isLoading = false;
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                MapLocation newLocation = new MapLocation(me.x + dx, me.y + dy);
-                if (rc.canCollectResource(newLocation, -1) && currMoveTarget == null) {
-                    isLoading = true;
-                    rc.collectResource(newLocation, -1);
-                }
-                if (rc.canTakeAnchor(newLocation, Anchor.STANDARD)) {
-                    rc.takeAnchor(newLocation, Anchor.STANDARD);
-                    currMoveTarget = null;
-                }
-                for (ResourceType resourceType : ResourceType.values()) {
-                    if (rc.canTransferResource(newLocation, resourceType, 1) && rc.canSenseRobotAtLocation(newLocation) && rc.senseRobotAtLocation(newLocation).getType() == RobotType.HEADQUARTERS && rc.senseRobotAtLocation(newLocation).getTeam() == rc.getTeam()) {
-                        rc.transferResource(newLocation, resourceType, 1);
-                        isUnloading = true;
-                        break;
-                    }
-                }
-            }
-        }
-        indicatorString += " | unloading: " + String.valueOf(isUnloading) + " | loading: " + String.valueOf(isLoading);
-        rc.setIndicatorString(indicatorString);
-
-
-        RobotInfo[] nearbyRobots = rc.senseNearbyRobots(-1);
-        boolean enemyHasAttackers = false;
-        boolean selfHasAttackers = false;
-        RobotInfo firstEnemy = null;
-        for (RobotInfo robotInfo : nearbyRobots) {
-            if (robotInfo.getType() == RobotType.LAUNCHER) {
-                if (robotInfo.getTeam() == rc.getTeam()) {
-                    selfHasAttackers = true;
-                } else {
-                    enemyHasAttackers = true;
-                }
-                if (selfHasAttackers && enemyHasAttackers) {
-                    break;
-                }
-            }
-            if (firstEnemy == null && robotInfo.getTeam() != rc.getTeam()) {
-                firstEnemy = robotInfo;
-            }
-        }
-        if (enemyHasAttackers && !selfHasAttackers) {
-            if (rc.canAttack(firstEnemy.location)) {
-                rc.attack(firstEnemy.location);
-            }
-        }
-    }
-
     static boolean launcherWillingToDefend;
     static boolean launcherWillingToAttack;
-    static void runLauncher(RobotController rc) throws GameActionException {
-        // Try to attack someone
-        int radius = rc.getType().actionRadiusSquared;
-        Team opponent = rc.getTeam().opponent();
-        RobotInfo[] enemies = rc.senseNearbyRobots(radius, opponent);
-        if (enemies.length >= 1) {
-            int[] robotTypeToInd = {-1, -1, -1, -1, -1, -1};
-            int i  =0;
-            for (RobotInfo enemy : enemies) {
-                robotTypeToInd[robotTypeToInt(enemy.getType())] = i;
-                i++;
-            }
-
-            MapLocation toAttack = null;
-
-            if (robotTypeToInd[2] != -1) {
-                toAttack = enemies[robotTypeToInd[2]].getLocation();
-            } else if (robotTypeToInd[1] != -1) {
-                toAttack = enemies[robotTypeToInd[1]].getLocation();
-            } else if (robotTypeToInd[3] != -1) {
-                toAttack = enemies[robotTypeToInd[3]].getLocation();
-            } else if (robotTypeToInd[4] != -1) {
-                toAttack = enemies[robotTypeToInd[4]].getLocation();
-            } else if (robotTypeToInd[5] != -1) {
-                toAttack = enemies[robotTypeToInd[5]].getLocation();
-            }
-
-            if (toAttack != null && rc.canAttack(toAttack)) {
-                rc.attack(toAttack);
-            }
-        }
-        
-        if (currMoveTarget == null) {
-            int numNonOccupiedIslands = 0;
-            int numOccupiedIslands = 0;
-            for (MapLocation mapLocation : islandLocations.keySet()) {
-                if (islandLocations.get(mapLocation) == Team.NEUTRAL) {
-                    numNonOccupiedIslands++;
-                } else {
-                    numOccupiedIslands++;
-                }
-            }
-            if (numNonOccupiedIslands > 0 && launcherWillingToAttack) {
-                int i = 0;
-                int targetIsland = rng.nextInt(numNonOccupiedIslands);
-                for (MapLocation mapLocation : islandLocations.keySet()) {
-                    if (islandLocations.get(mapLocation) == Team.NEUTRAL) {
-                        if (i == targetIsland) {
-                            currMoveTarget = mapLocation;
-                            break;
-                        }
-                        i++;
-                    }
-                }
-            } else if (numOccupiedIslands > 0 && launcherWillingToDefend) {
-                int i = 0;
-                int targetIsland = rng.nextInt(numOccupiedIslands);
-                for (MapLocation mapLocation : islandLocations.keySet()) {
-                    if (islandLocations.get(mapLocation) == rc.getTeam()) {
-                        if (i == targetIsland) {
-                            currMoveTarget = mapLocation;
-                            break;
-                        }
-                        i++;
-                    }
-                }
-            } else {
-                exploreMove(rc);
-            }
-        }
-        pathfindTowardMoveTarget(rc);
-    }
-
 
     static Direction exploreDirection = null;
     static int currExploreLength = 0;
@@ -964,29 +579,37 @@ public strictfp class RobotPlayer {
             exploreLength = rng.nextInt(3* minDim / 4) + minDim / 4;
         }
         if (currExploreLength >= exploreLength) {
-            Direction oldDirection = exploreDirection;
-            while (exploreDirection == oldDirection) {
-                exploreDirection = directions[rng.nextInt(directions.length)];
-            }
+            exploreDirection = randomOtherDirection(exploreDirection);
         }
-        rc.setIndicatorString(exploreLength + " " + currExploreLength);;
-        if (exploreDirection != null && rc.canMove(exploreDirection)) {
+        if (Debug.enabled) {
+            Debug.indicate("explore", currExploreLength);
+            Debug.indicate("of", exploreLength);
+        }
+        if (exploreDirection != null && rc.canMove(exploreDirection) && Evasion.isSafe(exploreDirection)) {
             rc.move(exploreDirection);
             currExploreLength ++;
         } else if (rc.getMovementCooldownTurns() == 0/* && (exploreDirection == null || (rc.onTheMap(rc.getLocation().add(exploreDirection)) && rc.senseRobotAtLocation(rc.getLocation().add(exploreDirection)) == null))*/) {
-            Direction oldDirection = exploreDirection;
-            while (exploreDirection == oldDirection) {
-                exploreDirection = directions[rng.nextInt(directions.length)];
-            }
+            exploreDirection = randomOtherDirection(exploreDirection);
+        }
+    }
+
+    /** A random direction other than current, in one draw instead of rerolling until it differs. */
+    static Direction randomOtherDirection(Direction current) {
+        if (current == null) {
+            return directions[rng.nextInt(directions.length)];
         }
+        //directions is in Direction ordinal order
+        return directions[(current.ordinal() + 1 + rng.nextInt(directions.length - 1)) % directions.length];
     }
 
     static void followTeammates(RobotController rc, float[] weights) throws GameActionException {
         MapLocation me = rc.getLocation();
         Vector2 currVector = new Vector2(0,0);
-        RobotInfo[] robotInfos = rc.senseNearbyRobots(-1, rc.getTeam());
+        RobotInfo[] robotInfos = TurnSnapshot.allies();
+        int numAllies = TurnSnapshot.numAllies();
         int numRobotsSensed = 0;
-        for (RobotInfo robotInfo : robotInfos) {
+        for (@Bound(value = 109, scalesWith = "robot count") int i = 0; i < numAllies; i ++) {
+            RobotInfo robotInfo = robotInfos[i];
             if (robotInfo.getLocation() == me) {
                 continue;
             }
@@ -998,7 +621,12 @@ public strictfp class RobotPlayer {
         }
 
         Direction direction = currVector.toDirection();
-        rc.setIndicatorString(currVector.x + " " + currVector.y + " " + String.valueOf(currVector.getAngle()) + " " + numRobotsSensed);
+        if (Debug.enabled) {
+            Debug.indicate("x", currVector.x);
+            Debug.indicate("y", currVector.y);
+            Debug.indicate("angle", currVector.getAngle());
+            Debug.indicate("sensed", numRobotsSensed);
+        }
         if ((currVector.x != 0 || currVector.y != 0) && rc.canMove(direction)) {
             rc.move(direction);
         } else if (currVector.x == 0 && currVector.y == 0) {
@@ -1006,18 +634,4 @@ public strictfp class RobotPlayer {
         }
     }
 
-    static void runBooster(RobotController rc) throws GameActionException {
-        float[] weights = {-0.3f,1,1,1,1,1};
-        followTeammates(rc, weights);
-    }
-
-    static void runDestabilizer(RobotController rc) throws GameActionException {
-        float[] weights = {-0.3f,1,1,1,1,1};
-        followTeammates(rc, weights);
-    }
-
-    static void runAmplifier(RobotController rc) throws GameActionException {
-        float[] weights = {-5,1,3,1,1,-5};
-        followTeammates(rc, weights);
-    }
 }
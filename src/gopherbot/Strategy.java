@@ -0,0 +1,17 @@
+package gopherbot;
+
+import battlecode.common.*;
+
+/**
+ * One robot type's turn, after RobotPlayer has done the bookkeeping every robot shares (unit counts, map
+ * info, sightings). RobotPlayer.strategies holds the module for each robot type, indexed by ordinal, so the
+ * loop dispatches with one array load and one call instead of a switch.
+ *
+ * Variants are picked when the table is filled, from boolean constants in Params. A constant condition is
+ * folded by javac, so the variant not picked is never referenced, loaded or charged for; flip one with
+ * -Pparams to try it in a match without copying the package. Small variations inside a module use the same
+ * trick: `if (Params.flag)` on a constant compiles to only the branch taken.
+ */
+public interface Strategy {
+    void takeTurn(RobotController rc) throws GameActionException;
+}
@@ -0,0 +1,29 @@
+package gopherbot;
+
+import battlecode.common.*;
+
+/** Boosters, destabilizers and amplifiers, one module each. */
+public strictfp class SupportStrategy {
+    static final class Booster implements Strategy {
+        public void takeTurn(RobotController rc) throws GameActionException {
+            if (!Placement.boost(rc)) { //no launcher of ours in range of any tile we can reach
+                RobotPlayer.followTeammates(rc, Params.supportWeights);
+            }
+            if (Debug.enabled) Placement.report(rc);
+        }
+    }
+
+    static final class Destabilizer implements Strategy {
+        public void takeTurn(RobotController rc) throws GameActionException {
+            Placement.destabilize(rc);
+            RobotPlayer.followTeammates(rc, Params.supportWeights);
+            if (Debug.enabled) Placement.report(rc);
+        }
+    }
+
+    static final class Amplifier implements Strategy {
+        public void takeTurn(RobotController rc) throws GameActionException {
+            Coverage.runAmplifier(rc);
+        }
+    }
+}
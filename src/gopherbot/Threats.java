@@ -0,0 +1,191 @@
+package gopherbot;
+
+import battlecode.common.*;
+import gopherbot.comms.*;
+
+/**
+ * Where the enemy has been seen, shared across the team. The map is cut into 5x5 sectors; every robot keeps
+ * a local heat per sector that halves every halfLife rounds, raised by its own sensing and by the sighting
+ * queue (sector, robot type, count), which carries what everyone saw last round. A robot only posts a
+ * sighting when it shows more threat than its heatmap already holds for that sector, so a group of enemies
+ * followed by ten of our robots is reported once rather than ten times a round.
+ *
+ * Carriers step around hot sectors on their way to a target, and idle launchers are sent to the hottest
+ * sector nearby.
+ */
+public strictfp class Threats {
+    static final int sectorSize = 5;
+    static final int sectorsPerRow = 12; //60 / sectorSize
+    static final int numSectors = sectorsPerRow * sectorsPerRow;
+    static final int halfLife = 4; //rounds
+    static final int hotThreshold = 4; //one launcher
+    static final int maxPostsPerTurn = 2;
+    static final int dispatchRadiusSquared = 400;
+    static final int[] threatWeights = {0, 1, 4, 4, 1, 1}; //by robot type ordinal: headquarters, carrier, launcher, destabilizer, booster, amplifier
+
+    static final int[] heat = new int[numSectors];
+    static final int[] heatRound = new int[numSectors];
+
+    //recently hot sectors, so dispatch does not scan the whole map
+    static final int numHotSectors = 16;
+    static final int[] hotSectors = new int[numHotSectors];
+    static int hotSectorsHead = 0;
+
+    //this turn's sensing grouped by sector and type
+    static final int maxGroups = 8;
+    static final int[] groupKeys = new int[maxGroups];
+    static final int[] groupCounts = new int[maxGroups];
+
+    static {
+        for (int i = 0; i < numHotSectors; i ++) {
+            hotSectors[i] = -1;
+        }
+    }
+
+    static int sector(int x, int y) {
+        return (y / sectorSize) * sectorsPerRow + x / sectorSize;
+    }
+
+    static MapLocation sectorCenter(int sector) {
+        return new MapLocation((sector % sectorsPerRow) * sectorSize + sectorSize / 2, (sector / sectorsPerRow) * sectorSize + sectorSize / 2);
+    }
+
+    static int heatAt(int sector, int round) {
+        int halvings = (round - heatRound[sector]) / halfLife;
+        if (halvings >= 16) {
+            return 0;
+        }
+        return heat[sector] >> halvings;
+    }
+
+    static int heatAt(MapLocation location, int round) {
+        return heatAt(sector(location.x, location.y), round);
+    }
+
+    /** Raises a sector to at least threat as of round; returns whether that was news. */
+    static boolean observe(int sector, int threat, int round) {
+        int current = heatAt(sector, round);
+        if (threat <= current) {
+            return false;
+        }
+        heat[sector] = threat;
+        heatRound[sector] = round;
+        if (threat >= hotThreshold) {
+            for (int i = 0; i < numHotSectors; i ++) {
+                if (hotSectors[i] == sector) {
+                    return true;
+                }
+            }
+            hotSectors[hotSectorsHead] = sector;
+            hotSectorsHead = (hotSectorsHead + 1) % numHotSectors;
+        }
+        return true;
+    }
+
+    /** Folds in what everyone saw last round; every robot, once per turn after Bus.beginTurn(). */
+    static void readSightings(RobotController rc) throws GameActionException {
+        QueueChannel queue = Channels.sightingQueue;
+        int round = rc.getRoundNum() - 1;
+        for (@Bound(QueueChannel.maxBankSize) int n = 0; n < queue.readCount(); n ++) {
+            int word = queue.read(rc, n);
+            observe(Messages.sightingSector(word), threatWeights[Messages.sightingType(word)] * Messages.sightingCount(word), round);
+        }
+    }
+
+    /** Adds this turn's sensed enemies to the heatmap and posts the ones the team has not heard about. */
+    static void reportSightings(RobotController rc) throws GameActionException {
+        int numEnemies = TurnSnapshot.numEnemies();
+        if (numEnemies == 0) {
+            return;
+        }
+        RobotInfo[] enemies = TurnSnapshot.enemies();
+        int numGroups = 0;
+        for (@Bound(value = 109, scalesWith = "robot count") int i = 0; i < numEnemies; i ++) {
+            RobotInfo enemy = enemies[i];
+            int type = RobotPlayer.robotTypeToInt(enemy.type);
+            if (threatWeights[type] == 0) {
+                continue;
+            }
+            int key = sector(enemy.location.x, enemy.location.y) << 3 | type;
+            @Bound(maxGroups) int group = 0;
+            while (group < numGroups && groupKeys[group] != key) {
+                group++;
+            }
+            if (group == numGroups) {
+                if (numGroups == maxGroups) {
+                    continue;
+                }
+                groupKeys[group] = key;
+                groupCounts[group] = 0;
+                numGroups++;
+            }
+            groupCounts[group]++;
+        }
+
+        int round = rc.getRoundNum();
+        int posts = 0;
+        for (@Bound(maxGroups) int group = 0; group < numGroups; group ++) {
+            int sector = groupKeys[group] >> 3;
+            int type = groupKeys[group] & 0b111;
+            int count = Math.min(groupCounts[group], 15);
+            if (observe(sector, threatWeights[type] * count, round) && posts < maxPostsPerTurn) {
+                if (Channels.appendSighting(rc, sector, type, count)) {
+                    posts++;
+                }
+            }
+        }
+    }
+
+    /**
+     * preferred, or the closest turn away from it (up to 90 degrees) that does not step into a sector hotter
+     * than the one we are in. Falls back to preferred when everything around is hot.
+     */
+    static Direction saferDirection(RobotController rc, Direction preferred) {
+        MapLocation me = rc.getLocation();
+        int round = rc.getRoundNum();
+        int hereHeat = heatAt(me, round);
+        if (heatAt(me.add(preferred), round) <= hereHeat || heatAt(me.add(preferred), round) < hotThreshold) {
+            return preferred;
+        }
+        Direction left = preferred;
+        Direction right = preferred;
+        for (int i = 0; i < 2; i ++) {
+            left = left.rotateLeft();
+            right = right.rotateRight();
+            if (rc.canMove(left) && heatAt(me.add(left), round) < hotThreshold) {
+                return left;
+            }
+            if (rc.canMove(right) && heatAt(me.add(right), round) < hotThreshold) {
+                return right;
+            }
+        }
+        return preferred;
+    }
+
+    /** Center of the hottest sector within dispatchRadiusSquared, or null if nothing nearby is hot. */
+    static MapLocation hottestSectorNear(RobotController rc) {
+        MapLocation me = rc.getLocation();
+        int round = rc.getRoundNum();
+        MapLocation best = null;
+        int bestHeat = hotThreshold - 1;
+        for (int i = 0; i < numHotSectors; i ++) {
+            int sector = hotSectors[i];
+            if (sector == -1) {
+                continue;
+            }
+            int sectorHeat = heatAt(sector, round);
+            if (sectorHeat <= bestHeat) {
+                continue;
+            }
+            MapLocation center = sectorCenter(sector);
+            if (center.x >= rc.getMapWidth() || center.y >= rc.getMapHeight()) { //partial sector at the edge
+                center = new MapLocation(Math.min(center.x, rc.getMapWidth() - 1), Math.min(center.y, rc.getMapHeight() - 1));
+            }
+            if (me.distanceSquaredTo(center) <= dispatchRadiusSquared) {
+                best = center;
+                bestHeat = sectorHeat;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,188 @@
+package gopherbot;
+
+import battlecode.common.*;
+
+/**
+ * Everything a robot senses during one turn. Each sense call happens lazily and at most once per turn,
+ * and the results are shared by every phase of RobotPlayer.run(). Robots are pre-partitioned by team and
+ * type, and the robots on the 3x3 block around us are indexed by offset, so callers never rescan the raw
+ * arrays. invalidate() is called right before Clock.yield(), so nothing sensed here leaks into the next turn.
+ *
+ * Positions are as of the first sense call of the turn; robots that are moved later in the turn still see
+ * the pre-move snapshot.
+ */
+public strictfp class TurnSnapshot {
+    static final int numRobotTypes = 6;
+
+    static RobotController rc;
+    static Team team;
+
+    static boolean robotsSensed = false;
+    static MapLocation robotsCenter;
+    static RobotInfo[] robots;
+    static RobotInfo[] allies = new RobotInfo[0];
+    static int numAllies = 0;
+    static RobotInfo[] enemies = new RobotInfo[0];
+    static int numEnemies = 0;
+    static RobotInfo[][] alliesByType = new RobotInfo[numRobotTypes][0];
+    static int[] numAlliesByType = new int[numRobotTypes];
+    static RobotInfo[][] enemiesByType = new RobotInfo[numRobotTypes][0];
+    static int[] numEnemiesByType = new int[numRobotTypes];
+    static RobotInfo[] adjacentRobots = new RobotInfo[9]; //indexed by (dx+1)*3+(dy+1)
+
+    static boolean wellsSensed = false;
+    static WellInfo[] wells;
+
+    static boolean islandsSensed = false;
+    static int[] islands;
+    static MapLocation[][] islandLocations;
+
+    static boolean mapInfosSensed = false;
+    static MapInfo[] mapInfos;
+
+    static void init(RobotController argRc) {
+        rc = argRc;
+        team = rc.getTeam();
+    }
+
+    static void invalidate() {
+        robotsSensed = false;
+        wellsSensed = false;
+        islandsSensed = false;
+        mapInfosSensed = false;
+    }
+
+    static void senseRobots() {
+        robotsSensed = true;
+        robotsCenter = rc.getLocation();
+        robots = rc.senseNearbyRobots(-1);
+        if (allies.length < robots.length) {
+            allies = new RobotInfo[robots.length];
+            enemies = new RobotInfo[robots.length];
+            for (int i = 0; i < numRobotTypes; i ++) {
+                alliesByType[i] = new RobotInfo[robots.length];
+                enemiesByType[i] = new RobotInfo[robots.length];
+            }
+        }
+        numAllies = 0;
+        numEnemies = 0;
+        for (int i = 0; i < numRobotTypes; i ++) {
+            numAlliesByType[i] = 0;
+            numEnemiesByType[i] = 0;
+        }
+        for (int i = 0; i < 9; i ++) {
+            adjacentRobots[i] = null;
+        }
+
+        for (@Bound(value = 109, scalesWith = "robot count") RobotInfo robot : robots) {
+            int type = RobotPlayer.robotTypeToInt(robot.type);
+            if (robot.team == team) {
+                allies[numAllies++] = robot;
+                alliesByType[type][numAlliesByType[type]++] = robot;
+            } else {
+                enemies[numEnemies++] = robot;
+                enemiesByType[type][numEnemiesByType[type]++] = robot;
+            }
+            int dx = robot.location.x - robotsCenter.x;
+            int dy = robot.location.y - robotsCenter.y;
+            if (dx >= -1 && dx <= 1 && dy >= -1 && dy <= 1) {
+                adjacentRobots[(dx+1)*3+(dy+1)] = robot;
+            }
+        }
+    }
+
+    /** Every robot in vision, both teams. */
+    static RobotInfo[] robots() {
+        if (!robotsSensed) senseRobots();
+        return robots;
+    }
+
+    /** Allied robots in vision; only the first numAllies() entries are valid. */
+    static RobotInfo[] allies() {
+        if (!robotsSensed) senseRobots();
+        return allies;
+    }
+
+    static int numAllies() {
+        if (!robotsSensed) senseRobots();
+        return numAllies;
+    }
+
+    /** Enemy robots in vision; only the first numEnemies() entries are valid. */
+    static RobotInfo[] enemies() {
+        if (!robotsSensed) senseRobots();
+        return enemies;
+    }
+
+    static int numEnemies() {
+        if (!robotsSensed) senseRobots();
+        return numEnemies;
+    }
+
+    /** Allied robots of one type; only the first numAlliesOfType(type) entries are valid. */
+    static RobotInfo[] alliesOfType(RobotType type) {
+        if (!robotsSensed) senseRobots();
+        return alliesByType[RobotPlayer.robotTypeToInt(type)];
+    }
+
+    static int numAlliesOfType(RobotType type) {
+        if (!robotsSensed) senseRobots();
+        return numAlliesByType[RobotPlayer.robotTypeToInt(type)];
+    }
+
+    /** Enemy robots of one type; only the first numEnemiesOfType(type) entries are valid. */
+    static RobotInfo[] enemiesOfType(RobotType type) {
+        if (!robotsSensed) senseRobots();
+        return enemiesByType[RobotPlayer.robotTypeToInt(type)];
+    }
+
+    static int numEnemiesOfType(RobotType type) {
+        if (!robotsSensed) senseRobots();
+        return numEnemiesByType[RobotPlayer.robotTypeToInt(type)];
+    }
+
+    /** The robot at loc, or null. loc must be within the 3x3 block around where we stood when robots were sensed. */
+    static RobotInfo adjacentRobot(MapLocation loc) {
+        if (!robotsSensed) senseRobots();
+        int dx = loc.x - robotsCenter.x;
+        int dy = loc.y - robotsCenter.y;
+        if (dx < -1 || dx > 1 || dy < -1 || dy > 1) {
+            return null;
+        }
+        return adjacentRobots[(dx+1)*3+(dy+1)];
+    }
+
+    static WellInfo[] wells() {
+        if (!wellsSensed) {
+            wellsSensed = true;
+            wells = rc.senseNearbyWells();
+        }
+        return wells;
+    }
+
+    static int[] islands() {
+        if (!islandsSensed) {
+            islandsSensed = true;
+            islands = rc.senseNearbyIslands();
+            islandLocations = new MapLocation[islands.length][];
+        }
+        return islands;
+    }
+
+    /** Sensed locations of islands()[i]. */
+    static MapLocation[] islandLocations(int i) throws GameActionException {
+        islands();
+        if (islandLocations[i] == null) {
+            islandLocations[i] = rc.senseNearbyIslandLocations(islands[i]);
+        }
+        return islandLocations[i];
+    }
+
+    static MapInfo[] mapInfos() {
+        if (!mapInfosSensed) {
+            mapInfosSensed = true;
+            mapInfos = rc.senseNearbyMapInfos();
+        }
+        return mapInfos;
+    }
+}
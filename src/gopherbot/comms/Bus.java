@@ -0,0 +1,62 @@
+package gopherbot.comms;
+
+import battlecode.common.*;
+import gopherbot.Debug;
+
+/**
+ * Entry point of the message bus. The shared array layout lives in comms.schema; Channels and Messages are
+ * generated from it (./gradlew generateComms), so every slot is declared in one place and two channels
+ * can never overlap.
+ *
+ * Every read and write through a channel is counted here per turn when Debug is enabled, along with
+ * appends a full queue turned away, so bandwidth() shows which channels are eating the budget. The
+ * counting compiles out with Debug.
+ */
+public strictfp class Bus {
+    public static final int[] reads = new int[Channels.numChannels];
+    public static final int[] writes = new int[Channels.numChannels];
+    public static final int[] dropped = new int[Channels.numChannels];
+
+    /** Call once at the start of every turn, before touching any channel. */
+    public static void beginTurn(RobotController rc) throws GameActionException {
+        if (Debug.enabled) {
+            for (int i = 0; i < Channels.numChannels; i ++) {
+                reads[i] = 0;
+                writes[i] = 0;
+                dropped[i] = 0;
+            }
+        }
+        for (QueueChannel queue : Channels.queues) {
+            queue.beginTurn(rc);
+        }
+    }
+
+    /** Publishes queue appends; call once right before Clock.yield(). */
+    public static void endTurn(RobotController rc) {
+        for (QueueChannel queue : Channels.queues) {
+            try {
+                queue.endTurn(rc);
+            } catch (GameActionException e) {
+                if (Debug.enabled) Debug.exception(rc, e);
+            }
+        }
+    }
+
+    /** This turn's traffic as `channel reads/writes[-dropped]` for every channel that saw any. */
+    public static String bandwidth() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < Channels.numChannels; i ++) {
+            if (reads[i] + writes[i] + dropped[i] == 0) {
+                continue;
+            }
+            if (result.length() > 0) {
+                result.append(' ');
+            }
+            result.append(Channels.channelNames[i]).append(' ').append(reads[i]).append('/').append(writes[i]);
+            if (dropped[i] > 0) {
+                result.append('-').append(dropped[i]);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,231 @@
+package gopherbot.comms;
+
+import battlecode.common.*;
+import gopherbot.Debug;
+
+/**
+ * Generated from comms.schema by tools/commsgen; do not edit. Shared array slots:
+ *
+ *    slot  channel
+ *       0  register hqCount
+ *     1-5  register unitCount
+ *       6  register anchorCarriers
+ *    7-35  queue mapInfo (header 7, banks 8-21 and 22-35)
+ *   36-38  register teamStock
+ *      39  free
+ *   40-43  register islandClaim
+ *   44-45  register defenseRequest
+ *      46  register productionPlan
+ *      47  register elixirWell
+ *      48  register blindTurns
+ *   49-52  register amplifierPost
+ *   53-54  register coverageGap
+ *   55-63  queue sighting (header 55, banks 56-59 and 60-63)
+ * 63 of 64 slots used
+ */
+public strictfp class Channels {
+    public static final int numChannels = 13;
+    public static final String[] channelNames = {"hqCount", "unitCount", "anchorCarriers", "mapInfo", "teamStock", "blindTurns", "amplifierPost", "coverageGap", "sighting", "islandClaim", "defenseRequest", "productionPlan", "elixirWell"};
+
+    //register hqCount: HQs register on round 1 in turn order, taking the count as their index; see Production
+    public static final int hqCountChannel = 0;
+    public static final int hqCountSlot = 0;
+
+    public static int readHqCount(RobotController rc) throws GameActionException {
+        if (Debug.enabled) Bus.reads[hqCountChannel]++;
+        return rc.readSharedArray(hqCountSlot);
+    }
+
+    public static void writeHqCount(RobotController rc, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[hqCountChannel]++;
+        rc.writeSharedArray(hqCountSlot, value);
+    }
+
+    //register unitCount: units alive last round, by robot type ordinal - 1; the last HQ resets these
+    public static final int unitCountChannel = 1;
+    public static final int unitCountSlot = 1;
+    public static final int unitCountSize = 5;
+
+    public static int readUnitCount(RobotController rc, int i) throws GameActionException {
+        if (Debug.enabled) Bus.reads[unitCountChannel]++;
+        return rc.readSharedArray(unitCountSlot + i);
+    }
+
+    public static void writeUnitCount(RobotController rc, int i, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[unitCountChannel]++;
+        rc.writeSharedArray(unitCountSlot + i, value);
+    }
+
+    //register anchorCarriers: carriers holding an anchor last round
+    public static final int anchorCarriersChannel = 2;
+    public static final int anchorCarriersSlot = 6;
+
+    public static int readAnchorCarriers(RobotController rc) throws GameActionException {
+        if (Debug.enabled) Bus.reads[anchorCarriersChannel]++;
+        return rc.readSharedArray(anchorCarriersSlot);
+    }
+
+    public static void writeAnchorCarriers(RobotController rc, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[anchorCarriersChannel]++;
+        rc.writeSharedArray(anchorCarriersSlot, value);
+    }
+
+    //queue mapInfo: wells, islands and terrain
+    public static final int mapInfoChannel = 3;
+    public static final QueueChannel mapInfoQueue = new QueueChannel(mapInfoChannel, 7, 14);
+
+    public static boolean appendMapInfo(RobotController rc, int x, int y, int type) throws GameActionException {
+        return mapInfoQueue.append(rc, Messages.packMapInfo(x, y, type));
+    }
+
+    //register teamStock: stock of the HQs after the leader, by resource type ordinal - 1; the leader takes it, see Production
+    public static final int teamStockChannel = 4;
+    public static final int teamStockSlot = 36;
+    public static final int teamStockSize = 3;
+
+    public static int readTeamStock(RobotController rc, int i) throws GameActionException {
+        if (Debug.enabled) Bus.reads[teamStockChannel]++;
+        return rc.readSharedArray(teamStockSlot + i);
+    }
+
+    public static void writeTeamStock(RobotController rc, int i, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[teamStockChannel]++;
+        rc.writeSharedArray(teamStockSlot + i, value);
+    }
+
+    //register blindTurns: turns spent without write access, added on regaining it; reset with the unit counts
+    public static final int blindTurnsChannel = 5;
+    public static final int blindTurnsSlot = 48;
+
+    public static int readBlindTurns(RobotController rc) throws GameActionException {
+        if (Debug.enabled) Bus.reads[blindTurnsChannel]++;
+        return rc.readSharedArray(blindTurnsSlot);
+    }
+
+    public static void writeBlindTurns(RobotController rc, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[blindTurnsChannel]++;
+        rc.writeSharedArray(blindTurnsSlot, value);
+    }
+
+    //register amplifierPost: where each amplifier is heading, refreshed every turn
+    public static final int amplifierPostChannel = 6;
+    public static final int amplifierPostSlot = 49;
+    public static final int amplifierPostSize = 4;
+
+    public static int readAmplifierPost(RobotController rc, int i) throws GameActionException {
+        if (Debug.enabled) Bus.reads[amplifierPostChannel]++;
+        return rc.readSharedArray(amplifierPostSlot + i);
+    }
+
+    public static void writeAmplifierPost(RobotController rc, int i, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[amplifierPostChannel]++;
+        rc.writeSharedArray(amplifierPostSlot + i, value);
+    }
+
+    public static void writeAmplifierPost(RobotController rc, int i, int xPlus1, int y, int round) throws GameActionException {
+        writeAmplifierPost(rc, i, Messages.packStampedLocation(xPlus1, y, round));
+    }
+
+    //register coverageGap: last places robots were out of write range
+    public static final int coverageGapChannel = 7;
+    public static final int coverageGapSlot = 53;
+    public static final int coverageGapSize = 2;
+
+    public static int readCoverageGap(RobotController rc, int i) throws GameActionException {
+        if (Debug.enabled) Bus.reads[coverageGapChannel]++;
+        return rc.readSharedArray(coverageGapSlot + i);
+    }
+
+    public static void writeCoverageGap(RobotController rc, int i, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[coverageGapChannel]++;
+        rc.writeSharedArray(coverageGapSlot + i, value);
+    }
+
+    public static void writeCoverageGap(RobotController rc, int i, int xPlus1, int y, int round) throws GameActionException {
+        writeCoverageGap(rc, i, Messages.packStampedLocation(xPlus1, y, round));
+    }
+
+    //queue sighting: enemy sightings, see Threats
+    public static final int sightingChannel = 8;
+    public static final QueueChannel sightingQueue = new QueueChannel(sightingChannel, 55, 4);
+
+    public static boolean appendSighting(RobotController rc, int sector, int type, int count) throws GameActionException {
+        return sightingQueue.append(rc, Messages.packSighting(sector, type, count));
+    }
+
+    //register islandClaim: island tile each anchor carrier is heading to, see Islands
+    public static final int islandClaimChannel = 9;
+    public static final int islandClaimSlot = 40;
+    public static final int islandClaimSize = 4;
+
+    public static int readIslandClaim(RobotController rc, int i) throws GameActionException {
+        if (Debug.enabled) Bus.reads[islandClaimChannel]++;
+        return rc.readSharedArray(islandClaimSlot + i);
+    }
+
+    public static void writeIslandClaim(RobotController rc, int i, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[islandClaimChannel]++;
+        rc.writeSharedArray(islandClaimSlot + i, value);
+    }
+
+    public static void writeIslandClaim(RobotController rc, int i, int xPlus1, int y, int round) throws GameActionException {
+        writeIslandClaim(rc, i, Messages.packStampedLocation(xPlus1, y, round));
+    }
+
+    //register defenseRequest: our islands under attack, see IslandWatch
+    public static final int defenseRequestChannel = 10;
+    public static final int defenseRequestSlot = 44;
+    public static final int defenseRequestSize = 2;
+
+    public static int readDefenseRequest(RobotController rc, int i) throws GameActionException {
+        if (Debug.enabled) Bus.reads[defenseRequestChannel]++;
+        return rc.readSharedArray(defenseRequestSlot + i);
+    }
+
+    public static void writeDefenseRequest(RobotController rc, int i, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[defenseRequestChannel]++;
+        rc.writeSharedArray(defenseRequestSlot + i, value);
+    }
+
+    public static void writeDefenseRequest(RobotController rc, int i, int x, int y, int threat) throws GameActionException {
+        writeDefenseRequest(rc, i, Messages.packDefenseRequest(x, y, threat));
+    }
+
+    //register productionPlan: builds the leader HQ funded this round, taken off as HQs build them
+    public static final int productionPlanChannel = 11;
+    public static final int productionPlanSlot = 46;
+
+    public static int readProductionPlan(RobotController rc) throws GameActionException {
+        if (Debug.enabled) Bus.reads[productionPlanChannel]++;
+        return rc.readSharedArray(productionPlanSlot);
+    }
+
+    public static void writeProductionPlan(RobotController rc, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[productionPlanChannel]++;
+        rc.writeSharedArray(productionPlanSlot, value);
+    }
+
+    public static void writeProductionPlan(RobotController rc, int carriers, int launchers, int amplifiers, int anchors, int elixirUnits) throws GameActionException {
+        writeProductionPlan(rc, Messages.packProductionPlan(carriers, launchers, amplifiers, anchors, elixirUnits));
+    }
+
+    //register elixirWell: well the leader HQ wants converted to elixir, 0 when none; see Economy
+    public static final int elixirWellChannel = 12;
+    public static final int elixirWellSlot = 47;
+
+    public static int readElixirWell(RobotController rc) throws GameActionException {
+        if (Debug.enabled) Bus.reads[elixirWellChannel]++;
+        return rc.readSharedArray(elixirWellSlot);
+    }
+
+    public static void writeElixirWell(RobotController rc, int value) throws GameActionException {
+        if (Debug.enabled) Bus.writes[elixirWellChannel]++;
+        rc.writeSharedArray(elixirWellSlot, value);
+    }
+
+    public static void writeElixirWell(RobotController rc, int xPlus1, int y, int round) throws GameActionException {
+        writeElixirWell(rc, Messages.packStampedLocation(xPlus1, y, round));
+    }
+
+    public static final QueueChannel[] queues = {mapInfoQueue, sightingQueue};
+}
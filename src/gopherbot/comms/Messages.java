@@ -0,0 +1,100 @@
+package gopherbot.comms;
+
+/**
+ * Generated from comms.schema by tools/commsgen; do not edit. Packs and unpacks message words, first
+ * field in the most significant bits. pack does not mask its arguments; keep them in range.
+ */
+public strictfp class Messages {
+    //MapInfo x:6 y:6 type:4; type: 1 wall, 2 cloud, 3-10 current, 11-13 well, 14-15 island
+    public static int packMapInfo(int x, int y, int type) {
+        return x << 10 | y << 4 | type;
+    }
+
+    public static int mapInfoX(int word) {
+        return (word >> 10) & 0b111111;
+    }
+
+    public static int mapInfoY(int word) {
+        return (word >> 4) & 0b111111;
+    }
+
+    public static int mapInfoType(int word) {
+        return word & 0b1111;
+    }
+
+    //StampedLocation xPlus1:6 y:6 round:4; round mod 16 it was written in; x is stored plus one so a stamp is never 0, which is empty; see Coverage.stamp
+    public static int packStampedLocation(int xPlus1, int y, int round) {
+        return xPlus1 << 10 | y << 4 | round;
+    }
+
+    public static int stampedLocationXPlus1(int word) {
+        return (word >> 10) & 0b111111;
+    }
+
+    public static int stampedLocationY(int word) {
+        return (word >> 4) & 0b111111;
+    }
+
+    public static int stampedLocationRound(int word) {
+        return word & 0b1111;
+    }
+
+    //Sighting sector:8 type:3 count:4; enemies of one type seen in a 5x5 sector last round, count capped at 15
+    public static int packSighting(int sector, int type, int count) {
+        return sector << 7 | type << 4 | count;
+    }
+
+    public static int sightingSector(int word) {
+        return (word >> 7) & 0b11111111;
+    }
+
+    public static int sightingType(int word) {
+        return (word >> 4) & 0b111;
+    }
+
+    public static int sightingCount(int word) {
+        return word & 0b1111;
+    }
+
+    //DefenseRequest x:6 y:6 threat:4; a tile of one of our islands under attack; threat decays, 0 is empty
+    public static int packDefenseRequest(int x, int y, int threat) {
+        return x << 10 | y << 4 | threat;
+    }
+
+    public static int defenseRequestX(int word) {
+        return (word >> 10) & 0b111111;
+    }
+
+    public static int defenseRequestY(int word) {
+        return (word >> 4) & 0b111111;
+    }
+
+    public static int defenseRequestThreat(int word) {
+        return word & 0b1111;
+    }
+
+    //ProductionPlan carriers:5 launchers:5 amplifiers:3 anchors:1 elixirUnits:2
+    public static int packProductionPlan(int carriers, int launchers, int amplifiers, int anchors, int elixirUnits) {
+        return carriers << 11 | launchers << 6 | amplifiers << 3 | anchors << 2 | elixirUnits;
+    }
+
+    public static int productionPlanCarriers(int word) {
+        return (word >> 11) & 0b11111;
+    }
+
+    public static int productionPlanLaunchers(int word) {
+        return (word >> 6) & 0b11111;
+    }
+
+    public static int productionPlanAmplifiers(int word) {
+        return (word >> 3) & 0b111;
+    }
+
+    public static int productionPlanAnchors(int word) {
+        return (word >> 2) & 0b1;
+    }
+
+    public static int productionPlanElixirUnits(int word) {
+        return word & 0b11;
+    }
+}
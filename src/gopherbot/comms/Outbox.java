@@ -0,0 +1,91 @@
+package gopherbot.comms;
+
+import battlecode.common.*;
+import gopherbot.Bound;
+import gopherbot.Debug;
+
+/**
+ * Words waiting for a queue a robot cannot write to right now, usually because it is out of range of every
+ * HQ, amplifier and island. Bounded, deduplicated and kept sorted by priority, so when write access comes
+ * back flush() delivers the most valuable words first, as many as the queue has room for, and the rest
+ * keep for the next turn.
+ *
+ * Entries are stored in ascending priority and, within a priority, newest first: flush() pops from the end
+ * (highest priority, oldest first) and a full outbox evicts from the front.
+ */
+public strictfp class Outbox {
+    public static final int maxCapacity = 32;
+
+    public final QueueChannel queue;
+    final int[] words;
+    final int[] priorities;
+    int size = 0;
+
+    public Outbox(QueueChannel queue, int capacity) {
+        if (capacity > maxCapacity) {
+            throw new IllegalArgumentException("outbox capacity " + capacity + " over " + maxCapacity);
+        }
+        this.queue = queue;
+        words = new int[capacity];
+        priorities = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Sends word now if the queue takes it and nothing is waiting, otherwise keeps it for flush(). */
+    public void post(RobotController rc, int word, int priority) throws GameActionException {
+        if (size == 0 && queue.canAppend(rc)) {
+            queue.append(rc, word);
+            return;
+        }
+        add(word, priority);
+    }
+
+    /** Keeps word for flush(); a word already waiting keeps the higher of the two priorities. */
+    public void add(int word, int priority) {
+        for (@Bound(maxCapacity) int i = size - 1; i >= 0; i --) {
+            if (words[i] == word) {
+                if (priorities[i] >= priority) {
+                    return;
+                }
+                remove(i);
+                break;
+            }
+        }
+        if (size == words.length) {
+            if (priorities[0] > priority) {
+                if (Debug.enabled) Bus.dropped[queue.channel]++;
+                return;
+            }
+            remove(0);
+            if (Debug.enabled) Bus.dropped[queue.channel]++;
+        }
+        //insert before the first entry of equal or higher priority
+        for (@Bound(maxCapacity) int pos = size; ; pos --) {
+            if (pos == 0 || priorities[pos - 1] < priority) {
+                words[pos] = word;
+                priorities[pos] = priority;
+                break;
+            }
+            words[pos] = words[pos - 1];
+            priorities[pos] = priorities[pos - 1];
+        }
+        size++;
+    }
+
+    void remove(int i) {
+        size--;
+        System.arraycopy(words, i + 1, words, i, size - i);
+        System.arraycopy(priorities, i + 1, priorities, i, size - i);
+    }
+
+    /** Appends waiting words, highest priority first, until the outbox is empty or the queue refuses. */
+    public void flush(RobotController rc) throws GameActionException {
+        for (@Bound(maxCapacity) int i = size - 1; i >= 0 && queue.canAppend(rc); i --) {
+            queue.append(rc, words[i]);
+            size = i;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package gopherbot.comms;
+
+import battlecode.common.*;
+import gopherbot.Debug;
+
+/**
+ * A double-buffered queue channel: one header word followed by two banks of bankSize words that swap roles
+ * every round. During round r robots append at the tail of bank r%2 and read bank (r-1)%2, which holds
+ * everything written during round r-1 by robots on either side of us in the turn order, so a message
+ * reaches everyone exactly one round after it is written.
+ *
+ * Nothing is ever cleared. The header word is
+ *   epoch << 10 | readCount << 5 | tail
+ * where epoch is the round (mod 64) the header was last written in, tail the number of words appended to
+ * that round's bank and readCount the number of words the other bank got in the round before. The first
+ * writer of a round rolls the header over, so it does not matter which robot (or which HQ) runs first, and a
+ * bank is reused without clearing because readers only look below its count. A round nobody wrote in reads
+ * as empty.
+ */
+public strictfp class QueueChannel {
+    public static final int maxBankSize = 31; //tail and readCount are 5 bits
+    static final int epochMask = 0b111111;
+    static final int countMask = 0b11111;
+
+    public final int channel;
+    public final int headerSlot;
+    public final int bankSize;
+
+    int round;
+    int readBankStart;
+    int writeBankStart;
+    int readCount;
+    int tail;
+    boolean headerDirty;
+
+    public QueueChannel(int channel, int headerSlot, int bankSize) {
+        this.channel = channel;
+        this.headerSlot = headerSlot;
+        this.bankSize = bankSize;
+    }
+
+    /** Reads the header; Bus.beginTurn() calls this for every queue at the start of the turn. */
+    void beginTurn(RobotController rc) throws GameActionException {
+        round = rc.getRoundNum();
+        readBankStart = headerSlot + 1 + ((round - 1) & 1) * bankSize;
+        writeBankStart = headerSlot + 1 + (round & 1) * bankSize;
+        headerDirty = false;
+
+        int header = rc.readSharedArray(headerSlot);
+        if (Debug.enabled) Bus.reads[channel]++;
+        int epoch = header >> 10;
+        if (epoch == (round & epochMask)) { //someone already wrote this round
+            readCount = (header >> 5) & countMask;
+            tail = header & countMask;
+        } else if (epoch == ((round - 1) & epochMask)) { //first this round, last round's bank is what we read
+            readCount = header & countMask;
+            tail = 0;
+        } else { //nobody wrote last round
+            readCount = 0;
+            tail = 0;
+        }
+    }
+
+    /** Number of words written last round. */
+    public int readCount() {
+        return readCount;
+    }
+
+    /** Slot of the i-th word written last round, for i < readCount(). */
+    public int readSlot(int i) {
+        return readBankStart + i;
+    }
+
+    /** The i-th word written last round, for i < readCount(). */
+    public int read(RobotController rc, int i) throws GameActionException {
+        if (Debug.enabled) Bus.reads[channel]++;
+        return rc.readSharedArray(readBankStart + i);
+    }
+
+    public boolean canAppend(RobotController rc) {
+        return tail < bankSize && rc.canWriteSharedArray(headerSlot, 0);
+    }
+
+    /** Appends a word to this round's bank; false if the bank is full or we are out of writing range. */
+    public boolean append(RobotController rc, int word) throws GameActionException {
+        if (!canAppend(rc)) {
+            if (Debug.enabled) Bus.dropped[channel]++;
+            return false;
+        }
+        rc.writeSharedArray(writeBankStart + tail, word);
+        if (Debug.enabled) Bus.writes[channel]++;
+        tail++;
+        headerDirty = true;
+        return true;
+    }
+
+    /** Publishes this turn's appends; Bus.endTurn() calls this before Clock.yield(). */
+    void endTurn(RobotController rc) throws GameActionException {
+        //a turn that ran over into the next round wrote into what is now the read bank; leave the header alone
+        if (!headerDirty || rc.getRoundNum() != round) {
+            return;
+        }
+        headerDirty = false;
+        rc.writeSharedArray(headerSlot, (round & epochMask) << 10 | readCount << 5 | tail);
+        if (Debug.enabled) Bus.writes[channel]++;
+    }
+}
@@ -0,0 +1,10 @@
+package gopherbot1;
+
+/**
+ * Hand-picked strategy constants, kept in one place so they can be tuned; see gopherbot.Params. Overridden
+ * at build time by gopherbot1.<name>=<value> lines in the -Pparams file.
+ */
+public strictfp class Params {
+    static final float[] buildRatios = {5, 6, 2, 3, 4}; //carrier, launcher, booster, destabilizer, amplifier: RobotPlayer.robotTypeToInteger - 1, not ordinal - 1
+    static final float standardAnchorToRobotRatio = 0.05f;
+}
@@ -79,42 +79,19 @@ public strictfp class RobotPlayer {
      */
     static final Random rng = new Random(69420);
 
-    static float[] buildRatios = {5, 6, 2,3,4};
-
-    static float standardAnchorToRobotRatio = 0.05f;
     static RobotType[] buildPriorities = {RobotType.CARRIER, RobotType.LAUNCHER, RobotType.AMPLIFIER, RobotType.BOOSTER, RobotType.DESTABILIZER};
 
-    static Map<RobotType, Integer> robotTypeToInteger;
-
-    static {
-        robotTypeToInteger = new HashMap<RobotType, Integer>();
-        robotTypeToInteger.put(RobotType.HEADQUARTERS, 0);
-        robotTypeToInteger.put(RobotType.CARRIER, 1);
-        robotTypeToInteger.put(RobotType.LAUNCHER, 2);
-        robotTypeToInteger.put(RobotType.BOOSTER, 3);
-        robotTypeToInteger.put(RobotType.DESTABILIZER, 4);
-        robotTypeToInteger.put(RobotType.AMPLIFIER, 5);
-    }
+    //shared array index of each robot type's count, by robot type ordinal; boosters come before destabilizers here
+    static final int[] robotTypeToInteger = {0, 1, 2, 4, 3, 5};
 
-    static Map<Integer, RobotType> integerToRobotType;
+    static final RobotType[] integerToRobotType = {RobotType.HEADQUARTERS, RobotType.CARRIER, RobotType.LAUNCHER, RobotType.BOOSTER, RobotType.DESTABILIZER, RobotType.AMPLIFIER};
 
-    static {
-        integerToRobotType = new HashMap<Integer, RobotType>();
-        integerToRobotType.put(0, RobotType.HEADQUARTERS);
-        integerToRobotType.put(1, RobotType.CARRIER);
-        integerToRobotType.put(2, RobotType.LAUNCHER);
-        integerToRobotType.put(3, RobotType.BOOSTER);
-        integerToRobotType.put(4, RobotType.DESTABILIZER);
-        integerToRobotType.put(5, RobotType.AMPLIFIER);
-    }
-
-    static Map<ResourceType, RobotType[]> resourceTypeToRobotTypes;
-    static {
-        resourceTypeToRobotTypes = new HashMap<ResourceType, RobotType[]>();
-        resourceTypeToRobotTypes.put(ResourceType.ADAMANTIUM, new RobotType[]{RobotType.CARRIER, RobotType.AMPLIFIER});
-        resourceTypeToRobotTypes.put(ResourceType.MANA, new RobotType[]{RobotType.AMPLIFIER, RobotType.LAUNCHER});
-        resourceTypeToRobotTypes.put(ResourceType.ELIXIR, new RobotType[]{RobotType.BOOSTER, RobotType.DESTABILIZER});
-    }
+    static final RobotType[][] resourceTypeToRobotTypes = { //by resource type ordinal
+        {},
+        {RobotType.CARRIER, RobotType.AMPLIFIER},
+        {RobotType.AMPLIFIER, RobotType.LAUNCHER},
+        {RobotType.BOOSTER, RobotType.DESTABILIZER},
+    };
 
     static int numHeadquarters;
 
@@ -156,7 +133,7 @@ public strictfp class RobotPlayer {
                 // use different strategies on different robots. If you wish, you are free to rewrite
                 // this into a different control structure!
                 if (rc.getType() != RobotType.HEADQUARTERS && rc.canWriteSharedArray(0, 0)) {
-                    rc.writeSharedArray(robotTypeToInteger.get(rc.getType()), rc.readSharedArray(robotTypeToInteger.get(rc.getType()))+1);
+                    rc.writeSharedArray(robotTypeToInteger[rc.getType().ordinal()], rc.readSharedArray(robotTypeToInteger[rc.getType().ordinal()])+1);
                 }
                 switch (rc.getType()) {
                     case HEADQUARTERS:     runHeadquarters(rc);  break;
@@ -230,14 +207,14 @@ public strictfp class RobotPlayer {
         float totalRatio = 0;
         for (int i = 1; i <= 5; i ++) {
             totalCountedRobots += rc.readSharedArray(i);
-            totalRatio += buildRatios[i-1];
+            totalRatio += Params.buildRatios[i-1];
         }
         int newRobotCount = totalCountedRobots+1;
 
         //calculate recommended amounts
         indicatorString += "| ";
         for (int i = 1; i <= 5; i ++) {
-            reccAmounts[i-1] = ((float) newRobotCount) * buildRatios[i-1]/totalRatio;
+            reccAmounts[i-1] = ((float) newRobotCount) * Params.buildRatios[i-1]/totalRatio;
             indicatorString += round(reccAmounts[i-1]) + " ";
         }
 
@@ -248,16 +225,16 @@ public strictfp class RobotPlayer {
             float maxBuildDiff = -Float.MAX_VALUE;
             RobotType maxBuildDiffType = RobotType.CARRIER;
 
-            for (RobotType robotType : resourceTypeToRobotTypes.get(resourceType)) {
-                int i = robotTypeToInteger.get(robotType) - 1;
+            for (RobotType robotType : resourceTypeToRobotTypes[resourceType.ordinal()]) {
+                int i = robotTypeToInteger[robotType.ordinal()] - 1;
                 float currDiff = reccAmounts[i] - ((float) rc.readSharedArray(i + 1));
                 if (currDiff > maxBuildDiff) {
                     maxBuildDiff = currDiff;
-                    maxBuildDiffType = integerToRobotType.get(i + 1);
+                    maxBuildDiffType = integerToRobotType[i + 1];
                 }
             }
             if (resourceType == ResourceType.ADAMANTIUM || resourceType == ResourceType.MANA) {
-                float anchorDiff = rc.readSharedArray(robotTypeToInteger.get(RobotType.CARRIER))*0.25f - (float) rc.getNumAnchors(Anchor.STANDARD);
+                float anchorDiff = rc.readSharedArray(robotTypeToInteger[RobotType.CARRIER.ordinal()])*0.25f - (float) rc.getNumAnchors(Anchor.STANDARD);
                 indicatorString += "| " + round(anchorDiff) + "," + round(maxBuildDiff);
 
                 if (anchorDiff > maxBuildDiff) {
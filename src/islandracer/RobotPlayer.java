@@ -0,0 +1,180 @@
+package islandracer;
+
+import battlecode.common.*;
+
+import java.util.Random;
+
+/**
+ * Reference opponent: anchor spam. After a few carriers, HQs put everything into anchors; carriers pick
+ * them up when they come home and race to the nearest island in view that is not ours, exploring when none is.
+ * Deterministic and cheap.
+ */
+public strictfp class RobotPlayer {
+    static final Random rng = new Random(6147);
+    static final Direction[] directions = {
+        Direction.NORTH,
+        Direction.NORTHEAST,
+        Direction.EAST,
+        Direction.SOUTHEAST,
+        Direction.SOUTH,
+        Direction.SOUTHWEST,
+        Direction.WEST,
+        Direction.NORTHWEST,
+    };
+    static final int firstCarriers = 4; //per HQ, before any anchor
+    static final int maxCarriers = 10;
+
+    static MapLocation home;
+    static MapLocation well;
+    static ResourceType wellType;
+    static MapLocation exploreTarget;
+    static int carriersBuilt = 0;
+
+    public static void run(RobotController rc) throws GameActionException {
+        home = nearestHQ(rc);
+        while (true) {
+            try {
+                switch (rc.getType()) {
+                    case HEADQUARTERS: runHeadquarters(rc); break;
+                    case CARRIER: runCarrier(rc); break;
+                    default: break;
+                }
+            } catch (GameActionException e) {
+                e.printStackTrace();
+            } finally {
+                Clock.yield();
+            }
+        }
+    }
+
+    static MapLocation nearestHQ(RobotController rc) throws GameActionException {
+        if (rc.getType() == RobotType.HEADQUARTERS) {
+            return rc.getLocation();
+        }
+        MapLocation nearest = rc.getLocation();
+        int nearestDistance = Integer.MAX_VALUE;
+        for (RobotInfo robot : rc.senseNearbyRobots(-1, rc.getTeam())) {
+            if (robot.type == RobotType.HEADQUARTERS && rc.getLocation().distanceSquaredTo(robot.location) < nearestDistance) {
+                nearest = robot.location;
+                nearestDistance = rc.getLocation().distanceSquaredTo(robot.location);
+            }
+        }
+        return nearest;
+    }
+
+    static void runHeadquarters(RobotController rc) throws GameActionException {
+        if (carriersBuilt < firstCarriers) {
+            if (build(rc, RobotType.CARRIER)) {
+                carriersBuilt++;
+            }
+            return;
+        }
+        if (rc.canBuildAnchor(Anchor.STANDARD)) {
+            rc.buildAnchor(Anchor.STANDARD);
+        }
+        if (carriersBuilt < maxCarriers && rc.getNumAnchors(Anchor.STANDARD) > 0 && build(rc, RobotType.CARRIER)) {
+            carriersBuilt++; //someone has to carry it
+        }
+    }
+
+    /** Builds type on the first free tile around us, toward the middle of the map first. */
+    static boolean build(RobotController rc, RobotType type) throws GameActionException {
+        Direction toward = rc.getLocation().directionTo(new MapLocation(rc.getMapWidth() / 2, rc.getMapHeight() / 2));
+        for (int i = 0; i < 8; i ++) {
+            MapLocation location = rc.getLocation().add(directions[(toward.ordinal() + i) % 8]);
+            if (rc.canBuildRobot(type, location)) {
+                rc.buildRobot(type, location);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static void runCarrier(RobotController rc) throws GameActionException {
+        if (rc.getAnchor() == null && rc.canTakeAnchor(home, Anchor.STANDARD)) {
+            rc.takeAnchor(home, Anchor.STANDARD);
+        }
+        if (rc.getAnchor() == null) {
+            mine(rc, rc.getID() % 2 == 0 ? ResourceType.ADAMANTIUM : ResourceType.MANA);
+            return;
+        }
+        if (rc.canPlaceAnchor() && rc.senseTeamOccupyingIsland(rc.senseIsland(rc.getLocation())) != rc.getTeam()) {
+            rc.placeAnchor();
+            return;
+        }
+        MapLocation me = rc.getLocation();
+        MapLocation target = null;
+        for (int island : rc.senseNearbyIslands()) {
+            if (rc.senseTeamOccupyingIsland(island) == rc.getTeam()) {
+                continue;
+            }
+            for (MapLocation tile : rc.senseNearbyIslandLocations(island)) {
+                if (target == null || me.distanceSquaredTo(tile) < me.distanceSquaredTo(target)) {
+                    target = tile;
+                }
+            }
+        }
+        if (target != null) {
+            moveToward(rc, target);
+        } else {
+            explore(rc);
+        }
+    }
+
+    /** Fills up at the nearest well we have seen (preferred resource first) and unloads at home. */
+    static void mine(RobotController rc, ResourceType preferred) throws GameActionException {
+        int carried = rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ELIXIR);
+        if (carried >= GameConstants.CARRIER_CAPACITY) {
+            for (ResourceType type : new ResourceType[] {ResourceType.ADAMANTIUM, ResourceType.MANA, ResourceType.ELIXIR}) {
+                int amount = rc.getResourceAmount(type);
+                if (amount > 0 && rc.canTransferResource(home, type, amount)) {
+                    rc.transferResource(home, type, amount);
+                }
+            }
+            moveToward(rc, home);
+            return;
+        }
+        if (well == null || wellType != preferred) {
+            for (WellInfo info : rc.senseNearbyWells()) {
+                if (well == null || (info.getResourceType() == preferred && wellType != preferred)) {
+                    well = info.getMapLocation();
+                    wellType = info.getResourceType();
+                }
+            }
+        }
+        if (well != null && rc.canCollectResource(well, -1)) {
+            rc.collectResource(well, -1);
+        } else if (well != null) {
+            moveToward(rc, well);
+        } else {
+            explore(rc);
+        }
+    }
+
+    /** Heads for a random point of the map, and a new one once there. */
+    static void explore(RobotController rc) throws GameActionException {
+        if (exploreTarget == null || rc.getLocation().distanceSquaredTo(exploreTarget) <= 4) {
+            exploreTarget = new MapLocation(rng.nextInt(rc.getMapWidth()), rng.nextInt(rc.getMapHeight()));
+        }
+        moveToward(rc, exploreTarget);
+    }
+
+    /** Straight at target, or up to 90 degrees off it, or anywhere. */
+    static void moveToward(RobotController rc, MapLocation target) throws GameActionException {
+        Direction direction = rc.getLocation().directionTo(target);
+        if (direction == Direction.CENTER) {
+            return;
+        }
+        Direction[] tries = {direction, direction.rotateLeft(), direction.rotateRight(), direction.rotateLeft().rotateLeft(), direction.rotateRight().rotateRight()};
+        for (Direction tryDirection : tries) {
+            if (rc.canMove(tryDirection)) {
+                rc.move(tryDirection);
+                return;
+            }
+        }
+        Direction random = directions[rng.nextInt(directions.length)];
+        if (rc.canMove(random)) {
+            rc.move(random);
+        }
+    }
+}
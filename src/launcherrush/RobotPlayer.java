@@ -0,0 +1,190 @@
+package launcherrush;
+
+import battlecode.common.*;
+
+import java.util.Random;
+
+/**
+ * Reference opponent: launcher rush. HQs spend all mana on launchers from round 1 and adamantium on carriers
+ * that mine mana; launchers walk to the enemy HQ, trying the rotational, vertical and horizontal mirrors of
+ * their own HQ in turn, and shoot the weakest robot in range on the way. Deterministic and cheap.
+ */
+public strictfp class RobotPlayer {
+    static final Random rng = new Random(6147);
+    static final Direction[] directions = {
+        Direction.NORTH,
+        Direction.NORTHEAST,
+        Direction.EAST,
+        Direction.SOUTHEAST,
+        Direction.SOUTH,
+        Direction.SOUTHWEST,
+        Direction.WEST,
+        Direction.NORTHWEST,
+    };
+    static final int maxCarriers = 4; //per HQ
+
+    static MapLocation home;
+    static int guess = 0; //0 rotational, 1 vertical, 2 horizontal
+    static MapLocation well;
+    static ResourceType wellType;
+    static MapLocation exploreTarget;
+    static int carriersBuilt = 0;
+
+    public static void run(RobotController rc) throws GameActionException {
+        home = nearestHQ(rc);
+        while (true) {
+            try {
+                switch (rc.getType()) {
+                    case HEADQUARTERS: runHeadquarters(rc); break;
+                    case CARRIER: runCarrier(rc); break;
+                    case LAUNCHER: runLauncher(rc); break;
+                    default: break;
+                }
+            } catch (GameActionException e) {
+                e.printStackTrace();
+            } finally {
+                Clock.yield();
+            }
+        }
+    }
+
+    static MapLocation nearestHQ(RobotController rc) throws GameActionException {
+        if (rc.getType() == RobotType.HEADQUARTERS) {
+            return rc.getLocation();
+        }
+        MapLocation nearest = rc.getLocation();
+        int nearestDistance = Integer.MAX_VALUE;
+        for (RobotInfo robot : rc.senseNearbyRobots(-1, rc.getTeam())) {
+            if (robot.type == RobotType.HEADQUARTERS && rc.getLocation().distanceSquaredTo(robot.location) < nearestDistance) {
+                nearest = robot.location;
+                nearestDistance = rc.getLocation().distanceSquaredTo(robot.location);
+            }
+        }
+        return nearest;
+    }
+
+    static void runHeadquarters(RobotController rc) throws GameActionException {
+        build(rc, RobotType.LAUNCHER);
+        if (carriersBuilt < maxCarriers && build(rc, RobotType.CARRIER)) {
+            carriersBuilt++;
+        }
+        build(rc, RobotType.LAUNCHER);
+    }
+
+    /** Builds type on the first free tile around us, toward the middle of the map first. */
+    static boolean build(RobotController rc, RobotType type) throws GameActionException {
+        Direction toward = rc.getLocation().directionTo(new MapLocation(rc.getMapWidth() / 2, rc.getMapHeight() / 2));
+        for (int i = 0; i < 8; i ++) {
+            MapLocation location = rc.getLocation().add(directions[(toward.ordinal() + i) % 8]);
+            if (rc.canBuildRobot(type, location)) {
+                rc.buildRobot(type, location);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static void runCarrier(RobotController rc) throws GameActionException {
+        mine(rc, ResourceType.MANA);
+    }
+
+    static void runLauncher(RobotController rc) throws GameActionException {
+        attackWeakest(rc);
+        checkGuess(rc);
+        MapLocation target = enemyHQGuess(rc);
+        if (rc.getLocation().distanceSquaredTo(target) > RobotType.LAUNCHER.actionRadiusSquared) {
+            moveToward(rc, target);
+        }
+        attackWeakest(rc); //camp the HQ once there
+    }
+
+    /** The mirror of home under the symmetry we currently suspect: rotational, vertical, then horizontal. */
+    static MapLocation enemyHQGuess(RobotController rc) {
+        int x = guess == 2 ? home.x : rc.getMapWidth() - 1 - home.x;
+        int y = guess == 1 ? home.y : rc.getMapHeight() - 1 - home.y;
+        return new MapLocation(x, y);
+    }
+
+    /** Moves on to the next guess once we can see there is no enemy HQ at this one. */
+    static void checkGuess(RobotController rc) throws GameActionException {
+        MapLocation target = enemyHQGuess(rc);
+        if (rc.canSenseLocation(target)) {
+            RobotInfo robot = rc.senseRobotAtLocation(target);
+            if (robot == null || robot.type != RobotType.HEADQUARTERS || robot.team == rc.getTeam()) {
+                guess = (guess + 1) % 3;
+            }
+        }
+    }
+
+    /** Fills up at the nearest well we have seen (preferred resource first) and unloads at home. */
+    static void mine(RobotController rc, ResourceType preferred) throws GameActionException {
+        int carried = rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ELIXIR);
+        if (carried >= GameConstants.CARRIER_CAPACITY) {
+            for (ResourceType type : new ResourceType[] {ResourceType.ADAMANTIUM, ResourceType.MANA, ResourceType.ELIXIR}) {
+                int amount = rc.getResourceAmount(type);
+                if (amount > 0 && rc.canTransferResource(home, type, amount)) {
+                    rc.transferResource(home, type, amount);
+                }
+            }
+            moveToward(rc, home);
+            return;
+        }
+        if (well == null || wellType != preferred) {
+            for (WellInfo info : rc.senseNearbyWells()) {
+                if (well == null || (info.getResourceType() == preferred && wellType != preferred)) {
+                    well = info.getMapLocation();
+                    wellType = info.getResourceType();
+                }
+            }
+        }
+        if (well != null && rc.canCollectResource(well, -1)) {
+            rc.collectResource(well, -1);
+        } else if (well != null) {
+            moveToward(rc, well);
+        } else {
+            explore(rc);
+        }
+    }
+
+    /** Heads for a random point of the map, and a new one once there. */
+    static void explore(RobotController rc) throws GameActionException {
+        if (exploreTarget == null || rc.getLocation().distanceSquaredTo(exploreTarget) <= 4) {
+            exploreTarget = new MapLocation(rng.nextInt(rc.getMapWidth()), rng.nextInt(rc.getMapHeight()));
+        }
+        moveToward(rc, exploreTarget);
+    }
+
+    static void attackWeakest(RobotController rc) throws GameActionException {
+        if (!rc.isActionReady()) {
+            return;
+        }
+        RobotInfo weakest = null;
+        for (RobotInfo enemy : rc.senseNearbyRobots(rc.getType().actionRadiusSquared, rc.getTeam().opponent())) {
+            if (enemy.type != RobotType.HEADQUARTERS && (weakest == null || enemy.health < weakest.health)) {
+                weakest = enemy;
+            }
+        }
+        if (weakest != null && rc.canAttack(weakest.location)) {
+            rc.attack(weakest.location);
+        }
+    }
+
+    /** Straight at target, or up to 90 degrees off it, or anywhere. */
+    static void moveToward(RobotController rc, MapLocation target) throws GameActionException {
+        Direction direction = rc.getLocation().directionTo(target);
+        if (direction == Direction.CENTER) {
+            return;
+        }
+        Direction[] tries = {direction, direction.rotateLeft(), direction.rotateRight(), direction.rotateLeft().rotateLeft(), direction.rotateRight().rotateRight()};
+        for (Direction tryDirection : tries) {
+            if (rc.canMove(tryDirection)) {
+                rc.move(tryDirection);
+                return;
+            }
+        }
+        Direction random = directions[rng.nextInt(directions.length)];
+        if (rc.canMove(random)) {
+            rc.move(random);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package turtlebot;
+
+import battlecode.common.*;
+
+import java.util.Random;
+
+/**
+ * Reference opponent: turtle. HQs build a few carriers and then launchers that never leave home: they hold a
+ * ring around their HQ, shoot whatever comes in range and only chase enemies inside guardRadiusSquared of it.
+ * Deterministic and cheap.
+ */
+public strictfp class RobotPlayer {
+    static final Random rng = new Random(6147);
+    static final Direction[] directions = {
+        Direction.NORTH,
+        Direction.NORTHEAST,
+        Direction.EAST,
+        Direction.SOUTHEAST,
+        Direction.SOUTH,
+        Direction.SOUTHWEST,
+        Direction.WEST,
+        Direction.NORTHWEST,
+    };
+    static final int maxCarriers = 6; //per HQ
+    static final int guardRadiusSquared = 100;
+    static final int ringInnerSquared = 5;
+    static final int ringOuterSquared = 20;
+
+    static MapLocation home;
+    static MapLocation well;
+    static ResourceType wellType;
+    static MapLocation exploreTarget;
+    static int carriersBuilt = 0;
+
+    public static void run(RobotController rc) throws GameActionException {
+        home = nearestHQ(rc);
+        while (true) {
+            try {
+                switch (rc.getType()) {
+                    case HEADQUARTERS: runHeadquarters(rc); break;
+                    case CARRIER: runCarrier(rc); break;
+                    case LAUNCHER: runLauncher(rc); break;
+                    default: break;
+                }
+            } catch (GameActionException e) {
+                e.printStackTrace();
+            } finally {
+                Clock.yield();
+            }
+        }
+    }
+
+    static MapLocation nearestHQ(RobotController rc) throws GameActionException {
+        if (rc.getType() == RobotType.HEADQUARTERS) {
+            return rc.getLocation();
+        }
+        MapLocation nearest = rc.getLocation();
+        int nearestDistance = Integer.MAX_VALUE;
+        for (RobotInfo robot : rc.senseNearbyRobots(-1, rc.getTeam())) {
+            if (robot.type == RobotType.HEADQUARTERS && rc.getLocation().distanceSquaredTo(robot.location) < nearestDistance) {
+                nearest = robot.location;
+                nearestDistance = rc.getLocation().distanceSquaredTo(robot.location);
+            }
+        }
+        return nearest;
+    }
+
+    static void runHeadquarters(RobotController rc) throws GameActionException {
+        if (carriersBuilt < maxCarriers && build(rc, RobotType.CARRIER)) {
+            carriersBuilt++;
+        }
+        while (build(rc, RobotType.LAUNCHER)) {
+            //everything left goes into launchers
+        }
+    }
+
+    /** Builds type on the first free tile around us, toward the middle of the map first. */
+    static boolean build(RobotController rc, RobotType type) throws GameActionException {
+        Direction toward = rc.getLocation().directionTo(new MapLocation(rc.getMapWidth() / 2, rc.getMapHeight() / 2));
+        for (int i = 0; i < 8; i ++) {
+            MapLocation location = rc.getLocation().add(directions[(toward.ordinal() + i) % 8]);
+            if (rc.canBuildRobot(type, location)) {
+                rc.buildRobot(type, location);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static void runCarrier(RobotController rc) throws GameActionException {
+        mine(rc, rc.getID() % 2 == 0 ? ResourceType.ADAMANTIUM : ResourceType.MANA);
+    }
+
+    static void runLauncher(RobotController rc) throws GameActionException {
+        attackWeakest(rc);
+        MapLocation me = rc.getLocation();
+        MapLocation intruder = null;
+        for (RobotInfo enemy : rc.senseNearbyRobots(-1, rc.getTeam().opponent())) {
+            if (enemy.location.distanceSquaredTo(home) <= guardRadiusSquared && (intruder == null || me.distanceSquaredTo(enemy.location) < me.distanceSquaredTo(intruder))) {
+                intruder = enemy.location;
+            }
+        }
+        int distance = me.distanceSquaredTo(home);
+        if (intruder != null) {
+            moveToward(rc, intruder);
+        } else if (distance > ringOuterSquared) {
+            moveToward(rc, home);
+        } else if (distance < ringInnerSquared) {
+            moveToward(rc, me.add(home.directionTo(me)).add(home.directionTo(me))); //keep the spawn tiles free
+        }
+        attackWeakest(rc);
+    }
+
+    /** Fills up at the nearest well we have seen (preferred resource first) and unloads at home. */
+    static void mine(RobotController rc, ResourceType preferred) throws GameActionException {
+        int carried = rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ELIXIR);
+        if (carried >= GameConstants.CARRIER_CAPACITY) {
+            for (ResourceType type : new ResourceType[] {ResourceType.ADAMANTIUM, ResourceType.MANA, ResourceType.ELIXIR}) {
+                int amount = rc.getResourceAmount(type);
+                if (amount > 0 && rc.canTransferResource(home, type, amount)) {
+                    rc.transferResource(home, type, amount);
+                }
+            }
+            moveToward(rc, home);
+            return;
+        }
+        if (well == null || wellType != preferred) {
+            for (WellInfo info : rc.senseNearbyWells()) {
+                if (well == null || (info.getResourceType() == preferred && wellType != preferred)) {
+                    well = info.getMapLocation();
+                    wellType = info.getResourceType();
+                }
+            }
+        }
+        if (well != null && rc.canCollectResource(well, -1)) {
+            rc.collectResource(well, -1);
+        } else if (well != null) {
+            moveToward(rc, well);
+        } else {
+            explore(rc);
+        }
+    }
+
+    /** Heads for a random point of the map, and a new one once there. */
+    static void explore(RobotController rc) throws GameActionException {
+        if (exploreTarget == null || rc.getLocation().distanceSquaredTo(exploreTarget) <= 4) {
+            exploreTarget = new MapLocation(rng.nextInt(rc.getMapWidth()), rng.nextInt(rc.getMapHeight()));
+        }
+        moveToward(rc, exploreTarget);
+    }
+
+    static void attackWeakest(RobotController rc) throws GameActionException {
+        if (!rc.isActionReady()) {
+            return;
+        }
+        RobotInfo weakest = null;
+        for (RobotInfo enemy : rc.senseNearbyRobots(rc.getType().actionRadiusSquared, rc.getTeam().opponent())) {
+            if (enemy.type != RobotType.HEADQUARTERS && (weakest == null || enemy.health < weakest.health)) {
+                weakest = enemy;
+            }
+        }
+        if (weakest != null && rc.canAttack(weakest.location)) {
+            rc.attack(weakest.location);
+        }
+    }
+
+    /** Straight at target, or up to 90 degrees off it, or anywhere. */
+    static void moveToward(RobotController rc, MapLocation target) throws GameActionException {
+        Direction direction = rc.getLocation().directionTo(target);
+        if (direction == Direction.CENTER) {
+            return;
+        }
+        Direction[] tries = {direction, direction.rotateLeft(), direction.rotateRight(), direction.rotateLeft().rotateLeft(), direction.rotateRight().rotateRight()};
+        for (Direction tryDirection : tries) {
+            if (rc.canMove(tryDirection)) {
+                rc.move(tryDirection);
+                return;
+            }
+        }
+        Direction random = directions[rng.nextInt(directions.length)];
+        if (rc.canMove(random)) {
+            rc.move(random);
+        }
+    }
+}
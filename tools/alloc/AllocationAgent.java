@@ -0,0 +1,43 @@
+package alloc;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * Java agent that counts the objects our player code creates. It is attached to the JVM of the gradle
+ * run task with -PprofileAllocations=true.
+ *
+ * Agent arguments are ';'-separated key=value pairs:
+ *   packages=gopherbot,gopherbot1   player packages to instrument (default gopherbot)
+ *   report=build/reports/allocations.txt   where the ranked report is written when the match ends
+ *   top=40   number of allocation sites listed in the report
+ */
+public class AllocationAgent {
+    public static void premain(String agentArgs, Instrumentation instrumentation) {
+        String[] packages = {"gopherbot"};
+        String reportPath = "build/reports/allocations.txt";
+        int top = 40;
+        if (agentArgs != null) {
+            for (String arg : agentArgs.split(";")) {
+                int eq = arg.indexOf('=');
+                if (eq == -1) {
+                    continue;
+                }
+                String key = arg.substring(0, eq).trim();
+                String value = arg.substring(eq + 1).trim();
+                if (key.equals("packages")) {
+                    packages = value.split(",");
+                } else if (key.equals("report")) {
+                    reportPath = value;
+                } else if (key.equals("top")) {
+                    top = Integer.parseInt(value);
+                }
+            }
+        }
+        for (int i = 0; i < packages.length; i ++) {
+            packages[i] = packages[i].trim().replace('.', '/') + "/";
+        }
+
+        AllocationRecorder.installReportHook(reportPath, top);
+        instrumentation.addTransformer(new AllocationTransformer(packages));
+    }
+}
@@ -0,0 +1,205 @@
+package alloc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * Runtime side of the allocation profiler. Instrumented player code calls record(site) before every
+ * allocation; counts are kept per site and robot type and per round and robot type, and a ranked report is
+ * written when the JVM shuts down.
+ *
+ * Robot type and round come from the RobotController passed to enterRobot at the top of RobotPlayer.run.
+ * They are read reflectively because player classes and this class live in different class loaders.
+ */
+public class AllocationRecorder {
+    static final String[] typeNames = {"HEADQUARTERS", "CARRIER", "LAUNCHER", "DESTABILIZER", "BOOSTER", "AMPLIFIER", "(static init)"};
+    static final int numTypes = typeNames.length;
+    static final int unknownType = numTypes - 1;
+    static final int maxRounds = 2000;
+
+    static final List<String> siteNames = new ArrayList<String>();
+    static final Map<String, Integer> siteIds = new HashMap<String, Integer>();
+    static long[][] siteCounts = new long[64][numTypes];
+    static final long[][] roundCounts = new long[maxRounds + 1][numTypes];
+    static final long[] turnsByType = new long[numTypes];
+
+    static Method getType;
+    static Method getRoundNum;
+
+    private static class RobotState {
+        Object rc;
+        int type = unknownType;
+        int lastRound = -1;
+    }
+
+    private static final ThreadLocal<RobotState> robotState = new ThreadLocal<RobotState>() {
+        @Override
+        protected RobotState initialValue() {
+            return new RobotState();
+        }
+    };
+
+    /** Called by the transformer; the same site seen through another robot's class loader keeps its id. */
+    static synchronized int registerSite(String className, String methodName, int line, int ordinal, String allocatedType) {
+        String key = className + "." + methodName + "#" + ordinal;
+        Integer id = siteIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        id = siteNames.size();
+        siteIds.put(key, id);
+        siteNames.add(className.replace('/', '.') + "." + methodName + ":" + line + " new " + allocatedType.replace('/', '.'));
+        if (id >= siteCounts.length) {
+            siteCounts = Arrays.copyOf(siteCounts, siteCounts.length * 2);
+            for (int i = id; i < siteCounts.length; i ++) {
+                siteCounts[i] = new long[numTypes];
+            }
+        }
+        return id;
+    }
+
+    public static void enterRobot(Object rc) {
+        RobotState state = robotState.get();
+        state.rc = rc;
+        try {
+            synchronized (AllocationRecorder.class) {
+                if (getType == null) {
+                    Class<?> rcClass = Class.forName("battlecode.common.RobotController", false, rc.getClass().getClassLoader());
+                    getType = rcClass.getMethod("getType");
+                    getRoundNum = rcClass.getMethod("getRoundNum");
+                }
+            }
+            state.type = ((Enum<?>) getType.invoke(rc)).ordinal();
+        } catch (ReflectiveOperationException e) {
+            state.type = unknownType;
+        }
+    }
+
+    public static void record(int site) {
+        RobotState state = robotState.get();
+        int round = 0;
+        if (state.rc != null) {
+            try {
+                round = (Integer) getRoundNum.invoke(state.rc);
+            } catch (ReflectiveOperationException e) {
+                round = 0;
+            }
+        }
+        if (round > maxRounds) {
+            round = maxRounds;
+        }
+        synchronized (AllocationRecorder.class) {
+            siteCounts[site][state.type]++;
+            roundCounts[round][state.type]++;
+            if (round != state.lastRound) {
+                state.lastRound = round;
+                turnsByType[state.type]++;
+            }
+        }
+    }
+
+    static void installReportHook(final String reportPath, final int top) {
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                try {
+                    writeReport(new File(reportPath), top);
+                    System.out.println("[alloc] allocation report written to " + reportPath);
+                } catch (IOException e) {
+                    System.err.println("[alloc] could not write allocation report: " + e);
+                }
+            }
+        });
+    }
+
+    static synchronized void writeReport(File file, int top) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        int numSites = siteNames.size();
+        final long[] siteTotals = new long[numSites];
+        long total = 0;
+        Integer[] order = new Integer[numSites];
+        for (int i = 0; i < numSites; i ++) {
+            for (int t = 0; t < numTypes; t ++) {
+                siteTotals[i] += siteCounts[i][t];
+            }
+            total += siteTotals[i];
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Long.compare(siteTotals[b], siteTotals[a]);
+            }
+        });
+
+        PrintWriter out = new PrintWriter(file, "UTF-8");
+        try {
+            out.println("Allocations recorded: " + total + " across " + numSites + " sites");
+            out.println();
+            out.println("== Per robot type ==");
+            out.printf("%-14s %12s %12s %14s%n", "type", "allocations", "alloc turns", "allocs/turn");
+            for (int t = 0; t < numTypes; t ++) {
+                long typeTotal = 0;
+                for (int i = 0; i < numSites; i ++) {
+                    typeTotal += siteCounts[i][t];
+                }
+                if (typeTotal == 0) {
+                    continue;
+                }
+                double perTurn = turnsByType[t] == 0 ? 0 : (double) typeTotal / turnsByType[t];
+                out.printf("%-14s %12d %12d %14.1f%n", typeNames[t], typeTotal, turnsByType[t], perTurn);
+            }
+
+            out.println();
+            out.println("== Top allocation sites ==");
+            out.printf("%4s %12s %6s  %s%n", "rank", "count", "share", "site [per type]");
+            for (int r = 0; r < Math.min(top, numSites); r ++) {
+                int i = order[r];
+                if (siteTotals[i] == 0) {
+                    break;
+                }
+                StringBuilder byType = new StringBuilder();
+                for (int t = 0; t < numTypes; t ++) {
+                    if (siteCounts[i][t] != 0) {
+                        byType.append(' ').append(typeNames[t]).append('=').append(siteCounts[i][t]);
+                    }
+                }
+                out.printf("%4d %12d %5.1f%%  %s [%s ]%n", r + 1, siteTotals[i], 100.0 * siteTotals[i] / Math.max(total, 1), siteNames.get(i), byType);
+            }
+
+            out.println();
+            out.println("== Heaviest rounds ==");
+            final long[] roundTotals = new long[maxRounds + 1];
+            Integer[] rounds = new Integer[maxRounds + 1];
+            for (int round = 0; round <= maxRounds; round ++) {
+                for (int t = 0; t < numTypes; t ++) {
+                    roundTotals[round] += roundCounts[round][t];
+                }
+                rounds[round] = round;
+            }
+            Arrays.sort(rounds, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Long.compare(roundTotals[b], roundTotals[a]);
+                }
+            });
+            for (int r = 0; r < 10 && roundTotals[rounds[r]] > 0; r ++) {
+                int round = rounds[r];
+                StringBuilder byType = new StringBuilder();
+                for (int t = 0; t < numTypes; t ++) {
+                    if (roundCounts[round][t] != 0) {
+                        byType.append(' ').append(typeNames[t]).append('=').append(roundCounts[round][t]);
+                    }
+                }
+                out.printf("round %4d %12d [%s ]%n", round, roundTotals[round], byType);
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package alloc;
+
+import org.objectweb.asm.*;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+
+/**
+ * Inserts a call to AllocationRecorder.record(site) in front of every NEW, NEWARRAY, ANEWARRAY and
+ * MULTIANEWARRAY in player classes, and a call to AllocationRecorder.enterRobot(rc) at the start of
+ * RobotPlayer.run so allocations can be attributed to a robot type and round.
+ *
+ * The engine instruments player classes for bytecode counting before defining them, so this runs on the
+ * already-instrumented bytes and the inserted calls are never charged to the robot.
+ */
+public class AllocationTransformer implements ClassFileTransformer {
+    static final String recorder = "alloc/AllocationRecorder";
+    static final String runDesc = "(Lbattlecode/common/RobotController;)V";
+
+    final String[] packages;
+
+    AllocationTransformer(String[] packages) {
+        this.packages = packages;
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                            ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (className == null || !isPlayerClass(className)) {
+            return null;
+        }
+        try {
+            ClassReader reader = new ClassReader(classfileBuffer);
+            ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+            reader.accept(new ClassVisitor(Opcodes.ASM7, writer) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+                    boolean isRun = name.equals("run") && descriptor.equals(runDesc) && className.endsWith("/RobotPlayer");
+                    return new AllocationSiteVisitor(mv, className, name, isRun);
+                }
+            }, 0);
+            return writer.toByteArray();
+        } catch (RuntimeException e) {
+            System.err.println("[alloc] could not instrument " + className + ": " + e);
+            return null;
+        }
+    }
+
+    boolean isPlayerClass(String className) {
+        for (String pkg : packages) {
+            if (className.startsWith(pkg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static class AllocationSiteVisitor extends MethodVisitor {
+        final String className;
+        final String methodName;
+        final boolean isRun;
+        int line = -1;
+        int ordinal = 0;
+
+        AllocationSiteVisitor(MethodVisitor mv, String className, String methodName, boolean isRun) {
+            super(Opcodes.ASM7, mv);
+            this.className = className;
+            this.methodName = methodName;
+            this.isRun = isRun;
+        }
+
+        @Override
+        public void visitCode() {
+            super.visitCode();
+            if (isRun) {
+                super.visitVarInsn(Opcodes.ALOAD, 0);
+                super.visitMethodInsn(Opcodes.INVOKESTATIC, recorder, "enterRobot", "(Ljava/lang/Object;)V", false);
+            }
+        }
+
+        @Override
+        public void visitLineNumber(int line, Label start) {
+            this.line = line;
+            super.visitLineNumber(line, start);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            if (opcode == Opcodes.NEW || opcode == Opcodes.ANEWARRAY) {
+                recordSite(opcode == Opcodes.NEW ? type : type + "[]");
+            }
+            super.visitTypeInsn(opcode, type);
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            if (opcode == Opcodes.NEWARRAY) {
+                recordSite(primitiveArrayName(operand));
+            }
+            super.visitIntInsn(opcode, operand);
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            recordSite(descriptor);
+            super.visitMultiANewArrayInsn(descriptor, numDimensions);
+        }
+
+        void recordSite(String allocatedType) {
+            int site = AllocationRecorder.registerSite(className, methodName, line, ordinal++, allocatedType);
+            super.visitLdcInsn(site);
+            super.visitMethodInsn(Opcodes.INVOKESTATIC, recorder, "record", "(I)V", false);
+        }
+
+        static String primitiveArrayName(int operand) {
+            switch (operand) {
+                case Opcodes.T_BOOLEAN: return "boolean[]";
+                case Opcodes.T_CHAR: return "char[]";
+                case Opcodes.T_FLOAT: return "float[]";
+                case Opcodes.T_DOUBLE: return "double[]";
+                case Opcodes.T_BYTE: return "byte[]";
+                case Opcodes.T_SHORT: return "short[]";
+                case Opcodes.T_INT: return "int[]";
+                default: return "long[]";
+            }
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package commsgen;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Generates gopherbot.comms.Channels and gopherbot.comms.Messages from comms.schema. The generated files are
+ * committed, since submissions are compiled from source on the server.
+ *
+ *   java commsgen.CommsGenerator --schema src/gopherbot/comms/comms.schema --out src/gopherbot/comms
+ *
+ * Fails (exit 1, nothing written) if two channels share a slot, a channel runs past the end of the array,
+ * or a message does not fit in 16 bits.
+ */
+public class CommsGenerator {
+    static final int sharedArraySize = 64;
+    static final int wordBits = 16;
+    static final int maxBankSize = 31; //gopherbot.comms.QueueChannel.maxBankSize
+
+    static class Field {
+        String name;
+        int bits;
+        int shift;
+    }
+
+    static class Message {
+        String name;
+        List<Field> fields = new ArrayList<Field>();
+        String comment;
+    }
+
+    static class Channel {
+        String kind;
+        String name;
+        int slot;
+        int count;
+        Message message;
+        String comment;
+        int id;
+
+        int size() {
+            return kind.equals("queue") ? 2 * count + 1 : count;
+        }
+    }
+
+    final Map<String, Message> messages = new LinkedHashMap<String, Message>();
+    final List<Channel> channels = new ArrayList<Channel>();
+    final List<String> errors = new ArrayList<String>();
+
+    public static void main(String[] args) throws IOException {
+        String schema = "src/gopherbot/comms/comms.schema";
+        String out = "src/gopherbot/comms";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--schema")) {
+                schema = args[i + 1];
+            } else if (args[i].equals("--out")) {
+                out = args[i + 1];
+            } else {
+                System.err.println("Unknown argument " + args[i]);
+                System.exit(1);
+            }
+        }
+
+        CommsGenerator generator = new CommsGenerator();
+        generator.parse(new File(schema));
+        generator.check();
+        if (!generator.errors.isEmpty()) {
+            for (String error : generator.errors) {
+                System.err.println(schema + ": " + error);
+            }
+            System.exit(1);
+        }
+        write(new File(out, "Channels.java"), generator.channelsSource());
+        write(new File(out, "Messages.java"), generator.messagesSource());
+        System.out.println(generator.slotMap());
+    }
+
+    static void write(File file, String source) throws IOException {
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void parse(File schema) throws IOException {
+        List<String> lines = Files.readAllLines(schema.toPath(), StandardCharsets.UTF_8);
+        //messages first, so channels can name a message declared below them
+        for (int pass = 0; pass < 2; pass ++) {
+            for (int lineNum = 1; lineNum <= lines.size(); lineNum ++) {
+                String line = lines.get(lineNum - 1);
+                String comment = null;
+                int hash = line.indexOf('#');
+                if (hash >= 0) {
+                    comment = line.substring(hash + 1).trim();
+                    line = line.substring(0, hash);
+                }
+                String[] parts = line.trim().split("\\s+");
+                if (parts[0].isEmpty()) {
+                    continue;
+                }
+                try {
+                    if (parts[0].equals("message")) {
+                        if (pass == 0) {
+                            parseMessage(parts, comment);
+                        }
+                    } else if (pass == 1) {
+                        parseChannel(parts, comment);
+                    }
+                } catch (RuntimeException e) {
+                    errors.add("line " + lineNum + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    void parseMessage(String[] parts, String comment) {
+        Message message = new Message();
+        message.name = parts[1];
+        message.comment = comment;
+        int bits = 0;
+        for (int i = 2; i < parts.length; i ++) {
+            String[] nameBits = parts[i].split(":");
+            if (nameBits.length != 2) {
+                throw new IllegalArgumentException("expected <field>:<bits>, got " + parts[i]);
+            }
+            Field field = new Field();
+            field.name = nameBits[0];
+            field.bits = Integer.parseInt(nameBits[1]);
+            bits += field.bits;
+            message.fields.add(field);
+        }
+        if (bits > wordBits) {
+            throw new IllegalArgumentException("message " + message.name + " needs " + bits + " bits, a word has " + wordBits);
+        }
+        int shift = bits;
+        for (Field field : message.fields) {
+            shift -= field.bits;
+            field.shift = shift;
+        }
+        if (messages.put(message.name, message) != null) {
+            throw new IllegalArgumentException("message " + message.name + " declared twice");
+        }
+    }
+
+    void parseChannel(String[] parts, String comment) {
+        Channel channel = new Channel();
+        channel.kind = parts[0];
+        channel.name = parts[1];
+        channel.slot = Integer.parseInt(parts[2]);
+        channel.comment = comment;
+        channel.count = 1;
+        int next = 3;
+        if (channel.kind.equals("queue") || channel.kind.equals("bitfield")) {
+            channel.count = Integer.parseInt(parts[next++]);
+        } else if (!channel.kind.equals("register")) {
+            throw new IllegalArgumentException("unknown kind " + channel.kind);
+        } else if (parts.length > next && Character.isDigit(parts[next].charAt(0))) {
+            channel.count = Integer.parseInt(parts[next++]);
+        }
+        if (parts.length > next) {
+            channel.message = messages.get(parts[next]);
+            if (channel.message == null || channel.kind.equals("bitfield")) {
+                throw new IllegalArgumentException("channel " + channel.name + " cannot carry " + parts[next]);
+            }
+        }
+        channel.id = channels.size();
+        channels.add(channel);
+    }
+
+    void check() {
+        Channel[] owners = new Channel[sharedArraySize];
+        Set<String> names = new HashSet<String>();
+        for (Channel channel : channels) {
+            if (!names.add(channel.name)) {
+                errors.add("channel " + channel.name + " declared twice");
+            }
+            if (channel.kind.equals("queue") && channel.count > maxBankSize) {
+                errors.add("queue " + channel.name + " banks of " + channel.count + " words, at most " + maxBankSize);
+            }
+            if (channel.count < 1 || channel.slot < 0 || channel.slot + channel.size() > sharedArraySize) {
+                errors.add(channel.name + " needs slots " + channel.slot + "-" + (channel.slot + channel.size() - 1) + ", the array has 0-" + (sharedArraySize - 1));
+                continue;
+            }
+            for (int slot = channel.slot; slot < channel.slot + channel.size(); slot ++) {
+                if (owners[slot] != null) {
+                    errors.add(channel.name + " and " + owners[slot].name + " both use slot " + slot);
+                    break;
+                }
+                owners[slot] = channel;
+            }
+        }
+    }
+
+    String slotMap() {
+        Channel[] owners = new Channel[sharedArraySize];
+        for (Channel channel : channels) {
+            for (int slot = channel.slot; slot < channel.slot + channel.size(); slot ++) {
+                owners[slot] = channel;
+            }
+        }
+        StringBuilder map = new StringBuilder();
+        map.append(String.format("%7s  %s%n", "slot", "channel"));
+        int used = 0;
+        for (int slot = 0; slot < sharedArraySize; ) {
+            int end = slot;
+            while (end + 1 < sharedArraySize && owners[end + 1] == owners[slot]) {
+                end++;
+            }
+            String range = slot == end ? "" + slot : slot + "-" + end;
+            Channel owner = owners[slot];
+            if (owner == null) {
+                map.append(String.format("%7s  free%n", range));
+            } else {
+                used += end - slot + 1;
+                String detail = "";
+                if (owner.kind.equals("queue")) {
+                    detail = " (header " + owner.slot + ", banks " + (owner.slot + 1) + "-" + (owner.slot + owner.count)
+                        + " and " + (owner.slot + owner.count + 1) + "-" + (owner.slot + 2 * owner.count) + ")";
+                }
+                map.append(String.format("%7s  %s %s%s%n", range, owner.kind, owner.name, detail));
+            }
+            slot = end + 1;
+        }
+        map.append(String.format("%d of %d slots used%n", used, sharedArraySize));
+        return map.toString();
+    }
+
+    static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    static String lowerFirst(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    static String mask(int bits) {
+        StringBuilder mask = new StringBuilder("0b");
+        for (int i = 0; i < bits; i ++) {
+            mask.append('1');
+        }
+        return mask.toString();
+    }
+
+    String channelsSource() {
+        StringBuilder out = new StringBuilder();
+        out.append("package gopherbot.comms;\n\n");
+        out.append("import battlecode.common.*;\n");
+        out.append("import gopherbot.Debug;\n\n");
+        out.append("/**\n");
+        out.append(" * Generated from comms.schema by tools/commsgen; do not edit. Shared array slots:\n");
+        out.append(" *\n");
+        for (String line : slotMap().split("\n")) {
+            out.append(" * ").append(line).append('\n');
+        }
+        out.append(" */\n");
+        out.append("public strictfp class Channels {\n");
+        out.append("    public static final int numChannels = ").append(channels.size()).append(";\n");
+        out.append("    public static final String[] channelNames = {");
+        for (Channel channel : channels) {
+            out.append(channel.id > 0 ? ", " : "").append('"').append(channel.name).append('"');
+        }
+        out.append("};\n");
+
+        List<String> queueNames = new ArrayList<String>();
+        for (Channel channel : channels) {
+            String name = channel.name;
+            String upper = capitalize(name);
+            String id = name + "Channel";
+            out.append('\n');
+            out.append("    //").append(channel.kind).append(' ').append(name);
+            if (channel.comment != null) {
+                out.append(": ").append(channel.comment);
+            }
+            out.append('\n');
+            out.append("    public static final int ").append(id).append(" = ").append(channel.id).append(";\n");
+            if (channel.kind.equals("queue")) {
+                queueNames.add(name + "Queue");
+                out.append("    public static final QueueChannel ").append(name).append("Queue = new QueueChannel(").append(id).append(", ")
+                    .append(channel.slot).append(", ").append(channel.count).append(");\n");
+                if (channel.message != null) {
+                    out.append('\n');
+                    out.append("    public static boolean append").append(upper).append("(RobotController rc");
+                    appendFieldParams(out, channel.message);
+                    out.append(") throws GameActionException {\n");
+                    out.append("        return ").append(name).append("Queue.append(rc, Messages.pack").append(channel.message.name).append('(');
+                    appendFieldArgs(out, channel.message);
+                    out.append("));\n");
+                    out.append("    }\n");
+                }
+                continue;
+            }
+
+            out.append("    public static final int ").append(name).append("Slot = ").append(channel.slot).append(";\n");
+            boolean indexed = channel.count > 1 || channel.kind.equals("bitfield");
+            if (indexed) {
+                out.append("    public static final int ").append(name).append("Size = ").append(channel.count).append(";\n");
+            }
+            String indexParam = indexed ? ", int i" : "";
+            String slot = indexed ? name + "Slot + i" : name + "Slot";
+            if (channel.kind.equals("bitfield")) {
+                out.append('\n');
+                out.append("    /** Flag i of ").append(16 * channel.count).append(". */\n");
+                out.append("    public static boolean get").append(upper).append("(RobotController rc, int i) throws GameActionException {\n");
+                out.append("        if (Debug.enabled) Bus.reads[").append(id).append("]++;\n");
+                out.append("        return (rc.readSharedArray(").append(name).append("Slot + (i >> 4)) & (1 << (i & 15))) != 0;\n");
+                out.append("    }\n\n");
+                out.append("    public static void set").append(upper).append("(RobotController rc, int i, boolean value) throws GameActionException {\n");
+                out.append("        int slot = ").append(name).append("Slot + (i >> 4);\n");
+                out.append("        int word = rc.readSharedArray(slot);\n");
+                out.append("        int newWord = value ? word | (1 << (i & 15)) : word & ~(1 << (i & 15));\n");
+                out.append("        if (Debug.enabled) Bus.reads[").append(id).append("]++;\n");
+                out.append("        if (newWord != word) {\n");
+                out.append("            rc.writeSharedArray(slot, newWord);\n");
+                out.append("            if (Debug.enabled) Bus.writes[").append(id).append("]++;\n");
+                out.append("        }\n");
+                out.append("    }\n");
+                continue;
+            }
+            out.append('\n');
+            out.append("    public static int read").append(upper).append("(RobotController rc").append(indexParam).append(") throws GameActionException {\n");
+            out.append("        if (Debug.enabled) Bus.reads[").append(id).append("]++;\n");
+            out.append("        return rc.readSharedArray(").append(slot).append(");\n");
+            out.append("    }\n\n");
+            out.append("    public static void write").append(upper).append("(RobotController rc").append(indexParam).append(", int value) throws GameActionException {\n");
+            out.append("        if (Debug.enabled) Bus.writes[").append(id).append("]++;\n");
+            out.append("        rc.writeSharedArray(").append(slot).append(", value);\n");
+            out.append("    }\n");
+            if (channel.message != null) {
+                out.append('\n');
+                out.append("    public static void write").append(upper).append("(RobotController rc").append(indexParam);
+                appendFieldParams(out, channel.message);
+                out.append(") throws GameActionException {\n");
+                out.append("        write").append(upper).append("(rc").append(indexed ? ", i" : "").append(", Messages.pack").append(channel.message.name).append('(');
+                appendFieldArgs(out, channel.message);
+                out.append("));\n");
+                out.append("    }\n");
+            }
+        }
+
+        out.append('\n');
+        out.append("    public static final QueueChannel[] queues = {");
+        for (int i = 0; i < queueNames.size(); i ++) {
+            out.append(i > 0 ? ", " : "").append(queueNames.get(i));
+        }
+        out.append("};\n");
+        out.append("}\n");
+        return out.toString();
+    }
+
+    static void appendFieldParams(StringBuilder out, Message message) {
+        for (Field field : message.fields) {
+            out.append(", int ").append(field.name);
+        }
+    }
+
+    static void appendFieldArgs(StringBuilder out, Message message) {
+        for (int i = 0; i < message.fields.size(); i ++) {
+            out.append(i > 0 ? ", " : "").append(message.fields.get(i).name);
+        }
+    }
+
+    String messagesSource() {
+        StringBuilder out = new StringBuilder();
+        out.append("package gopherbot.comms;\n\n");
+        out.append("/**\n");
+        out.append(" * Generated from comms.schema by tools/commsgen; do not edit. Packs and unpacks message words, first\n");
+        out.append(" * field in the most significant bits. pack does not mask its arguments; keep them in range.\n");
+        out.append(" */\n");
+        out.append("public strictfp class Messages {\n");
+        boolean first = true;
+        for (Message message : messages.values()) {
+            if (!first) {
+                out.append('\n');
+            }
+            first = false;
+            out.append("    //").append(message.name);
+            for (Field field : message.fields) {
+                out.append(' ').append(field.name).append(':').append(field.bits);
+            }
+            if (message.comment != null) {
+                out.append("; ").append(message.comment);
+            }
+            out.append('\n');
+            out.append("    public static int pack").append(message.name).append('(');
+            for (int i = 0; i < message.fields.size(); i ++) {
+                out.append(i > 0 ? ", " : "").append("int ").append(message.fields.get(i).name);
+            }
+            out.append(") {\n");
+            out.append("        return ");
+            for (int i = 0; i < message.fields.size(); i ++) {
+                Field field = message.fields.get(i);
+                out.append(i > 0 ? " | " : "").append(field.name);
+                if (field.shift > 0) {
+                    out.append(" << ").append(field.shift);
+                }
+            }
+            out.append(";\n");
+            out.append("    }\n");
+            String prefix = lowerFirst(message.name);
+            for (Field field : message.fields) {
+                out.append('\n');
+                out.append("    public static int ").append(prefix).append(capitalize(field.name)).append("(int word) {\n");
+                if (field.shift > 0) {
+                    out.append("        return (word >> ").append(field.shift).append(") & ").append(mask(field.bits)).append(";\n");
+                } else {
+                    out.append("        return word & ").append(mask(field.bits)).append(";\n");
+                }
+                out.append("    }\n");
+            }
+        }
+        out.append("}\n");
+        return out.toString();
+    }
+}
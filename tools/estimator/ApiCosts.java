@@ -0,0 +1,99 @@
+package estimator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bytecode charged for calls out of player code. The engine ships its own table
+ * (battlecode/instrumenter/bytecode/resources/MethodCosts.txt); when it is on the classpath it overrides the
+ * built-in numbers below, which are only a fallback for running the estimator without the engine jar.
+ */
+class ApiCosts {
+    static final String engineCostTable = "battlecode/instrumenter/bytecode/resources/MethodCosts.txt";
+    static final int defaultEngineCost = 1;
+    static final int defaultLibraryCost = 20;
+
+    final Map<String, Integer> costs = new HashMap<String, Integer>();
+    boolean fromEngine = false;
+
+    ApiCosts() {
+        String rc = "battlecode/common/RobotController/";
+        costs.put(rc + "senseNearbyRobots", 100);
+        costs.put(rc + "senseNearbyMapInfos", 100);
+        costs.put(rc + "senseNearbyWells", 100);
+        costs.put(rc + "senseNearbyIslands", 200);
+        costs.put(rc + "senseNearbyIslandLocations", 100);
+        costs.put(rc + "senseNearbyCloudLocations", 100);
+        costs.put(rc + "getAllLocationsWithinRadiusSquared", 100);
+        costs.put(rc + "senseRobotAtLocation", 25);
+        costs.put(rc + "senseRobot", 25);
+        costs.put(rc + "senseMapInfo", 5);
+        costs.put(rc + "senseWell", 5);
+        costs.put(rc + "senseIsland", 5);
+        costs.put(rc + "senseTeamOccupyingIsland", 5);
+        costs.put(rc + "canBuildRobot", 10);
+        costs.put(rc + "buildRobot", 10);
+        costs.put("java/util/TreeMap/get", 60);
+        costs.put("java/util/TreeMap/put", 80);
+        costs.put("java/util/TreeMap/containsKey", 60);
+        costs.put("java/util/TreeSet/contains", 60);
+        costs.put("java/util/TreeSet/add", 80);
+        costs.put("java/util/HashMap/get", 25);
+        costs.put("java/util/HashMap/put", 40);
+        costs.put("java/util/HashSet/add", 40);
+        costs.put("java/util/HashSet/contains", 25);
+        costs.put("java/util/ArrayDeque/add", 10);
+        costs.put("java/util/ArrayDeque/pop", 10);
+        costs.put("java/util/ArrayDeque/getFirst", 5);
+        costs.put("java/util/ArrayDeque/isEmpty", 3);
+        costs.put("java/util/Random/nextInt", 15);
+        costs.put("java/lang/Math/sqrt", 1);
+        costs.put("java/lang/Math/atan2", 1);
+        costs.put("java/lang/Math/round", 1);
+        costs.put("java/lang/Enum/ordinal", 1);
+        loadEngineTable();
+    }
+
+    /** Lines look like `battlecode/common/RobotController/senseNearbyRobots  100  true`. */
+    void loadEngineTable() {
+        InputStream in = ApiCosts.class.getClassLoader().getResourceAsStream(engineCostTable);
+        if (in == null) {
+            return;
+        }
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length < 2 || parts[0].startsWith("#")) {
+                    continue;
+                }
+                try {
+                    costs.put(parts[0], Integer.parseInt(parts[1]));
+                    fromEngine = true;
+                } catch (NumberFormatException e) {
+                    //not a cost line
+                }
+            }
+            reader.close();
+        } catch (IOException e) {
+            System.err.println("Bytecode estimator: could not read " + engineCostTable + ", using built-in costs");
+        }
+    }
+
+    /** Cost of calling owner.name from player code, on top of the invoke instruction itself. */
+    int cost(String owner, String name) {
+        Integer cost = costs.get(owner + "/" + name);
+        if (cost != null) {
+            return cost;
+        }
+        if (owner.startsWith("battlecode/")) {
+            return defaultEngineCost;
+        }
+        return defaultLibraryCost;
+    }
+}
@@ -0,0 +1,757 @@
+package estimator;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Static worst-case bytecode estimate for every method of the player packages, reported per entry point
+ * (runXxx methods and Strategy.takeTurn implementations) against that robot type's bytecode limit.
+ *
+ * Each method is split into basic blocks. Loops are found from back edges; each loop is collapsed into one
+ * node costing (iterations x worst single iteration), and the worst case of a method or loop body is the
+ * most expensive forward path through its blocks. Every instruction costs 1, calls into player code cost
+ * the callee's worst case (for virtual and interface calls, the worst implementation among player classes),
+ * and calls into the engine or the JDK are charged from ApiCosts.
+ *
+ * Iteration counts come from, in order: a @Bound on the loop variable, a constant `for (i = A; i < B; i++)`,
+ * the length of enum values() or a static final array, and finally a default. Loops bounded by sensed robots,
+ * the map dimensions or collection sizes get the default and flag their method (and its callers) as scaling.
+ *
+ * Usage: BytecodeEstimator --classes build/classes --packages gopherbot [--report build/reports/bytecode-estimate.txt]
+ */
+public class BytecodeEstimator {
+    static final int visionTiles = 109; //tiles within the largest vision radius (34)
+    static final int mapSizeBound = 60;
+    static final int unknownBound = 64;
+
+    static final String scalesWithRobots = "robot count";
+    static final String scalesWithMap = "map size";
+    static final String scalesWithCollection = "collection size";
+    static final String unboundedLoop = "unbounded loop";
+    static final String recursion = "recursion";
+
+    final List<String> packages = new ArrayList<String>();
+    final Map<String, ClassNode> classes = new TreeMap<String, ClassNode>();
+    final Map<String, MethodCost> methodCosts = new HashMap<String, MethodCost>();
+    final Set<String> inProgress = new HashSet<String>();
+    final ApiCosts apiCosts = new ApiCosts();
+    final List<String> defaultBoundLoops = new ArrayList<String>();
+
+    static class MethodCost {
+        long worstCase;
+        final Set<String> scaling = new TreeSet<String>();
+    }
+
+    static class Loop {
+        int startBlock;
+        int endBlock;
+        int bound = -1;
+        String scaling;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path classesDir = null;
+        Path report = Paths.get("build/reports/bytecode-estimate.txt");
+        BytecodeEstimator estimator = new BytecodeEstimator();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--classes")) {
+                classesDir = Paths.get(args[i + 1]);
+            } else if (args[i].equals("--packages")) {
+                for (String pkg : args[i + 1].split(",")) {
+                    estimator.packages.add(pkg.trim().replace('.', '/') + "/");
+                }
+            } else if (args[i].equals("--report")) {
+                report = Paths.get(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (classesDir == null || estimator.packages.isEmpty()) {
+            throw new IllegalArgumentException("Usage: BytecodeEstimator --classes <dir> --packages <pkg,...> [--report <file>]");
+        }
+        estimator.load(classesDir);
+        estimator.writeReport(report);
+    }
+
+    void load(Path classesDir) throws IOException {
+        Files.walkFileTree(classesDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (file.toString().endsWith(".class")) {
+                    ClassNode cn = new ClassNode();
+                    new ClassReader(Files.readAllBytes(file)).accept(cn, ClassReader.SKIP_FRAMES);
+                    for (String pkg : packages) {
+                        if (cn.name.startsWith(pkg)) {
+                            classes.put(cn.name, cn);
+                        }
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    MethodNode findMethod(String owner, String name, String desc) {
+        ClassNode cn = classes.get(owner);
+        while (cn != null) {
+            for (MethodNode mn : cn.methods) {
+                if (mn.name.equals(name) && mn.desc.equals(desc)) {
+                    return mn;
+                }
+            }
+            cn = classes.get(cn.superName);
+        }
+        return null;
+    }
+
+    /** The player class whose code runs for name+desc called on owner, or null if it is abstract or not ours. */
+    ClassNode declaringClass(String owner, String name, String desc) {
+        ClassNode cn = classes.get(owner);
+        while (cn != null) {
+            for (MethodNode mn : cn.methods) {
+                if (mn.name.equals(name) && mn.desc.equals(desc)) {
+                    return (mn.access & Opcodes.ACC_ABSTRACT) != 0 ? null : cn;
+                }
+            }
+            cn = classes.get(cn.superName);
+        }
+        return null;
+    }
+
+    /** Whether type is supertype, or extends or implements it, as far as the player classes show. */
+    boolean isSubtype(String type, String supertype) {
+        if (type == null) {
+            return false;
+        }
+        if (type.equals(supertype)) {
+            return true;
+        }
+        ClassNode cn = classes.get(type);
+        if (cn == null) {
+            return false;
+        }
+        for (String implemented : cn.interfaces) {
+            if (isSubtype(implemented, supertype)) {
+                return true;
+            }
+        }
+        return isSubtype(cn.superName, supertype);
+    }
+
+    MethodCost cost(ClassNode cn, MethodNode mn) {
+        String key = cn.name + "." + mn.name + mn.desc;
+        MethodCost cached = methodCosts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (!inProgress.add(key)) {
+            MethodCost recursive = new MethodCost();
+            recursive.scaling.add(recursion);
+            return recursive;
+        }
+        MethodCost result = new MethodAnalysis(cn, mn).analyze();
+        inProgress.remove(key);
+        methodCosts.put(key, result);
+        return result;
+    }
+
+    /** Block structure, loops and worst-case paths of one method. */
+    class MethodAnalysis {
+        final ClassNode cn;
+        final MethodNode mn;
+        final AbstractInsnNode[] insns;
+        final MethodCost result = new MethodCost();
+        final List<Integer> blockStarts = new ArrayList<Integer>();
+        int[] blockOf;
+        long[] blockCosts;
+        List<List<Integer>> successors = new ArrayList<List<Integer>>();
+        final List<Loop> loops = new ArrayList<Loop>();
+        final Map<Integer, Loop> loopByHeader = new HashMap<Integer, Loop>();
+        final Map<Loop, Long> iterationCosts = new HashMap<Loop, Long>();
+
+        MethodAnalysis(ClassNode cn, MethodNode mn) {
+            this.cn = cn;
+            this.mn = mn;
+            this.insns = mn.instructions.toArray();
+        }
+
+        MethodCost analyze() {
+            if (insns.length == 0) {
+                return result;
+            }
+            buildBlocks();
+            findLoops();
+            assignBounds();
+            result.worstCase = longest(0, blockStarts.size() - 1, null);
+            return result;
+        }
+
+        int index(LabelNode label) {
+            return mn.instructions.indexOf(label);
+        }
+
+        void buildBlocks() {
+            TreeSet<Integer> leaders = new TreeSet<Integer>();
+            leaders.add(0);
+            for (int i = 0; i < insns.length; i ++) {
+                AbstractInsnNode insn = insns[i];
+                for (LabelNode target : targets(insn)) {
+                    leaders.add(index(target));
+                }
+                if (endsBlock(insn) && i + 1 < insns.length) {
+                    leaders.add(i + 1);
+                }
+            }
+            blockStarts.addAll(leaders);
+            blockOf = new int[insns.length];
+            blockCosts = new long[blockStarts.size()];
+            for (int b = 0; b < blockStarts.size(); b ++) {
+                int end = b + 1 < blockStarts.size() ? blockStarts.get(b + 1) : insns.length;
+                for (int i = blockStarts.get(b); i < end; i ++) {
+                    blockOf[i] = b;
+                    blockCosts[b] += insnCost(insns[i]);
+                }
+            }
+            for (int b = 0; b < blockStarts.size(); b ++) {
+                int end = b + 1 < blockStarts.size() ? blockStarts.get(b + 1) : insns.length;
+                AbstractInsnNode last = insns[end - 1];
+                List<Integer> succ = new ArrayList<Integer>();
+                for (LabelNode target : targets(last)) {
+                    succ.add(blockOf[index(target)]);
+                }
+                int op = last.getOpcode();
+                boolean fallsThrough = !(op == Opcodes.GOTO || op == Opcodes.ATHROW || (op >= Opcodes.IRETURN && op <= Opcodes.RETURN)
+                    || last instanceof TableSwitchInsnNode || last instanceof LookupSwitchInsnNode);
+                if (fallsThrough && b + 1 < blockStarts.size()) {
+                    succ.add(b + 1);
+                }
+                successors.add(succ);
+            }
+        }
+
+        List<LabelNode> targets(AbstractInsnNode insn) {
+            if (insn instanceof JumpInsnNode) {
+                return Collections.singletonList(((JumpInsnNode) insn).label);
+            }
+            if (insn instanceof TableSwitchInsnNode) {
+                List<LabelNode> targets = new ArrayList<LabelNode>(((TableSwitchInsnNode) insn).labels);
+                targets.add(((TableSwitchInsnNode) insn).dflt);
+                return targets;
+            }
+            if (insn instanceof LookupSwitchInsnNode) {
+                List<LabelNode> targets = new ArrayList<LabelNode>(((LookupSwitchInsnNode) insn).labels);
+                targets.add(((LookupSwitchInsnNode) insn).dflt);
+                return targets;
+            }
+            return Collections.emptyList();
+        }
+
+        boolean endsBlock(AbstractInsnNode insn) {
+            int op = insn.getOpcode();
+            return insn instanceof JumpInsnNode || insn instanceof TableSwitchInsnNode || insn instanceof LookupSwitchInsnNode
+                || op == Opcodes.ATHROW || (op >= Opcodes.IRETURN && op <= Opcodes.RETURN);
+        }
+
+        long insnCost(AbstractInsnNode insn) {
+            if (insn.getOpcode() < 0) {
+                return 0;
+            }
+            if (!(insn instanceof MethodInsnNode)) {
+                return 1;
+            }
+            MethodInsnNode call = (MethodInsnNode) insn;
+            if (call.getOpcode() == Opcodes.INVOKEVIRTUAL || call.getOpcode() == Opcodes.INVOKEINTERFACE) {
+                //any player class that could receive the call: charge the most expensive implementation
+                long worst = -1;
+                for (ClassNode receiver : classes.values()) {
+                    if ((receiver.access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_INTERFACE)) != 0 || !isSubtype(receiver.name, call.owner)) {
+                        continue;
+                    }
+                    ClassNode declaring = declaringClass(receiver.name, call.name, call.desc);
+                    if (declaring == null) {
+                        continue;
+                    }
+                    MethodCost calleeCost = cost(declaring, findMethod(declaring.name, call.name, call.desc));
+                    result.scaling.addAll(calleeCost.scaling);
+                    worst = Math.max(worst, calleeCost.worstCase);
+                }
+                if (worst >= 0) {
+                    return 1 + worst;
+                }
+            }
+            ClassNode declaring = declaringClass(call.owner, call.name, call.desc);
+            if (declaring != null) {
+                MethodCost calleeCost = cost(declaring, findMethod(declaring.name, call.name, call.desc));
+                result.scaling.addAll(calleeCost.scaling);
+                return 1 + calleeCost.worstCase;
+            }
+            return 1 + apiCosts.cost(call.owner, call.name);
+        }
+
+        void findLoops() {
+            for (int b = 0; b < successors.size(); b ++) {
+                for (int s : successors.get(b)) {
+                    if (s > b) {
+                        continue;
+                    }
+                    Loop loop = loopByHeader.get(s);
+                    if (loop == null) {
+                        loop = new Loop();
+                        loop.startBlock = s;
+                        loop.endBlock = b;
+                        loopByHeader.put(s, loop);
+                        loops.add(loop);
+                    } else if (b > loop.endBlock) {
+                        loop.endBlock = b;
+                    }
+                }
+            }
+        }
+
+        /** The innermost loop containing instruction i (allowing for a loop variable declared just before the header). */
+        Loop innermostLoop(int i, int slack) {
+            Loop best = null;
+            for (Loop loop : loops) {
+                int start = blockStarts.get(loop.startBlock) - slack;
+                int end = loop.endBlock + 1 < blockStarts.size() ? blockStarts.get(loop.endBlock + 1) : insns.length;
+                if (i >= start && i < end && (best == null || loop.startBlock > best.startBlock)) {
+                    best = loop;
+                }
+            }
+            return best;
+        }
+
+        void assignBounds() {
+            List<LocalVariableAnnotationNode> annotations = new ArrayList<LocalVariableAnnotationNode>();
+            if (mn.invisibleLocalVariableAnnotations != null) {
+                annotations.addAll(mn.invisibleLocalVariableAnnotations);
+            }
+            if (mn.visibleLocalVariableAnnotations != null) {
+                annotations.addAll(mn.visibleLocalVariableAnnotations);
+            }
+            for (LocalVariableAnnotationNode annotation : annotations) {
+                if (!annotation.desc.endsWith("/Bound;") || annotation.values == null) {
+                    continue;
+                }
+                int value = -1;
+                String scalesWith = null;
+                for (int i = 0; i + 1 < annotation.values.size(); i += 2) {
+                    if (annotation.values.get(i).equals("value")) {
+                        value = (Integer) annotation.values.get(i + 1);
+                    } else if (annotation.values.get(i).equals("scalesWith") && !annotation.values.get(i + 1).equals("")) {
+                        scalesWith = (String) annotation.values.get(i + 1);
+                    }
+                }
+                for (LabelNode start : annotation.start) {
+                    Loop loop = innermostLoop(index(start), 3);
+                    if (loop != null) {
+                        loop.bound = Math.max(loop.bound, value);
+                        if (scalesWith != null) {
+                            loop.scaling = scalesWith;
+                        }
+                    }
+                }
+            }
+            for (Loop loop : loops) {
+                if (loop.bound < 0 && !hasExit(loop)) {
+                    loop.bound = 1; //the robot's main loop: one iteration is one turn
+                }
+                if (loop.bound < 0) {
+                    inferBound(loop);
+                    if (loop.scaling == unboundedLoop || loop.scaling == scalesWithCollection) { //both charged unknownBound
+                        defaultBoundLoops.add(cn.name.replace('/', '.') + "." + mn.name + ":" + line(loop));
+                    }
+                }
+                if (loop.scaling != null) {
+                    result.scaling.add(loop.scaling);
+                }
+            }
+        }
+
+        /** Source line of the loop header, for pointing at loops that need a @Bound. */
+        int line(Loop loop) {
+            int line = -1;
+            int header = blockStarts.get(loop.startBlock);
+            int end = loop.endBlock + 1 < blockStarts.size() ? blockStarts.get(loop.endBlock + 1) : insns.length;
+            for (int i = 0; i < end; i ++) {
+                if (insns[i] instanceof LineNumberNode) {
+                    line = ((LineNumberNode) insns[i]).line;
+                    if (i >= header) {
+                        break;
+                    }
+                }
+            }
+            return line;
+        }
+
+        boolean hasExit(Loop loop) {
+            for (int b = loop.startBlock; b <= loop.endBlock; b ++) {
+                int end = b + 1 < blockStarts.size() ? blockStarts.get(b + 1) : insns.length;
+                int op = insns[end - 1].getOpcode();
+                if (op >= Opcodes.IRETURN && op <= Opcodes.RETURN) {
+                    return true;
+                }
+                for (int s : successors.get(b)) {
+                    if (s > loop.endBlock) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /** Looks at the loop header's test to bound it, or classify why it cannot be bounded. */
+        void inferBound(Loop loop) {
+            int headerStart = blockStarts.get(loop.startBlock);
+            int headerEnd = loop.startBlock + 1 < blockStarts.size() ? blockStarts.get(loop.startBlock + 1) : insns.length;
+            loop.bound = unknownBound;
+            loop.scaling = unboundedLoop;
+            for (int i = headerStart; i < headerEnd; i ++) {
+                AbstractInsnNode insn = insns[i];
+                if (insn instanceof MethodInsnNode) {
+                    String name = ((MethodInsnNode) insn).name;
+                    if (name.equals("getMapWidth") || name.equals("getMapHeight")) {
+                        loop.bound = mapSizeBound;
+                        loop.scaling = scalesWithMap;
+                        return;
+                    }
+                    if (name.equals("hasNext") || name.equals("isEmpty") || name.equals("size")) {
+                        loop.bound = unknownBound;
+                        loop.scaling = scalesWithCollection;
+                        return;
+                    }
+                }
+                if (insn.getOpcode() == Opcodes.IF_ICMPGE || insn.getOpcode() == Opcodes.IF_ICMPGT) {
+                    inferCountedBound(loop, insn);
+                    return;
+                }
+            }
+        }
+
+        /** `iload i; <limit>; if_icmpge` where i starts at a constant and limit is a constant or an array length. */
+        void inferCountedBound(Loop loop, AbstractInsnNode test) {
+            AbstractInsnNode limit = previousReal(test);
+            AbstractInsnNode counter = previousReal(limit);
+            if (!(counter instanceof VarInsnNode)) {
+                return;
+            }
+            int inclusive = test.getOpcode() == Opcodes.IF_ICMPGT ? 1 : 0;
+            Integer start = storedConstant(((VarInsnNode) counter).var, blockStarts.get(loop.startBlock));
+            Integer constantLimit = intValue(limit);
+            if (constantLimit != null && start != null) {
+                loop.bound = Math.max(0, constantLimit - start + inclusive);
+                loop.scaling = null;
+                return;
+            }
+            if (limit instanceof MethodInsnNode) {
+                String name = ((MethodInsnNode) limit).name;
+                if (name.equals("getMapWidth") || name.equals("getMapHeight")) {
+                    loop.bound = mapSizeBound;
+                    loop.scaling = scalesWithMap;
+                }
+                return;
+            }
+            if (limit instanceof VarInsnNode) {
+                //for-each over an array: the length was stored right before the loop
+                AbstractInsnNode source = arraySource(((VarInsnNode) limit).var, blockStarts.get(loop.startBlock));
+                classifyArray(loop, source);
+            }
+        }
+
+        /** The instruction that produced the array whose length was stored into lengthVar before `before`. */
+        AbstractInsnNode arraySource(int lengthVar, int before) {
+            for (int i = before - 1; i >= 0; i --) {
+                AbstractInsnNode insn = insns[i];
+                if (insn.getOpcode() == Opcodes.ISTORE && ((VarInsnNode) insn).var == lengthVar) {
+                    AbstractInsnNode length = previousReal(insn);
+                    if (length == null || length.getOpcode() != Opcodes.ARRAYLENGTH) {
+                        return null;
+                    }
+                    AbstractInsnNode array = previousReal(length);
+                    if (array instanceof VarInsnNode && array.getOpcode() == Opcodes.ALOAD) {
+                        return storedValue(((VarInsnNode) array).var, array);
+                    }
+                    return array;
+                }
+            }
+            return null;
+        }
+
+        AbstractInsnNode storedValue(int var, AbstractInsnNode before) {
+            for (AbstractInsnNode insn = before.getPrevious(); insn != null; insn = insn.getPrevious()) {
+                if (insn.getOpcode() == Opcodes.ASTORE && ((VarInsnNode) insn).var == var) {
+                    AbstractInsnNode value = previousReal(insn);
+                    if (value instanceof VarInsnNode && value.getOpcode() == Opcodes.ALOAD) {
+                        return storedValue(((VarInsnNode) value).var, value);
+                    }
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        void classifyArray(Loop loop, AbstractInsnNode source) {
+            if (source instanceof MethodInsnNode) {
+                MethodInsnNode call = (MethodInsnNode) source;
+                if (call.name.equals("values") && call.desc.startsWith("()[")) {
+                    Integer count = enumSize(call.owner);
+                    if (count != null) {
+                        loop.bound = count;
+                        loop.scaling = null;
+                    }
+                } else if (call.name.equals("senseNearbyRobots")) {
+                    loop.bound = visionTiles;
+                    loop.scaling = scalesWithRobots;
+                } else if (call.name.startsWith("senseNearby") || call.name.equals("getAllLocationsWithinRadiusSquared")) {
+                    loop.bound = visionTiles;
+                    loop.scaling = null;
+                } else if (call.name.equals("allDirections")) {
+                    loop.bound = 9;
+                    loop.scaling = null;
+                } else if (call.name.equals("cardinalDirections")) {
+                    loop.bound = 4;
+                    loop.scaling = null;
+                }
+            } else if (source instanceof FieldInsnNode && source.getOpcode() == Opcodes.GETSTATIC) {
+                Integer length = staticArrayLength((FieldInsnNode) source);
+                if (length != null) {
+                    loop.bound = length;
+                    loop.scaling = null;
+                }
+            }
+        }
+
+        Integer storedConstant(int var, int before) {
+            for (int i = before - 1; i >= 0; i --) {
+                AbstractInsnNode insn = insns[i];
+                if (insn.getOpcode() == Opcodes.ISTORE && ((VarInsnNode) insn).var == var) {
+                    return intValue(previousReal(insn));
+                }
+            }
+            return null;
+        }
+
+        /** Worst-case cost of blocks [first, last]; header is the loop being measured (its back edges are ignored). */
+        long longest(int first, int last, Loop header) {
+            long[] dist = new long[last - first + 1];
+            Arrays.fill(dist, -1);
+            dist[0] = 0;
+            long best = 0;
+            int b = first;
+            while (b <= last) {
+                long here = dist[b - first];
+                Loop nested = loopByHeader.get(b);
+                if (nested != null && nested != header && nested.endBlock <= last) {
+                    if (here >= 0) {
+                        long cost = (long) nested.bound * iterationCost(nested) + blockCosts[b];
+                        best = Math.max(best, here + cost);
+                        for (int inner = nested.startBlock; inner <= nested.endBlock; inner ++) {
+                            for (int s : successors.get(inner)) {
+                                if (s > nested.endBlock && s <= last) {
+                                    dist[s - first] = Math.max(dist[s - first], here + cost);
+                                }
+                            }
+                        }
+                    }
+                    b = nested.endBlock + 1;
+                    continue;
+                }
+                if (here >= 0) {
+                    long cost = here + blockCosts[b];
+                    best = Math.max(best, cost);
+                    for (int s : successors.get(b)) {
+                        if (s > b && s <= last) {
+                            dist[s - first] = Math.max(dist[s - first], cost);
+                        }
+                    }
+                }
+                b++;
+            }
+            return best;
+        }
+
+        long iterationCost(Loop loop) {
+            Long cached = iterationCosts.get(loop);
+            if (cached == null) {
+                cached = longest(loop.startBlock, loop.endBlock, loop);
+                iterationCosts.put(loop, cached);
+            }
+            return cached;
+        }
+    }
+
+    Integer enumSize(String owner) {
+        ClassNode cn = classes.get(owner);
+        if (cn != null) {
+            int count = 0;
+            for (FieldNode field : cn.fields) {
+                if ((field.access & Opcodes.ACC_ENUM) != 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        try {
+            Object[] constants = Class.forName(owner.replace('/', '.'), false, BytecodeEstimator.class.getClassLoader()).getEnumConstants();
+            return constants == null ? null : constants.length;
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /** Length of a static final array field initialized with a constant size in <clinit>. */
+    Integer staticArrayLength(FieldInsnNode field) {
+        ClassNode cn = classes.get(field.owner);
+        if (cn == null) {
+            return null;
+        }
+        for (MethodNode mn : cn.methods) {
+            if (!mn.name.equals("<clinit>")) {
+                continue;
+            }
+            Integer lastSize = null;
+            for (AbstractInsnNode insn = mn.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                if (insn.getOpcode() == Opcodes.ANEWARRAY || insn.getOpcode() == Opcodes.NEWARRAY) {
+                    lastSize = intValue(previousReal(insn));
+                } else if (insn.getOpcode() == Opcodes.PUTSTATIC && ((FieldInsnNode) insn).name.equals(field.name)) {
+                    return lastSize;
+                } else if (insn.getOpcode() == Opcodes.PUTSTATIC) {
+                    lastSize = null;
+                }
+            }
+        }
+        return null;
+    }
+
+    static AbstractInsnNode previousReal(AbstractInsnNode insn) {
+        if (insn == null) {
+            return null;
+        }
+        insn = insn.getPrevious();
+        while (insn != null && insn.getOpcode() < 0) {
+            insn = insn.getPrevious();
+        }
+        return insn;
+    }
+
+    static Integer intValue(AbstractInsnNode insn) {
+        if (insn == null) {
+            return null;
+        }
+        int op = insn.getOpcode();
+        if (op >= Opcodes.ICONST_M1 && op <= Opcodes.ICONST_5) {
+            return op - Opcodes.ICONST_0;
+        }
+        if (op == Opcodes.BIPUSH || op == Opcodes.SIPUSH) {
+            return ((IntInsnNode) insn).operand;
+        }
+        if (op == Opcodes.LDC && ((LdcInsnNode) insn).cst instanceof Integer) {
+            return (Integer) ((LdcInsnNode) insn).cst;
+        }
+        return null;
+    }
+
+    /** gopherbot/CarrierStrategy and gopherbot/SupportStrategy$Booster to CARRIER and BOOSTER. */
+    static String strategyType(String className) {
+        String name = className.substring(Math.max(className.lastIndexOf('/'), className.lastIndexOf('$')) + 1);
+        if (name.endsWith("Strategy")) {
+            name = name.substring(0, name.length() - "Strategy".length());
+        }
+        return name.toUpperCase();
+    }
+
+    /** Limit of the robot type robotType ends with (NEARESTWELLCARRIER is a carrier); 0 if none. */
+    static int bytecodeLimit(String robotType) {
+        try {
+            Class<?> type = Class.forName("battlecode.common.RobotType");
+            for (Object constant : type.getEnumConstants()) {
+                if (robotType.endsWith(((Enum<?>) constant).name())) {
+                    return type.getField("bytecodeLimit").getInt(constant);
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            return 0;
+        }
+        return 0;
+    }
+
+    void writeReport(Path reportPath) throws IOException {
+        List<String[]> entryPoints = new ArrayList<String[]>();
+        List<String> allMethods = new ArrayList<String>();
+        for (ClassNode cn : classes.values()) {
+            for (MethodNode mn : cn.methods) {
+                cost(cn, mn);
+                allMethods.add(cn.name + "." + mn.name + mn.desc);
+                boolean isEntry = mn.name.startsWith("run") || (mn.name.equals("takeTurn") && (mn.access & Opcodes.ACC_ABSTRACT) == 0);
+                if (isEntry && mn.desc.startsWith("(Lbattlecode/common/RobotController;)")) {
+                    entryPoints.add(new String[]{cn.name, mn.name, mn.desc});
+                }
+            }
+        }
+
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        PrintWriter out = new PrintWriter(Files.newBufferedWriter(reportPath));
+        try {
+            out.println("Worst-case bytecodes per turn (" + (apiCosts.fromEngine ? "engine" : "built-in") + " API cost table)");
+            out.println();
+            out.printf("%-50s %10s %8s %7s  %s%n", "entry point", "worst", "limit", "%limit", "scales with");
+            for (String[] entry : entryPoints) {
+                MethodCost cost = methodCosts.get(entry[0] + "." + entry[1] + entry[2]);
+                String type = entry[1].equals("takeTurn") ? strategyType(entry[0]) : entry[1].substring(3).toUpperCase();
+                int limit = bytecodeLimit(type);
+                String percent = limit > 0 ? String.format("%6.0f%%", 100.0 * cost.worstCase / limit) : "      ?";
+                out.printf("%-50s %10d %8s %7s  %s%n", entry[0].replace('/', '.') + "." + entry[1], cost.worstCase,
+                    limit > 0 ? String.valueOf(limit) : "?", percent, cost.scaling.isEmpty() ? "-" : String.join(", ", cost.scaling));
+            }
+            out.println();
+            out.println("run() is the whole robot loop; its figure is one iteration including the most expensive strategy module.");
+
+            out.println();
+            out.println("== Methods whose cost scales with the map or the number of robots ==");
+            Collections.sort(allMethods);
+            for (String method : allMethods) {
+                MethodCost cost = methodCosts.get(method);
+                if (!cost.scaling.isEmpty()) {
+                    out.printf("%-90s %10d  %s%n", method.replace('/', '.'), cost.worstCase, String.join(", ", cost.scaling));
+                }
+            }
+
+            out.println();
+            out.println("== Most expensive methods ==");
+            Collections.sort(allMethods, new Comparator<String>() {
+                @Override
+                public int compare(String a, String b) {
+                    return Long.compare(methodCosts.get(b).worstCase, methodCosts.get(a).worstCase);
+                }
+            });
+            for (int i = 0; i < Math.min(25, allMethods.size()); i ++) {
+                MethodCost cost = methodCosts.get(allMethods.get(i));
+                out.printf("%-90s %10d  %s%n", allMethods.get(i).replace('/', '.'), cost.worstCase,
+                    cost.scaling.isEmpty() ? "-" : String.join(", ", cost.scaling));
+            }
+            out.println();
+            out.println("== Loops charged the default bound (add a @Bound) ==");
+            Collections.sort(defaultBoundLoops);
+            for (String loop : defaultBoundLoops) {
+                out.println(loop);
+            }
+
+            out.println();
+            out.println("Loops without a @Bound, constant limit or known array length are charged " + unknownBound + " iterations,");
+            out.println("map-size loops " + mapSizeBound + ", and loops over sensed arrays " + visionTiles + ". Loops with no exit");
+            out.println("(the robot's main loop) count once, and recursive calls are charged a single level.");
+        } finally {
+            out.close();
+        }
+        System.out.println("Bytecode estimate written to " + reportPath);
+    }
+}
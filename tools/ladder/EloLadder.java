@@ -0,0 +1,402 @@
+package ladder;
+
+import matches.MatchCache;
+import matches.MatchRunner;
+import matches.PlayerBuild;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Rates versions of our bot from git history against each other.
+ *
+ *   java ladder.EloLadder --dir ladder --add HEAD,3f2a9c1,HEAD:gopherbot1 --maps maptestsmall,goofygoober
+ *       --classpath <engine classpath> --threads 8
+ *
+ * A version is <rev>[:<package>] (package defaults to --package). Its sources are exported with git archive,
+ * so the working tree is never touched, and built by PlayerBuild under a package named after the commit, so
+ * any number of versions of the same bot can meet. Versions in --add join the ladder's versions.txt; then
+ * every game not yet in games.tsv is played (each pair of versions, on every map, from both sides), in
+ * parallel, and appended as it finishes. Adding a version therefore only plays its own pairings.
+ *
+ * With --daemon <port>, games run on a MatchDaemon instead of a new JVM each; with --cache <dir>, games
+ * played before with the same classes, map and engine come from a MatchCache.
+ *
+ * Ratings are refit from every recorded game with a Bradley-Terry model (one virtual draw against an average
+ * opponent keeps undefeated and winless versions finite), shown on the Elo scale with a mean of 1500, and
+ * written to ratings.txt.
+ */
+public class EloLadder {
+    static final int iterations = 200;
+    static final double meanRating = 1500;
+
+    static class Version {
+        String spec;
+        String commit;
+        String pkg;
+        String playerPkg;
+        PlayerBuild.Player player;
+    }
+
+    final File dir;
+    final File srcRoot = new File("src");
+    final String defaultPackage;
+    final String classpath;
+    final List<String> maps;
+    final MatchRunner runner;
+    final List<Version> versions = new ArrayList<Version>();
+    final Set<String> played = new HashSet<String>(); //game keys in games.tsv
+    final List<String[]> games = new ArrayList<String[]>(); //playerPkg of A, of B, map, winner
+
+    EloLadder(File dir, String defaultPackage, String classpath, List<String> maps, File mapDir) {
+        this.dir = dir;
+        this.defaultPackage = defaultPackage;
+        this.classpath = classpath;
+        this.maps = maps;
+        this.runner = new MatchRunner(classpath, mapDir, null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String dir = "ladder";
+        String add = "";
+        String pkg = "gopherbot";
+        String classpath = System.getProperty("java.class.path");
+        String maps = "maptestsmall";
+        String mapDir = "maps";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int daemon = -1;
+        String cache = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            if (args[i].equals("--dir")) {
+                dir = value;
+            } else if (args[i].equals("--add")) {
+                add = value;
+            } else if (args[i].equals("--package")) {
+                pkg = value;
+            } else if (args[i].equals("--classpath")) {
+                classpath = value;
+            } else if (args[i].equals("--maps")) {
+                maps = value;
+            } else if (args[i].equals("--map-dir")) {
+                mapDir = value;
+            } else if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(value);
+            } else if (args[i].equals("--daemon")) {
+                daemon = Integer.parseInt(value);
+            } else if (args[i].equals("--cache")) {
+                cache = value;
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        EloLadder ladder = new EloLadder(new File(dir), pkg, classpath, Arrays.asList(maps.split(",")), new File(mapDir));
+        if (daemon != -1) {
+            ladder.runner.useDaemon(daemon);
+        }
+        if (cache != null) {
+            ladder.runner.useCache(new MatchCache(new File(cache), MatchCache.engineVersion(new File("."))));
+        }
+        ladder.load();
+        for (String spec : add.split(",")) {
+            if (!spec.trim().isEmpty()) {
+                ladder.add(spec.trim());
+            }
+        }
+        ladder.saveVersions();
+        ladder.playMissing(threads);
+        ladder.writeRatings();
+    }
+
+    void load() throws IOException {
+        dir.mkdirs();
+        File versionsFile = new File(dir, "versions.txt");
+        if (versionsFile.exists()) {
+            for (String line : Files.readAllLines(versionsFile.toPath(), StandardCharsets.UTF_8)) {
+                String[] words = line.split("\t");
+                if (words.length == 4) {
+                    Version version = new Version();
+                    version.spec = words[0];
+                    version.commit = words[1];
+                    version.pkg = words[2];
+                    version.playerPkg = words[3];
+                    versions.add(version);
+                }
+            }
+        }
+        File gamesFile = new File(dir, "games.tsv");
+        if (gamesFile.exists()) {
+            for (String line : Files.readAllLines(gamesFile.toPath(), StandardCharsets.UTF_8)) {
+                String[] words = line.split("\t");
+                if (words.length >= 4) {
+                    games.add(words);
+                    played.add(key(words[0], words[1], words[2]));
+                }
+            }
+        }
+    }
+
+    static String key(String a, String b, String map) {
+        return a + "\t" + b + "\t" + map;
+    }
+
+    void add(String spec) throws IOException, InterruptedException {
+        int colon = spec.indexOf(':');
+        Version version = new Version();
+        version.spec = spec;
+        version.commit = git("rev-parse", "--verify", (colon < 0 ? spec : spec.substring(0, colon)) + "^{commit}").trim();
+        version.pkg = colon < 0 ? defaultPackage : spec.substring(colon + 1);
+        version.playerPkg = version.pkg + "_" + version.commit.substring(0, 10);
+        for (Version existing : versions) {
+            if (existing.playerPkg.equals(version.playerPkg)) {
+                System.out.println(spec + " is already in the ladder as " + existing.playerPkg);
+                return;
+            }
+        }
+        versions.add(version);
+    }
+
+    void saveVersions() throws IOException {
+        StringBuilder out = new StringBuilder();
+        for (Version version : versions) {
+            out.append(version.spec).append('\t').append(version.commit).append('\t').append(version.pkg).append('\t').append(version.playerPkg).append('\n');
+        }
+        Files.write(new File(dir, "versions.txt").toPath(), out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Exports the version's package at its commit and builds it, unless an earlier run already did. */
+    PlayerBuild.Player build(Version version) throws IOException, InterruptedException {
+        File work = new File(dir, "players/" + version.playerPkg);
+        File classes = new File(work, "classes");
+        if (new File(classes, version.playerPkg.replace('.', '/') + "/RobotPlayer.class").exists()) {
+            return new PlayerBuild.Player(version.playerPkg, classes);
+        }
+        File export = new File(dir, "export/" + version.playerPkg);
+        deleteRecursively(export);
+        export.mkdirs();
+        Process archive = new ProcessBuilder("git", "archive", "--format=tar", version.commit, srcRoot.getPath() + "/" + version.pkg.replace('.', '/')).start();
+        untar(archive.getInputStream(), export);
+        if (archive.waitFor() != 0) {
+            throw new IOException("git archive " + version.commit + " failed for " + version.spec);
+        }
+        PlayerBuild.Player player = PlayerBuild.build(new File(export, srcRoot.getPath()), version.pkg, version.playerPkg, Collections.<String, String>emptyMap(), work, classpath);
+        deleteRecursively(export);
+        export.getParentFile().delete(); //once empty
+        return player;
+    }
+
+    void playMissing(int threads) throws Exception {
+        List<Version> built = new ArrayList<Version>();
+        for (Version version : versions) {
+            try {
+                version.player = build(version);
+                built.add(version);
+            } catch (IOException e) {
+                System.err.println("skipping " + version.spec + ": " + e.getMessage());
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ExecutorCompletionService<MatchRunner.Result> completion = new ExecutorCompletionService<MatchRunner.Result>(pool);
+        int submitted = 0;
+        for (int i = 0; i < built.size(); i ++) {
+            for (int j = 0; j < built.size(); j ++) {
+                if (i == j) {
+                    continue;
+                }
+                for (String map : maps) {
+                    final MatchRunner.Match match = new MatchRunner.Match(built.get(i).player, built.get(j).player, map);
+                    if (played.contains(key(match.a.pkg, match.b.pkg, map))) {
+                        continue;
+                    }
+                    completion.submit(new Callable<MatchRunner.Result>() {
+                        public MatchRunner.Result call() throws Exception {
+                            return runner.run(match);
+                        }
+                    });
+                    submitted++;
+                }
+            }
+        }
+        System.out.println(submitted + " new games for " + built.size() + " versions");
+
+        File gamesFile = new File(dir, "games.tsv");
+        try {
+            for (int n = 0; n < submitted; n ++) {
+                MatchRunner.Result result;
+                try {
+                    result = completion.take().get();
+                } catch (ExecutionException e) {
+                    System.err.println(e.getCause().getMessage());
+                    continue;
+                }
+                String[] game = {result.match.a.pkg, result.match.b.pkg, result.match.map, String.valueOf(result.winner), String.valueOf(result.rounds)};
+                games.add(game);
+                played.add(key(game[0], game[1], game[2]));
+                String line = game[0] + "\t" + game[1] + "\t" + game[2] + "\t" + game[3] + "\t" + game[4] + "\n";
+                Files.write(gamesFile.toPath(), line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                System.out.println((n + 1) + "/" + submitted + " " + result.match + ": " + result.winningPlayer() + " in " + result.rounds + " rounds");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Bradley-Terry strengths by minorization-maximization, as Elo around meanRating. */
+    Map<String, Double> ratings() {
+        List<String> names = new ArrayList<String>();
+        for (Version version : versions) {
+            names.add(version.playerPkg);
+        }
+        int n = names.size();
+        double[][] wins = new double[n][n];
+        for (String[] game : games) {
+            int a = names.indexOf(game[0]);
+            int b = names.indexOf(game[1]);
+            if (a < 0 || b < 0) {
+                continue;
+            }
+            if (game[3].equals("A")) {
+                wins[a][b]++;
+            } else {
+                wins[b][a]++;
+            }
+        }
+        double[] strength = new double[n];
+        Arrays.fill(strength, 1);
+        for (int iteration = 0; iteration < iterations; iteration ++) {
+            double[] next = new double[n];
+            for (int i = 0; i < n; i ++) {
+                double won = 0.5; //virtual draw against an opponent of strength 1
+                double denominator = 1 / (strength[i] + 1);
+                for (int j = 0; j < n; j ++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    won += wins[i][j];
+                    double games = wins[i][j] + wins[j][i];
+                    if (games > 0) {
+                        denominator += games / (strength[i] + strength[j]);
+                    }
+                }
+                next[i] = won / denominator;
+            }
+            strength = next;
+        }
+        double meanLog = 0;
+        for (int i = 0; i < n; i ++) {
+            meanLog += Math.log10(strength[i]) / n;
+        }
+        Map<String, Double> ratings = new HashMap<String, Double>();
+        for (int i = 0; i < n; i ++) {
+            ratings.put(names.get(i), meanRating + 400 * (Math.log10(strength[i]) - meanLog));
+        }
+        return ratings;
+    }
+
+    void writeRatings() throws IOException {
+        final Map<String, Double> ratings = ratings();
+        Map<String, int[]> records = new HashMap<String, int[]>(); //wins, losses
+        for (Version version : versions) {
+            records.put(version.playerPkg, new int[2]);
+        }
+        for (String[] game : games) {
+            if (!records.containsKey(game[0]) || !records.containsKey(game[1])) {
+                continue;
+            }
+            String winner = game[3].equals("A") ? game[0] : game[1];
+            String loser = game[3].equals("A") ? game[1] : game[0];
+            records.get(winner)[0]++;
+            records.get(loser)[1]++;
+        }
+        List<Version> sorted = new ArrayList<Version>(versions);
+        Collections.sort(sorted, new Comparator<Version>() {
+            public int compare(Version x, Version y) {
+                return Double.compare(ratings.get(y.playerPkg), ratings.get(x.playerPkg));
+            }
+        });
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-6s %-6s %-7s %-12s %s%n", "rank", "elo", "w-l", "commit", "version"));
+        int rank = 1;
+        for (Version version : sorted) {
+            int[] record = records.get(version.playerPkg);
+            out.append(String.format(Locale.ROOT, "%-6d %-6.0f %-7s %-12s %s%n", rank++, ratings.get(version.playerPkg), record[0] + "-" + record[1], version.commit.substring(0, 10), version.spec));
+        }
+        Files.write(new File(dir, "ratings.txt").toPath(), out.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.print(out);
+    }
+
+    static String git(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<String>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        copy(process.getInputStream(), output);
+        if (process.waitFor() != 0) {
+            throw new IOException("git " + String.join(" ", args) + ": " + output.toString("UTF-8").trim());
+        }
+        return output.toString("UTF-8");
+    }
+
+    /** Extracts the regular files of a (ustar or pax) tar stream under dir. */
+    static void untar(InputStream in, File dir) throws IOException {
+        DataInputStream tar = new DataInputStream(new BufferedInputStream(in));
+        byte[] header = new byte[512];
+        while (true) {
+            try {
+                tar.readFully(header);
+            } catch (EOFException e) {
+                return;
+            }
+            if (header[0] == 0) {
+                return; //end of archive
+            }
+            String name = field(header, 0, 100);
+            String prefix = field(header, 345, 155);
+            if (!prefix.isEmpty()) {
+                name = prefix + "/" + name;
+            }
+            long size = Long.parseLong(field(header, 124, 12).trim().isEmpty() ? "0" : field(header, 124, 12).trim(), 8);
+            char type = (char) header[156];
+            byte[] data = new byte[(int) size];
+            tar.readFully(data);
+            int padding = (int) ((512 - size % 512) % 512);
+            tar.readFully(new byte[padding]);
+            if (type == '0' || type == 0) {
+                File file = new File(dir, name);
+                file.getParentFile().mkdirs();
+                Files.write(file.toPath(), data);
+            }
+        }
+    }
+
+    static String field(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+    }
+
+    static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
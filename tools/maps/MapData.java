@@ -0,0 +1,68 @@
+package maps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One map as the engine stores it: tile arrays indexed by x + y * width, y growing north, and the headquarters
+ * the teams start with.
+ */
+public class MapData {
+    public final String name;
+    public final int width;
+    public final int height;
+    public int symmetry = MapFormat.rotational;
+    public int randomSeed;
+
+    public final boolean[] walls;
+    public final boolean[] clouds;
+    public final byte[] currents; //MapFormat current codes, 0 for none
+    public final int[] islands; //island id, 0 for none
+    public final int[] resources; //MapFormat resource ids of wells, 0 for none
+    public final List<int[]> headquarters = new ArrayList<int[]>(); //{x, y, team}
+
+    public MapData(String name, int width, int height) {
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        walls = new boolean[width * height];
+        clouds = new boolean[width * height];
+        currents = new byte[width * height];
+        islands = new int[width * height];
+        resources = new int[width * height];
+    }
+
+    public int index(int x, int y) {
+        return x + y * width;
+    }
+
+    /** The tile symmetric to tile under the map's symmetry. */
+    public int mirror(int tile) {
+        int x = tile % width;
+        int y = tile / width;
+        switch (symmetry) {
+            case MapFormat.horizontal:
+                return index(x, height - 1 - y);
+            case MapFormat.vertical:
+                return index(width - 1 - x, y);
+            default:
+                return index(width - 1 - x, height - 1 - y);
+        }
+    }
+
+    /** The current code a current with code pointing at tile becomes at mirror(tile). */
+    public byte mirrorCurrent(byte code) {
+        if (code == 0) {
+            return 0;
+        }
+        int dx = MapFormat.currentDx[code];
+        int dy = MapFormat.currentDy[code];
+        if (symmetry != MapFormat.horizontal) {
+            dx = -dx;
+        }
+        if (symmetry != MapFormat.vertical) {
+            dy = -dy;
+        }
+        return MapFormat.currentCode(dx, dy);
+    }
+}
@@ -0,0 +1,224 @@
+package maps;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Derived properties of a map, as name to value in a fixed order; numbers are written plainly so MapIndex
+ * can compare them. Distances are in moves (eight directions, currents ignored), -1 when unreachable.
+ *
+ *   width, height, tiles      size
+ *   symmetry                  the declared symmetry; symmetries lists every one the tiles actually have
+ *   walls, clouds, currents   fraction of tiles
+ *   adamantium, mana, elixir  wells of each resource, both teams together
+ *   islands, islandTiles      island count and total area
+ *   headquarters              per team
+ *   chokepoints               open tiles whose loss would cut the open tiles in two (articulation points)
+ *   hqDistance                shortest way from a team A headquarters to a team B one
+ *   wellDistance              longest way from a team A headquarters to its nearest well
+ */
+public class MapFeatures {
+    public static Map<String, String> of(MapReader reader) {
+        MapData map = reader.toMapData();
+        Map<String, String> features = new LinkedHashMap<String, String>();
+        int tiles = map.width * map.height;
+        features.put("width", String.valueOf(map.width));
+        features.put("height", String.valueOf(map.height));
+        features.put("tiles", String.valueOf(tiles));
+        features.put("symmetry", map.symmetry < MapFormat.symmetryNames.length ? MapFormat.symmetryNames[map.symmetry] : String.valueOf(map.symmetry));
+        features.put("symmetries", symmetries(map));
+
+        int walls = 0;
+        int clouds = 0;
+        int currents = 0;
+        int islandTiles = 0;
+        int maxIsland = 0;
+        int[] wells = new int[MapFormat.resourceNames.length];
+        for (int tile = 0; tile < tiles; tile ++) {
+            walls += map.walls[tile] ? 1 : 0;
+            clouds += map.clouds[tile] ? 1 : 0;
+            currents += map.currents[tile] != 0 ? 1 : 0;
+            if (map.islands[tile] != 0) {
+                islandTiles++;
+                maxIsland = Math.max(maxIsland, map.islands[tile]);
+            }
+            if (map.resources[tile] > 0 && map.resources[tile] < wells.length) {
+                wells[map.resources[tile]]++;
+            }
+        }
+        boolean[] islandIds = new boolean[maxIsland + 1];
+        int islands = 0;
+        for (int tile = 0; tile < tiles; tile ++) {
+            if (map.islands[tile] != 0 && !islandIds[map.islands[tile]]) {
+                islandIds[map.islands[tile]] = true;
+                islands++;
+            }
+        }
+        features.put("walls", fraction(walls, tiles));
+        features.put("clouds", fraction(clouds, tiles));
+        features.put("currents", fraction(currents, tiles));
+        features.put("adamantium", String.valueOf(wells[MapFormat.adamantium]));
+        features.put("mana", String.valueOf(wells[MapFormat.mana]));
+        features.put("elixir", String.valueOf(wells[MapFormat.elixir]));
+        features.put("islands", String.valueOf(islands));
+        features.put("islandTiles", String.valueOf(islandTiles));
+
+        int teamAHeadquarters = 0;
+        for (int[] hq : map.headquarters) {
+            teamAHeadquarters += hq[2] == MapFormat.teamA ? 1 : 0;
+        }
+        features.put("headquarters", String.valueOf(teamAHeadquarters));
+        features.put("chokepoints", String.valueOf(chokepoints(map)));
+
+        int hqDistance = -1;
+        int wellDistance = -1;
+        for (int[] hq : map.headquarters) {
+            if (hq[2] != MapFormat.teamA) {
+                continue;
+            }
+            int[] distances = distances(map, map.index(hq[0], hq[1]));
+            int nearestWell = -1;
+            for (int tile = 0; tile < tiles; tile ++) {
+                if (map.resources[tile] != 0 && distances[tile] != -1 && (nearestWell == -1 || distances[tile] < nearestWell)) {
+                    nearestWell = distances[tile];
+                }
+            }
+            wellDistance = Math.max(wellDistance, nearestWell);
+            for (int[] enemy : map.headquarters) {
+                int distance = distances[map.index(enemy[0], enemy[1])];
+                if (enemy[2] == MapFormat.teamB && distance != -1 && (hqDistance == -1 || distance < hqDistance)) {
+                    hqDistance = distance;
+                }
+            }
+        }
+        features.put("hqDistance", String.valueOf(hqDistance));
+        features.put("wellDistance", String.valueOf(wellDistance));
+        return features;
+    }
+
+    static String fraction(int count, int total) {
+        return String.format(Locale.ROOT, "%.3f", (double) count / total);
+    }
+
+    /** Symmetries the walls, islands, wells and headquarters all have, joined by '+', or "none". */
+    static String symmetries(MapData map) {
+        StringBuilder out = new StringBuilder();
+        int declared = map.symmetry;
+        for (int symmetry = 0; symmetry < MapFormat.symmetryNames.length; symmetry ++) {
+            map.symmetry = symmetry;
+            boolean holds = true;
+            for (int tile = 0; tile < map.walls.length && holds; tile ++) {
+                int mirror = map.mirror(tile);
+                holds = map.walls[tile] == map.walls[mirror] && (map.islands[tile] != 0) == (map.islands[mirror] != 0) && map.resources[tile] == map.resources[mirror];
+            }
+            boolean[] headquarters = new boolean[map.walls.length];
+            for (int[] hq : map.headquarters) {
+                headquarters[map.index(hq[0], hq[1])] = true;
+            }
+            for (int[] hq : map.headquarters) {
+                holds &= headquarters[map.mirror(map.index(hq[0], hq[1]))];
+            }
+            if (holds) {
+                out.append(out.length() == 0 ? "" : "+").append(MapFormat.symmetryNames[symmetry]);
+            }
+        }
+        map.symmetry = declared;
+        return out.length() == 0 ? "none" : out.toString();
+    }
+
+    static int neighbor(MapData map, int tile, int dx, int dy) {
+        int x = tile % map.width + dx;
+        int y = tile / map.width + dy;
+        if (x < 0 || y < 0 || x >= map.width || y >= map.height || map.walls[map.index(x, y)]) {
+            return -1;
+        }
+        return map.index(x, y);
+    }
+
+    /** Moves from start to every tile, -1 for walls and tiles that cannot be reached. */
+    static int[] distances(MapData map, int start) {
+        int[] distances = new int[map.walls.length];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[map.walls.length];
+        int head = 0;
+        int tail = 0;
+        distances[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int tile = queue[head++];
+            for (int dx = -1; dx <= 1; dx ++) {
+                for (int dy = -1; dy <= 1; dy ++) {
+                    int next = neighbor(map, tile, dx, dy);
+                    if (next != -1 && distances[next] == -1) {
+                        distances[next] = distances[tile] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    /** Articulation points of the open tiles, eight-connected; iterative Tarjan so 60x60 mazes fit the stack. */
+    static int chokepoints(MapData map) {
+        int tiles = map.walls.length;
+        int[] order = new int[tiles];
+        int[] low = new int[tiles];
+        int[] parent = new int[tiles];
+        int[] nextDirection = new int[tiles]; //0 to 8, skipping the center
+        int[] stack = new int[tiles];
+        boolean[] articulation = new boolean[tiles];
+        Arrays.fill(order, -1);
+        int counter = 0;
+        for (int root = 0; root < tiles; root ++) {
+            if (map.walls[root] || order[root] != -1) {
+                continue;
+            }
+            int rootChildren = 0;
+            int top = 0;
+            stack[top++] = root;
+            parent[root] = -1;
+            order[root] = low[root] = counter++;
+            while (top > 0) {
+                int tile = stack[top - 1];
+                if (nextDirection[tile] < 9) {
+                    int direction = nextDirection[tile]++;
+                    if (direction == 4) {
+                        continue;
+                    }
+                    int next = neighbor(map, tile, direction % 3 - 1, direction / 3 - 1);
+                    if (next == -1) {
+                        continue;
+                    }
+                    if (order[next] == -1) {
+                        parent[next] = tile;
+                        order[next] = low[next] = counter++;
+                        stack[top++] = next;
+                        if (tile == root) {
+                            rootChildren++;
+                        }
+                    } else if (next != parent[tile]) {
+                        low[tile] = Math.min(low[tile], order[next]);
+                    }
+                } else {
+                    top--;
+                    int up = parent[tile];
+                    if (up != -1) {
+                        low[up] = Math.min(low[up], low[tile]);
+                        if (up != root && low[tile] >= order[up]) {
+                            articulation[up] = true;
+                        }
+                    }
+                }
+            }
+            articulation[root] = rootChildren > 1;
+        }
+        int count = 0;
+        for (int tile = 0; tile < tiles; tile ++) {
+            count += articulation[tile] ? 1 : 0;
+        }
+        return count;
+    }
+}
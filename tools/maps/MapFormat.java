@@ -0,0 +1,87 @@
+package maps;
+
+/**
+ * What the engine accepts in a .map23 file. The file is a GameMap flatbuffer (battlecode.fbs):
+ *
+ *   table GameMap { name: string; minCorner: Vec; maxCorner: Vec; symmetry: int; bodies: SpawnedBodyTable;
+ *                   randomSeed: int; walls: [bool]; clouds: [bool]; currents: [byte]; islands: [int];
+ *                   resources: [int]; }
+ *   table SpawnedBodyTable { robotIDs: [int]; teamIDs: [byte]; types: [byte]; locs: VecTable; }
+ *   table VecTable { xs: [int]; ys: [int]; }
+ *   struct Vec { x: int; y: int; }
+ *
+ * Field numbers below are the positions in those declarations.
+ */
+public class MapFormat {
+    public static final int minSize = 20;
+    public static final int maxSize = 60;
+    public static final int maxIslands = 35; //GameConstants.MAX_NUMBER_ISLANDS
+    public static final int maxIslandArea = 20;
+    public static final int maxHeadquarters = 4; //per team
+
+    //GameMap fields
+    static final int mapName = 0;
+    static final int mapMinCorner = 1;
+    static final int mapMaxCorner = 2;
+    static final int mapSymmetry = 3;
+    static final int mapBodies = 4;
+    static final int mapRandomSeed = 5;
+    static final int mapWalls = 6;
+    static final int mapClouds = 7;
+    static final int mapCurrents = 8;
+    static final int mapIslands = 9;
+    static final int mapResources = 10;
+    static final int mapFields = 11;
+
+    //SpawnedBodyTable fields
+    static final int bodyIds = 0;
+    static final int bodyTeams = 1;
+    static final int bodyTypes = 2;
+    static final int bodyLocations = 3;
+    static final int bodyFields = 4;
+
+    //VecTable fields
+    static final int vecXs = 0;
+    static final int vecYs = 1;
+    static final int vecFields = 2;
+
+    //symmetry
+    public static final int rotational = 0;
+    public static final int horizontal = 1; //mirrored across a horizontal line: y flips
+    public static final int vertical = 2; //mirrored across a vertical line: x flips
+    public static final String[] symmetryNames = {"rotational", "horizontal", "vertical"};
+
+    //teams and body types
+    public static final int teamA = 1;
+    public static final int teamB = 2;
+    public static final int headquartersType = 0;
+
+    //resources, as ResourceType.resourceID
+    public static final int adamantium = 1;
+    public static final int mana = 2;
+    public static final int elixir = 3;
+    public static final String[] resourceNames = {"none", "adamantium", "mana", "elixir"};
+
+    //currents, in Direction.getDirectionOrderNum() order: CENTER (no current), WEST, SOUTHWEST, SOUTH, SOUTHEAST,
+    //EAST, NORTHEAST, NORTH, NORTHWEST
+    public static final int[] currentDx = {0, -1, -1, 0, 1, 1, 1, 0, -1};
+    public static final int[] currentDy = {0, 0, -1, -1, -1, 0, 1, 1, 1};
+
+    public static byte currentCode(int dx, int dy) {
+        for (byte code = 0; code < currentDx.length; code ++) {
+            if (currentDx[code] == dx && currentDy[code] == dy) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException("No current (" + dx + ", " + dy + ")");
+    }
+
+    public static int symmetry(String name) {
+        for (int i = 0; i < symmetryNames.length; i ++) {
+            if (symmetryNames[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown symmetry " + name);
+    }
+}
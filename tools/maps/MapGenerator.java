@@ -0,0 +1,540 @@
+package maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Writes procedurally generated .map23 files, for benchmarks and tournaments that need more maps than we
+ * draw by hand.
+ *
+ *   java maps.MapGenerator --preset realistic --count 20 --seed 1 --out maps
+ *   java maps.MapGenerator --preset stress --name stressmaze --width 60 --height 60
+ *
+ * A preset fills in every setting (realistic ones vary per map within the ranges of official maps) and any
+ * option given overrides it for every map:
+ *   --width, --height      20 to 60
+ *   --symmetry             rotational, horizontal or vertical
+ *   --walls                fraction of tiles that are wall, in blobs; --maze true carves a maze instead
+ *   --islands              number of islands, up to 35; --island-size tiles each, up to 20
+ *   --adamantium, --mana, --elixir   wells per team
+ *   --headquarters         per team, 1 to 4
+ *   --currents, --clouds   fraction of tiles
+ *
+ * Presets: realistic; open (no walls, few features); maze (60x60 maze walls); stress (60x60 maze with the
+ * most islands of the largest size, many wells and dense currents and clouds, the worst case for code that
+ * scales with the map). Every feature is placed on one half of the map and mirrored, headquarters keep the
+ * tiles around them clear, and walls are cut back until every open tile is reachable from every headquarters.
+ */
+public class MapGenerator {
+    static final String[] presets = {"realistic", "open", "maze", "stress"};
+    static final int hqClearance = 2; //squared radius kept free of walls around headquarters
+    static final int nearWellRadiusSquared = 36; //every team gets one well of each basic resource this close to an HQ
+    static final int maxAttempts = 200;
+
+    /** Everything that decides a map, besides the random seed. */
+    static class Settings {
+        int width;
+        int height;
+        int symmetry;
+        double walls;
+        boolean maze;
+        int islands;
+        int islandSize;
+        int adamantium;
+        int mana;
+        int elixir;
+        int headquarters;
+        double currents;
+        double clouds;
+
+        void set(String option, String value) {
+            if (option.equals("width")) {
+                width = Integer.parseInt(value);
+            } else if (option.equals("height")) {
+                height = Integer.parseInt(value);
+            } else if (option.equals("symmetry")) {
+                symmetry = MapFormat.symmetry(value);
+            } else if (option.equals("walls")) {
+                walls = Double.parseDouble(value);
+            } else if (option.equals("maze")) {
+                maze = Boolean.parseBoolean(value);
+            } else if (option.equals("islands")) {
+                islands = Integer.parseInt(value);
+            } else if (option.equals("island-size")) {
+                islandSize = Integer.parseInt(value);
+            } else if (option.equals("adamantium")) {
+                adamantium = Integer.parseInt(value);
+            } else if (option.equals("mana")) {
+                mana = Integer.parseInt(value);
+            } else if (option.equals("elixir")) {
+                elixir = Integer.parseInt(value);
+            } else if (option.equals("headquarters")) {
+                headquarters = Integer.parseInt(value);
+            } else if (option.equals("currents")) {
+                currents = Double.parseDouble(value);
+            } else if (option.equals("clouds")) {
+                clouds = Double.parseDouble(value);
+            } else {
+                throw new IllegalArgumentException("Unknown option --" + option);
+            }
+        }
+
+        void check() {
+            if (width < MapFormat.minSize || width > MapFormat.maxSize || height < MapFormat.minSize || height > MapFormat.maxSize) {
+                throw new IllegalArgumentException("Maps are " + MapFormat.minSize + " to " + MapFormat.maxSize + " tiles a side");
+            }
+            if (headquarters < 1 || headquarters > MapFormat.maxHeadquarters) {
+                throw new IllegalArgumentException("Each team has 1 to " + MapFormat.maxHeadquarters + " headquarters");
+            }
+            islands = Math.min(islands, MapFormat.maxIslands);
+            islandSize = Math.max(1, Math.min(islandSize, MapFormat.maxIslandArea));
+            adamantium = Math.max(adamantium, 1);
+            mana = Math.max(mana, 1);
+        }
+    }
+
+    static Settings preset(String name, Random random) {
+        Settings settings = new Settings();
+        if (name.equals("realistic")) {
+            settings.width = 30 + random.nextInt(31);
+            settings.height = 30 + random.nextInt(31);
+            settings.symmetry = random.nextInt(3);
+            settings.walls = 0.05 + 0.15 * random.nextDouble();
+            settings.islands = 2 * (2 + random.nextInt(5));
+            settings.islandSize = 4 + random.nextInt(6);
+            settings.adamantium = 1 + random.nextInt(3);
+            settings.mana = 1 + random.nextInt(3);
+            settings.headquarters = 1 + random.nextInt(4);
+            settings.currents = 0.04 * random.nextDouble();
+            settings.clouds = 0.08 * random.nextDouble();
+        } else if (name.equals("open")) {
+            settings.width = 40;
+            settings.height = 40;
+            settings.islands = 4;
+            settings.islandSize = 4;
+            settings.adamantium = 1;
+            settings.mana = 1;
+            settings.headquarters = 1;
+        } else if (name.equals("maze")) {
+            settings.width = MapFormat.maxSize;
+            settings.height = MapFormat.maxSize;
+            settings.maze = true;
+            settings.islands = 8;
+            settings.islandSize = 6;
+            settings.adamantium = 2;
+            settings.mana = 2;
+            settings.headquarters = 2;
+        } else if (name.equals("stress")) {
+            settings.width = MapFormat.maxSize;
+            settings.height = MapFormat.maxSize;
+            settings.maze = true;
+            settings.islands = MapFormat.maxIslands;
+            settings.islandSize = MapFormat.maxIslandArea;
+            settings.adamantium = 6;
+            settings.mana = 6;
+            settings.elixir = 2;
+            settings.headquarters = MapFormat.maxHeadquarters;
+            settings.currents = 0.1;
+            settings.clouds = 0.2;
+        } else {
+            throw new IllegalArgumentException("Unknown preset " + name + ", expected one of " + Arrays.toString(presets));
+        }
+        return settings;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String preset = "realistic";
+        String name = null;
+        String out = "maps";
+        int count = 1;
+        long seed = System.nanoTime();
+        Map<String, String> overrides = new LinkedHashMap<String, String>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String option = args[i].replaceFirst("^--", "");
+            String value = args[i + 1];
+            if (option.equals("preset")) {
+                preset = value;
+            } else if (option.equals("name")) {
+                name = value;
+            } else if (option.equals("out")) {
+                out = value;
+            } else if (option.equals("count")) {
+                count = Integer.parseInt(value);
+            } else if (option.equals("seed")) {
+                seed = Long.parseLong(value);
+            } else {
+                overrides.put(option, value);
+            }
+        }
+        if (name == null) {
+            name = "gen" + preset;
+        }
+
+        Random random = new Random(seed);
+        for (int n = 0; n < count; n ++) {
+            Settings settings = preset(preset, random);
+            for (Map.Entry<String, String> override : overrides.entrySet()) {
+                settings.set(override.getKey(), override.getValue());
+            }
+            settings.check();
+            String mapName = count == 1 ? name : name + n;
+            MapData map = generate(mapName, settings, new Random(random.nextLong()));
+            File file = new File(out, mapName + ".map23");
+            MapWriter.write(map, file);
+            System.out.println(file + ": " + map.width + "x" + map.height + " " + MapFormat.symmetryNames[map.symmetry]);
+        }
+    }
+
+    public static MapData generate(String name, Settings settings, Random random) {
+        MapData map = new MapData(name, settings.width, settings.height);
+        map.symmetry = settings.symmetry;
+        map.randomSeed = random.nextInt(1000);
+        new MapGenerator(map, random).fill(settings);
+        return map;
+    }
+
+    final MapData map;
+    final Random random;
+    final int numTiles;
+    final boolean[] reserved; //headquarters and wells: nothing else goes there
+
+    MapGenerator(MapData map, Random random) {
+        this.map = map;
+        this.random = random;
+        this.numTiles = map.width * map.height;
+        this.reserved = new boolean[numTiles];
+    }
+
+    void fill(Settings settings) {
+        placeHeadquarters(settings.headquarters);
+        if (settings.maze) {
+            carveMaze();
+        } else {
+            placeWallBlobs(settings.walls);
+        }
+        clearAroundHeadquarters();
+        connect();
+        placeWells(MapFormat.adamantium, settings.adamantium);
+        placeWells(MapFormat.mana, settings.mana);
+        placeWells(MapFormat.elixir, settings.elixir);
+        placeIslands(settings.islands / 2, settings.islandSize);
+        placeCurrents(settings.currents);
+        placeClouds(settings.clouds);
+    }
+
+    /** Tiles on our half: the lower index of each mirrored pair, leaving out tiles that are their own mirror. */
+    boolean onHalf(int tile) {
+        return tile < map.mirror(tile);
+    }
+
+    int x(int tile) {
+        return tile % map.width;
+    }
+
+    int y(int tile) {
+        return tile / map.width;
+    }
+
+    int distanceSquared(int a, int b) {
+        int dx = x(a) - x(b);
+        int dy = y(a) - y(b);
+        return dx * dx + dy * dy;
+    }
+
+    int neighbor(int tile, int dx, int dy) {
+        int x = x(tile) + dx;
+        int y = y(tile) + dy;
+        if (x < 0 || y < 0 || x >= map.width || y >= map.height) {
+            return -1;
+        }
+        return map.index(x, y);
+    }
+
+    int randomHalfTile() {
+        while (true) {
+            int tile = random.nextInt(numTiles);
+            if (onHalf(tile)) {
+                return tile;
+            }
+        }
+    }
+
+    void setWall(int tile, boolean wall) {
+        map.walls[tile] = wall;
+        map.walls[map.mirror(tile)] = wall;
+    }
+
+    boolean free(int tile) {
+        return !map.walls[tile] && !reserved[tile] && map.islands[tile] == 0 && map.currents[tile] == 0;
+    }
+
+    /** Team A on our half, far enough from every team B headquarters that the teams do not start next to each other. */
+    void placeHeadquarters(int perTeam) {
+        int minEnemyDistance = Math.min(map.width, map.height) * Math.min(map.width, map.height) / 4;
+        List<Integer> placed = new ArrayList<Integer>();
+        for (int attempt = 0; attempt < 100 * maxAttempts && placed.size() < perTeam; attempt ++) {
+            int tile = randomHalfTile();
+            if (distanceSquared(tile, map.mirror(tile)) < minEnemyDistance) {
+                continue;
+            }
+            boolean spaced = true;
+            for (int other : placed) {
+                spaced &= distanceSquared(tile, other) >= 36 && distanceSquared(tile, map.mirror(other)) >= minEnemyDistance;
+            }
+            if (spaced) {
+                placed.add(tile);
+            }
+        }
+        if (placed.size() < perTeam) {
+            throw new IllegalStateException("Found room for only " + placed.size() + " of " + perTeam + " headquarters per team on " + map.name + "; try another seed or fewer headquarters");
+        }
+        for (int tile : placed) {
+            reserved[tile] = true;
+            reserved[map.mirror(tile)] = true;
+            map.headquarters.add(new int[] {x(tile), y(tile), MapFormat.teamA});
+            map.headquarters.add(new int[] {x(map.mirror(tile)), y(map.mirror(tile)), MapFormat.teamB});
+        }
+    }
+
+    /** Random-walk blobs of 3 to 12 tiles until walls cover the given fraction of the map. */
+    void placeWallBlobs(double density) {
+        int target = (int) (density * numTiles);
+        int walls = 0;
+        while (walls < target) {
+            int tile = randomHalfTile();
+            int length = 3 + random.nextInt(10);
+            for (int step = 0; step < length && walls < target; step ++) {
+                if (!map.walls[tile] && !reserved[tile]) {
+                    setWall(tile, true);
+                    walls += 2;
+                }
+                int next = neighbor(tile, random.nextInt(3) - 1, random.nextInt(3) - 1);
+                if (next != -1 && onHalf(next)) {
+                    tile = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * A perfect maze (depth first, corridors one tile wide) over the whole map, then made symmetric by copying
+     * our half onto the other; connect() reopens the passages the copy cut.
+     */
+    void carveMaze() {
+        Arrays.fill(map.walls, true);
+        int cellsX = (map.width + 1) / 2;
+        int cellsY = (map.height + 1) / 2;
+        boolean[] visited = new boolean[cellsX * cellsY];
+        int[] stack = new int[cellsX * cellsY];
+        int top = 0;
+        stack[top++] = 0;
+        visited[0] = true;
+        map.walls[0] = false;
+        int[] order = {0, 1, 2, 3};
+        int[] stepX = {1, -1, 0, 0};
+        int[] stepY = {0, 0, 1, -1};
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int cx = cell % cellsX;
+            int cy = cell / cellsX;
+            for (int i = order.length - 1; i > 0; i --) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            boolean moved = false;
+            for (int direction : order) {
+                int nx = cx + stepX[direction];
+                int ny = cy + stepY[direction];
+                if (nx < 0 || ny < 0 || nx >= cellsX || ny >= cellsY || visited[ny * cellsX + nx]) {
+                    continue;
+                }
+                visited[ny * cellsX + nx] = true;
+                map.walls[map.index(cx * 2 + stepX[direction], cy * 2 + stepY[direction])] = false;
+                map.walls[map.index(nx * 2, ny * 2)] = false;
+                stack[top++] = ny * cellsX + nx;
+                moved = true;
+                break;
+            }
+            if (!moved) {
+                top--;
+            }
+        }
+        for (int tile = 0; tile < numTiles; tile ++) {
+            if (onHalf(tile)) {
+                map.walls[map.mirror(tile)] = map.walls[tile];
+            }
+        }
+    }
+
+    void clearAroundHeadquarters() {
+        for (int[] hq : map.headquarters) {
+            for (int dx = -hqClearance; dx <= hqClearance; dx ++) {
+                for (int dy = -hqClearance; dy <= hqClearance; dy ++) {
+                    int tile = neighbor(map.index(hq[0], hq[1]), dx, dy);
+                    if (tile != -1 && dx * dx + dy * dy <= hqClearance) {
+                        setWall(tile, false);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Open tiles reachable from the first headquarters, moving in all eight directions. */
+    boolean[] reachable() {
+        boolean[] reached = new boolean[numTiles];
+        int[] queue = new int[numTiles];
+        int head = 0;
+        int tail = 0;
+        int start = map.index(map.headquarters.get(0)[0], map.headquarters.get(0)[1]);
+        queue[tail++] = start;
+        reached[start] = true;
+        while (head < tail) {
+            int tile = queue[head++];
+            for (int dx = -1; dx <= 1; dx ++) {
+                for (int dy = -1; dy <= 1; dy ++) {
+                    int next = neighbor(tile, dx, dy);
+                    if (next != -1 && !reached[next] && !map.walls[next]) {
+                        reached[next] = true;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return reached;
+    }
+
+    /** Cuts walls on a straight line from each unreachable open tile toward the first HQ until it connects. */
+    void connect() {
+        boolean[] reached = reachable();
+        int target = map.index(map.headquarters.get(0)[0], map.headquarters.get(0)[1]);
+        for (int tile = 0; tile < numTiles; tile ++) {
+            if (map.walls[tile] || reached[tile]) {
+                continue;
+            }
+            int current = tile;
+            while (!reached[current]) {
+                current = neighbor(current, Integer.signum(x(target) - x(current)), Integer.signum(y(target) - y(current)));
+                if (map.walls[current]) {
+                    setWall(current, false);
+                }
+            }
+            reached = reachable();
+        }
+    }
+
+    void placeWells(int resource, int perTeam) {
+        for (int n = 0; n < perTeam; n ++) {
+            int[] hq = map.headquarters.get(2 * random.nextInt(map.headquarters.size() / 2));
+            int hqTile = map.index(hq[0], hq[1]);
+            for (int attempt = 0; attempt < 100 * maxAttempts; attempt ++) {
+                int tile = randomHalfTile();
+                boolean near = distanceSquared(tile, hqTile) <= nearWellRadiusSquared;
+                if (free(tile) && (near || n > 0 || resource == MapFormat.elixir)) {
+                    reserved[tile] = true;
+                    reserved[map.mirror(tile)] = true;
+                    map.resources[tile] = resource;
+                    map.resources[map.mirror(tile)] = resource;
+                    break;
+                }
+            }
+        }
+    }
+
+    /** pairs islands on our half grown tile by tile up to size, each mirrored with the next id. */
+    void placeIslands(int pairs, int size) {
+        int id = 1;
+        for (int pair = 0; pair < pairs; pair ++) {
+            for (int attempt = 0; attempt < maxAttempts; attempt ++) {
+                int seed = randomHalfTile();
+                if (free(seed) && growIsland(seed, size, id)) {
+                    id += 2;
+                    break;
+                }
+            }
+        }
+    }
+
+    boolean growIsland(int seed, int size, int id) {
+        List<Integer> frontier = new ArrayList<Integer>();
+        List<Integer> tiles = new ArrayList<Integer>();
+        frontier.add(seed);
+        while (tiles.size() < size && !frontier.isEmpty()) {
+            int tile = frontier.remove(random.nextInt(frontier.size()));
+            if (!free(tile) || !onHalf(tile) || tiles.contains(tile) || touchesOtherIsland(tile, id)) {
+                continue;
+            }
+            tiles.add(tile);
+            map.islands[tile] = id;
+            for (int[] step : new int[][] {{1, 0}, {-1, 0}, {0, 1}, {0, -1}}) {
+                int next = neighbor(tile, step[0], step[1]);
+                if (next != -1) {
+                    frontier.add(next);
+                }
+            }
+        }
+        if (tiles.isEmpty()) {
+            return false;
+        }
+        for (int tile : tiles) {
+            map.islands[map.mirror(tile)] = id + 1;
+        }
+        return true;
+    }
+
+    /** Islands stay a tile apart, so two of them never read as one; the mirror line counts as another island. */
+    boolean touchesOtherIsland(int tile, int id) {
+        for (int dx = -1; dx <= 1; dx ++) {
+            for (int dy = -1; dy <= 1; dy ++) {
+                int next = neighbor(tile, dx, dy);
+                if (next != -1 && ((map.islands[next] != 0 && map.islands[next] != id) || !onHalf(next))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Straight streams of 3 to 8 tiles in one of the eight directions, until they cover the given fraction. */
+    void placeCurrents(double density) {
+        int target = (int) (density * numTiles);
+        int placed = 0;
+        for (int attempt = 0; attempt < 100 * maxAttempts && placed < target; attempt ++) {
+            int code = 1 + random.nextInt(MapFormat.currentDx.length - 1);
+            int tile = randomHalfTile();
+            int length = 3 + random.nextInt(6);
+            for (int step = 0; step < length && tile != -1 && placed < target; step ++) {
+                if (!free(tile) || !onHalf(tile)) {
+                    break;
+                }
+                map.currents[tile] = (byte) code;
+                map.currents[map.mirror(tile)] = map.mirrorCurrent((byte) code);
+                placed += 2;
+                tile = neighbor(tile, MapFormat.currentDx[code], MapFormat.currentDy[code]);
+            }
+        }
+    }
+
+    /** Random-walk blobs over open tiles, until they cover the given fraction. */
+    void placeClouds(double density) {
+        int target = (int) (density * numTiles);
+        int placed = 0;
+        for (int attempt = 0; attempt < 100 * maxAttempts && placed < target; attempt ++) {
+            int tile = randomHalfTile();
+            int length = 4 + random.nextInt(12);
+            for (int step = 0; step < length && placed < target; step ++) {
+                if (!map.walls[tile] && !map.clouds[tile]) {
+                    map.clouds[tile] = true;
+                    map.clouds[map.mirror(tile)] = true;
+                    placed += 2;
+                }
+                int next = neighbor(tile, random.nextInt(3) - 1, random.nextInt(3) - 1);
+                if (next != -1 && onHalf(next)) {
+                    tile = next;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * An on-disk index of MapFeatures for every map in some directories, so scheduling and analysis can pick maps
+ * without parsing them.
+ *
+ *   java maps.MapIndex --index build/map-index --where "islands>=10,symmetries~rotational" --names maps
+ *
+ * features.tsv holds the features of every map ever indexed, keyed by the SHA-256 of the file, so renamed or
+ * copied maps are not analyzed again; files.tsv remembers the hash of each path with its size and modification
+ * time, so unchanged files are not even hashed. Both are rewritten after an update.
+ *
+ * --where takes comma separated conditions <feature><op><value>, op one of = != < <= > >= (numeric when both
+ * sides are numbers) or ~ (contains). The matches are printed as a table of --columns (default all features),
+ * one row per map; --names prints just their names, comma separated, ready for -Pmaps; --stratify <feature>
+ * prints the names grouped by that feature's value.
+ */
+public class MapIndex {
+    static final String extension = ".map23";
+
+    public static class Entry {
+        public final File file;
+        public final String hash;
+        public final Map<String, String> features;
+
+        Entry(File file, String hash, Map<String, String> features) {
+            this.file = file;
+            this.hash = hash;
+            this.features = features;
+        }
+
+        public String name() {
+            return file.getName().substring(0, file.getName().length() - extension.length());
+        }
+
+        public String get(String feature) {
+            return feature.equals("name") ? name() : features.get(feature);
+        }
+    }
+
+    final File dir;
+    final Map<String, Map<String, String>> featuresByHash = new LinkedHashMap<String, Map<String, String>>();
+    final Map<String, String[]> files = new LinkedHashMap<String, String[]>(); //path to {size, modified, hash}
+    final List<Entry> entries = new ArrayList<Entry>();
+
+    public MapIndex(File dir) throws IOException {
+        this.dir = dir;
+        List<String[]> rows = readTsv(new File(dir, "features.tsv"));
+        if (!rows.isEmpty()) {
+            String[] header = rows.get(0);
+            for (String[] row : rows.subList(1, rows.size())) {
+                Map<String, String> features = new LinkedHashMap<String, String>();
+                for (int i = 1; i < header.length && i < row.length; i ++) {
+                    features.put(header[i], row[i]);
+                }
+                featuresByHash.put(row[0], features);
+            }
+        }
+        for (String[] row : readTsv(new File(dir, "files.tsv"))) {
+            if (row.length == 4) {
+                files.put(row[0], new String[] {row[1], row[2], row[3]});
+            }
+        }
+    }
+
+    /** Indexes every map in dirs, analyzing only maps whose contents were never indexed, and saves the index. */
+    public List<Entry> update(List<File> dirs) throws IOException {
+        entries.clear();
+        for (File mapDir : dirs) {
+            File[] maps = mapDir.listFiles();
+            if (maps == null) {
+                continue;
+            }
+            Arrays.sort(maps);
+            for (File file : maps) {
+                if (file.getName().endsWith(extension)) {
+                    entries.add(entry(file));
+                }
+            }
+        }
+        save();
+        return entries;
+    }
+
+    Entry entry(File file) throws IOException {
+        String path = file.getPath();
+        String size = String.valueOf(file.length());
+        String modified = String.valueOf(file.lastModified());
+        String[] known = files.get(path);
+        if (known != null && known[0].equals(size) && known[1].equals(modified) && featuresByHash.containsKey(known[2])) {
+            return new Entry(file, known[2], featuresByHash.get(known[2]));
+        }
+        MapReader reader = new MapReader(file);
+        String hash = reader.hash();
+        Map<String, String> features = featuresByHash.get(hash);
+        if (features == null) {
+            features = MapFeatures.of(reader);
+            featuresByHash.put(hash, features);
+            System.err.println("indexed " + path);
+        }
+        files.put(path, new String[] {size, modified, hash});
+        return new Entry(file, hash, features);
+    }
+
+    void save() throws IOException {
+        dir.mkdirs();
+        Set<String> columns = new LinkedHashSet<String>();
+        for (Map<String, String> features : featuresByHash.values()) {
+            columns.addAll(features.keySet());
+        }
+        StringBuilder out = new StringBuilder("hash");
+        for (String column : columns) {
+            out.append('\t').append(column);
+        }
+        out.append('\n');
+        for (Map.Entry<String, Map<String, String>> row : featuresByHash.entrySet()) {
+            out.append(row.getKey());
+            for (String column : columns) {
+                String value = row.getValue().get(column);
+                out.append('\t').append(value == null ? "" : value);
+            }
+            out.append('\n');
+        }
+        Files.write(new File(dir, "features.tsv").toPath(), out.toString().getBytes(StandardCharsets.UTF_8));
+
+        out = new StringBuilder();
+        for (Map.Entry<String, String[]> row : files.entrySet()) {
+            out.append(row.getKey()).append('\t').append(row.getValue()[0]).append('\t').append(row.getValue()[1]).append('\t').append(row.getValue()[2]).append('\n');
+        }
+        Files.write(new File(dir, "files.tsv").toPath(), out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static List<String[]> readTsv(File file) throws IOException {
+        List<String[]> rows = new ArrayList<String[]>();
+        if (file.exists()) {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    rows.add(line.split("\t", -1));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /** The indexed maps meeting every condition in where (see the class comment); all of them for "". */
+    public List<Entry> query(String where) {
+        List<Entry> matches = new ArrayList<Entry>();
+        for (Entry entry : entries) {
+            boolean match = true;
+            for (String condition : where.split(",")) {
+                if (!condition.trim().isEmpty()) {
+                    match &= holds(entry, condition.trim());
+                }
+            }
+            if (match) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    static final String[] operators = {"<=", ">=", "!=", "=", "<", ">", "~"}; //two character operators first
+
+    static boolean holds(Entry entry, String condition) {
+        for (String op : operators) {
+            int at = condition.indexOf(op);
+            if (at <= 0) {
+                continue;
+            }
+            String value = entry.get(condition.substring(0, at).trim());
+            String wanted = condition.substring(at + op.length()).trim();
+            if (value == null) {
+                throw new IllegalArgumentException("No feature " + condition.substring(0, at).trim());
+            }
+            if (op.equals("~")) {
+                return value.contains(wanted);
+            }
+            int comparison;
+            try {
+                comparison = Double.compare(Double.parseDouble(value), Double.parseDouble(wanted));
+            } catch (NumberFormatException e) {
+                comparison = value.compareTo(wanted);
+            }
+            if (op.equals("<=")) {
+                return comparison <= 0;
+            } else if (op.equals(">=")) {
+                return comparison >= 0;
+            } else if (op.equals("!=")) {
+                return comparison != 0;
+            } else if (op.equals("=")) {
+                return comparison == 0;
+            } else if (op.equals("<")) {
+                return comparison < 0;
+            } else {
+                return comparison > 0;
+            }
+        }
+        throw new IllegalArgumentException("Expected <feature><op><value>, got " + condition);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String index = "build/map-index";
+        String where = "";
+        String columns = null;
+        String stratify = null;
+        boolean names = false;
+        List<File> dirs = new ArrayList<File>();
+        for (int i = 0; i < args.length; i ++) {
+            if (args[i].equals("--index")) {
+                index = args[++i];
+            } else if (args[i].equals("--where")) {
+                where = args[++i];
+            } else if (args[i].equals("--columns")) {
+                columns = args[++i];
+            } else if (args[i].equals("--stratify")) {
+                stratify = args[++i];
+            } else if (args[i].equals("--names")) {
+                names = true;
+            } else {
+                dirs.add(new File(args[i]));
+            }
+        }
+        if (dirs.isEmpty()) {
+            dirs.add(new File("maps"));
+        }
+
+        MapIndex mapIndex = new MapIndex(new File(index));
+        mapIndex.update(dirs);
+        List<Entry> matches = mapIndex.query(where);
+
+        if (names) {
+            StringBuilder out = new StringBuilder();
+            for (Entry entry : matches) {
+                out.append(out.length() == 0 ? "" : ",").append(entry.name());
+            }
+            System.out.println(out);
+        } else if (stratify != null) {
+            Map<String, List<String>> groups = new TreeMap<String, List<String>>();
+            for (Entry entry : matches) {
+                String value = entry.get(stratify);
+                if (!groups.containsKey(value)) {
+                    groups.put(value, new ArrayList<String>());
+                }
+                groups.get(value).add(entry.name());
+            }
+            for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+                System.out.println(stratify + "=" + group.getKey() + "\t" + String.join(",", group.getValue()));
+            }
+        } else {
+            List<String> shown = new ArrayList<String>();
+            shown.add("name");
+            if (columns != null) {
+                shown.addAll(Arrays.asList(columns.split(",")));
+            } else if (!matches.isEmpty()) {
+                shown.addAll(matches.get(0).features.keySet());
+            }
+            System.out.println(String.join("\t", shown));
+            for (Entry entry : matches) {
+                StringBuilder row = new StringBuilder();
+                for (String column : shown) {
+                    row.append(row.length() == 0 ? "" : "\t").append(entry.get(column));
+                }
+                System.out.println(row);
+            }
+        }
+    }
+}
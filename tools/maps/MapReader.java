@@ -0,0 +1,243 @@
+package maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Reads .map23 files without the engine. The file is memory-mapped and nothing is decoded up front: each
+ * accessor follows the flatbuffer offsets to the field it needs, so a tool that only wants the size or one
+ * vector of a map reads only those bytes. toMapData() decodes everything.
+ */
+public class MapReader {
+    final File file;
+    final ByteBuffer buffer;
+    final int gameMap;
+    final int[] vectors = new int[MapFormat.mapFields]; //GameMap vector positions as they are first needed
+    int width = -1;
+    int height;
+
+    public MapReader(File file) throws IOException {
+        this.file = file;
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer mapped = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        } finally {
+            raf.close(); //the mapping stays valid
+        }
+        if (buffer.capacity() < 8) {
+            throw new IOException(file + " is not a map");
+        }
+        gameMap = buffer.getInt(0);
+        Arrays.fill(vectors, -1);
+    }
+
+    public File file() {
+        return file;
+    }
+
+    /** SHA-256 of the file, in hex. */
+    public String hash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buffer.duplicate());
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b & 0xff));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Position of a field of the table at table, or 0 when the field is absent (left at its default). */
+    int field(int table, int field) {
+        int vtable = table - buffer.getInt(table);
+        int vtableSize = buffer.getShort(vtable) & 0xffff;
+        if (4 + 2 * field >= vtableSize) {
+            return 0;
+        }
+        int offset = buffer.getShort(vtable + 4 + 2 * field) & 0xffff;
+        return offset == 0 ? 0 : table + offset;
+    }
+
+    /** What the offset stored in a field points at, or 0 when the field is absent. */
+    int target(int table, int field) {
+        int position = field(table, field);
+        return position == 0 ? 0 : position + buffer.getInt(position);
+    }
+
+    int intField(int table, int field) {
+        int position = field(table, field);
+        return position == 0 ? 0 : buffer.getInt(position);
+    }
+
+    public String name() {
+        int string = target(gameMap, MapFormat.mapName);
+        if (string == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[buffer.getInt(string)];
+        for (int i = 0; i < bytes.length; i ++) {
+            bytes[i] = buffer.get(string + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int width() {
+        readSize();
+        return width;
+    }
+
+    public int height() {
+        readSize();
+        return height;
+    }
+
+    void readSize() {
+        if (width == -1) {
+            int min = field(gameMap, MapFormat.mapMinCorner);
+            int max = field(gameMap, MapFormat.mapMaxCorner);
+            width = buffer.getInt(max) - buffer.getInt(min);
+            height = buffer.getInt(max + 4) - buffer.getInt(min + 4);
+        }
+    }
+
+    public int symmetry() {
+        return intField(gameMap, MapFormat.mapSymmetry);
+    }
+
+    public int randomSeed() {
+        return intField(gameMap, MapFormat.mapRandomSeed);
+    }
+
+    int vector(int field) {
+        if (vectors[field] == -1) {
+            vectors[field] = target(gameMap, field);
+        }
+        return vectors[field];
+    }
+
+    int tile(int x, int y) {
+        return x + y * width();
+    }
+
+    /** Element i of the byte vector in field, or 0 when the field is absent. */
+    int byteAt(int field, int i) {
+        int vector = vector(field);
+        return vector == 0 ? 0 : buffer.get(vector + 4 + i);
+    }
+
+    int intAt(int field, int i) {
+        int vector = vector(field);
+        return vector == 0 ? 0 : buffer.getInt(vector + 4 + 4 * i);
+    }
+
+    public boolean wall(int x, int y) {
+        return byteAt(MapFormat.mapWalls, tile(x, y)) != 0;
+    }
+
+    public boolean cloud(int x, int y) {
+        return byteAt(MapFormat.mapClouds, tile(x, y)) != 0;
+    }
+
+    /** MapFormat current code, 0 for none. */
+    public int current(int x, int y) {
+        return byteAt(MapFormat.mapCurrents, tile(x, y));
+    }
+
+    /** Island id, 0 for none. */
+    public int island(int x, int y) {
+        return intAt(MapFormat.mapIslands, tile(x, y));
+    }
+
+    /** MapFormat resource id of the well on the tile, 0 for none. */
+    public int resource(int x, int y) {
+        return intAt(MapFormat.mapResources, tile(x, y));
+    }
+
+    public boolean[] walls() {
+        return booleans(MapFormat.mapWalls);
+    }
+
+    public boolean[] clouds() {
+        return booleans(MapFormat.mapClouds);
+    }
+
+    public byte[] currents() {
+        int vector = vector(MapFormat.mapCurrents);
+        byte[] values = new byte[width() * height()];
+        for (int i = 0; vector != 0 && i < values.length; i ++) {
+            values[i] = buffer.get(vector + 4 + i);
+        }
+        return values;
+    }
+
+    public int[] islands() {
+        return ints(MapFormat.mapIslands);
+    }
+
+    public int[] resources() {
+        return ints(MapFormat.mapResources);
+    }
+
+    boolean[] booleans(int field) {
+        int vector = vector(field);
+        boolean[] values = new boolean[width() * height()];
+        for (int i = 0; vector != 0 && i < values.length; i ++) {
+            values[i] = buffer.get(vector + 4 + i) != 0;
+        }
+        return values;
+    }
+
+    int[] ints(int field) {
+        int vector = vector(field);
+        int[] values = new int[width() * height()];
+        for (int i = 0; vector != 0 && i < values.length; i ++) {
+            values[i] = buffer.getInt(vector + 4 + 4 * i);
+        }
+        return values;
+    }
+
+    /** Starting headquarters as {x, y, team}. */
+    public int[][] headquarters() {
+        int bodies = target(gameMap, MapFormat.mapBodies);
+        if (bodies == 0) {
+            return new int[0][];
+        }
+        int teams = target(bodies, MapFormat.bodyTeams);
+        int locations = target(bodies, MapFormat.bodyLocations);
+        int xs = target(locations, MapFormat.vecXs);
+        int ys = target(locations, MapFormat.vecYs);
+        int[][] headquarters = new int[buffer.getInt(xs)][];
+        for (int i = 0; i < headquarters.length; i ++) {
+            headquarters[i] = new int[] {buffer.getInt(xs + 4 + 4 * i), buffer.getInt(ys + 4 + 4 * i), buffer.get(teams + 4 + i)};
+        }
+        return headquarters;
+    }
+
+    public MapData toMapData() {
+        MapData map = new MapData(name(), width(), height());
+        map.symmetry = symmetry();
+        map.randomSeed = randomSeed();
+        System.arraycopy(walls(), 0, map.walls, 0, map.walls.length);
+        System.arraycopy(clouds(), 0, map.clouds, 0, map.clouds.length);
+        System.arraycopy(currents(), 0, map.currents, 0, map.currents.length);
+        System.arraycopy(islands(), 0, map.islands, 0, map.islands.length);
+        System.arraycopy(resources(), 0, map.resources, 0, map.resources.length);
+        for (int[] hq : headquarters()) {
+            map.headquarters.add(hq);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,192 @@
+package maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Encodes a MapData as a .map23 flatbuffer without the flatbuffers library: objects are laid out front to
+ * back, each table right after its vtable, and every offset is filled in once the object it points to has
+ * been written after it (flatbuffer offsets only point forward).
+ */
+public class MapWriter {
+    byte[] buffer = new byte[1 << 16];
+    int size = 0;
+
+    public static void write(MapData map, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        parent.mkdirs();
+        Files.write(file.toPath(), encode(map));
+    }
+
+    /**
+     * A directory under workDir holding a copy of mapDir/<map>.map23 with its random seed replaced, for the
+     * engine's bc.server.map-path; written on first use.
+     */
+    public static synchronized File seededCopy(File mapDir, String map, int seed, File workDir) throws IOException {
+        File dir = new File(workDir, "seeds/" + seed);
+        File copy = new File(dir, map + ".map23");
+        if (!copy.exists()) {
+            File original = new File(mapDir, map + ".map23");
+            if (!original.exists()) {
+                throw new IOException("seeds need the map file, and " + original + " does not exist");
+            }
+            MapData data = new MapReader(original).toMapData();
+            data.randomSeed = seed;
+            write(data, copy);
+        }
+        return dir;
+    }
+
+    public static byte[] encode(MapData map) {
+        MapWriter out = new MapWriter();
+        int rootSlot = out.offsetSlot();
+
+        //GameMap: soffset, name, minCorner, maxCorner, symmetry, bodies, randomSeed and the five tile vectors
+        int[] mapLayout = new int[MapFormat.mapFields];
+        int position = 4;
+        for (int field = 0; field < MapFormat.mapFields; field ++) {
+            mapLayout[field] = position;
+            position += field == MapFormat.mapMinCorner || field == MapFormat.mapMaxCorner ? 8 : 4;
+        }
+        int gameMap = out.table(mapLayout, position);
+        out.pointAt(rootSlot, gameMap);
+        out.putInt(gameMap + mapLayout[MapFormat.mapMinCorner], 0);
+        out.putInt(gameMap + mapLayout[MapFormat.mapMinCorner] + 4, 0);
+        out.putInt(gameMap + mapLayout[MapFormat.mapMaxCorner], map.width);
+        out.putInt(gameMap + mapLayout[MapFormat.mapMaxCorner] + 4, map.height);
+        out.putInt(gameMap + mapLayout[MapFormat.mapSymmetry], map.symmetry);
+        out.putInt(gameMap + mapLayout[MapFormat.mapRandomSeed], map.randomSeed);
+
+        out.pointAt(gameMap + mapLayout[MapFormat.mapName], out.string(map.name));
+
+        int numBodies = map.headquarters.size();
+        int[] ids = new int[numBodies];
+        byte[] teams = new byte[numBodies];
+        int[] xs = new int[numBodies];
+        int[] ys = new int[numBodies];
+        for (int i = 0; i < numBodies; i ++) {
+            int[] hq = map.headquarters.get(i);
+            ids[i] = i + 1;
+            xs[i] = hq[0];
+            ys[i] = hq[1];
+            teams[i] = (byte) hq[2];
+        }
+        byte[] types = new byte[numBodies];
+        Arrays.fill(types, (byte) MapFormat.headquartersType);
+
+        int[] bodyLayout = fourByteFields(MapFormat.bodyFields);
+        int bodies = out.table(bodyLayout, 4 + 4 * MapFormat.bodyFields);
+        out.pointAt(gameMap + mapLayout[MapFormat.mapBodies], bodies);
+        int[] vecLayout = fourByteFields(MapFormat.vecFields);
+        int locations = out.table(vecLayout, 4 + 4 * MapFormat.vecFields);
+        out.pointAt(bodies + bodyLayout[MapFormat.bodyLocations], locations);
+        out.pointAt(bodies + bodyLayout[MapFormat.bodyIds], out.intVector(ids));
+        out.pointAt(bodies + bodyLayout[MapFormat.bodyTeams], out.byteVector(teams));
+        out.pointAt(bodies + bodyLayout[MapFormat.bodyTypes], out.byteVector(types));
+        out.pointAt(locations + vecLayout[MapFormat.vecXs], out.intVector(xs));
+        out.pointAt(locations + vecLayout[MapFormat.vecYs], out.intVector(ys));
+
+        out.pointAt(gameMap + mapLayout[MapFormat.mapWalls], out.byteVector(bytes(map.walls)));
+        out.pointAt(gameMap + mapLayout[MapFormat.mapClouds], out.byteVector(bytes(map.clouds)));
+        out.pointAt(gameMap + mapLayout[MapFormat.mapCurrents], out.byteVector(map.currents));
+        out.pointAt(gameMap + mapLayout[MapFormat.mapIslands], out.intVector(map.islands));
+        out.pointAt(gameMap + mapLayout[MapFormat.mapResources], out.intVector(map.resources));
+        return Arrays.copyOf(out.buffer, out.size);
+    }
+
+    static int[] fourByteFields(int numFields) {
+        int[] layout = new int[numFields];
+        for (int field = 0; field < numFields; field ++) {
+            layout[field] = 4 + 4 * field;
+        }
+        return layout;
+    }
+
+    static byte[] bytes(boolean[] values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i ++) {
+            bytes[i] = values[i] ? (byte) 1 : 0;
+        }
+        return bytes;
+    }
+
+    /** Writes a vtable for the given field offsets and a zeroed table of tableSize bytes after it; returns the table. */
+    int table(int[] fieldOffsets, int tableSize) {
+        align(2);
+        int vtable = size;
+        int vtableSize = 4 + 2 * fieldOffsets.length;
+        reserve(vtableSize);
+        putShort(vtable, vtableSize);
+        putShort(vtable + 2, tableSize);
+        for (int field = 0; field < fieldOffsets.length; field ++) {
+            putShort(vtable + 4 + 2 * field, fieldOffsets[field]);
+        }
+        align(8);
+        int table = reserve(tableSize);
+        putInt(table, table - vtable);
+        return table;
+    }
+
+    int string(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        align(4);
+        int start = reserve(4 + utf8.length + 1);
+        putInt(start, utf8.length);
+        System.arraycopy(utf8, 0, buffer, start + 4, utf8.length);
+        return start;
+    }
+
+    int byteVector(byte[] values) {
+        align(4);
+        int start = reserve(4 + values.length);
+        putInt(start, values.length);
+        System.arraycopy(values, 0, buffer, start + 4, values.length);
+        return start;
+    }
+
+    int intVector(int[] values) {
+        align(4);
+        int start = reserve(4 + 4 * values.length);
+        putInt(start, values.length);
+        for (int i = 0; i < values.length; i ++) {
+            putInt(start + 4 + 4 * i, values[i]);
+        }
+        return start;
+    }
+
+    int offsetSlot() {
+        align(4);
+        return reserve(4);
+    }
+
+    void pointAt(int slot, int target) {
+        putInt(slot, target - slot);
+    }
+
+    void align(int alignment) {
+        reserve((alignment - size % alignment) % alignment);
+    }
+
+    int reserve(int bytes) {
+        if (size + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+        int start = size;
+        size += bytes;
+        return start;
+    }
+
+    void putShort(int position, int value) {
+        buffer[position] = (byte) value;
+        buffer[position + 1] = (byte) (value >> 8);
+    }
+
+    void putInt(int position, int value) {
+        for (int i = 0; i < 4; i ++) {
+            buffer[position + i] = (byte) (value >> (8 * i));
+        }
+    }
+}
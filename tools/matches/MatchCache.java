@@ -0,0 +1,163 @@
+package matches;
+
+import maps.MapReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Results of matches already played, on disk, keyed by everything that decides a match: the compiled classes
+ * of each team (by content, so a rebuild that changes nothing still hits), which side each played, the map
+ * file, the engine version and the seed. A changed player only replays the matches it is in.
+ *
+ * Each result is a small properties file <dir>/<key[0..2]>/<key>, written to a temporary file and renamed so
+ * parallel runners never read half an entry. Maps the engine ships with have no file in the map directory and
+ * are keyed by name, which the engine version pins.
+ */
+public class MatchCache {
+    final File dir;
+    final String engineVersion;
+    final Map<String, String> hashes = new ConcurrentHashMap<String, String>(); //by path and newest modification
+
+    public MatchCache(File dir, String engineVersion) {
+        this.dir = dir;
+        this.engineVersion = engineVersion;
+    }
+
+    /** The engine version in a project's version.txt. */
+    public static String engineVersion(File projectDir) throws IOException {
+        return new String(Files.readAllBytes(new File(projectDir, "version.txt").toPath()), StandardCharsets.UTF_8).trim();
+    }
+
+    public String key(MatchRunner.Match match, File mapDir) throws IOException {
+        File mapFile = new File(mapDir, match.map + ".map23");
+        return sha256("engine=" + engineVersion
+            + "\nteamA=" + classesHash(match.a)
+            + "\nteamB=" + classesHash(match.b)
+            + "\nmap=" + (mapFile.exists() ? mapHash(mapFile) : "engine:" + match.map)
+            + "\nseed=" + match.seed + "\n");
+    }
+
+    /** The cached result for key, or null. */
+    public MatchRunner.Result get(String key, MatchRunner.Match match) throws IOException {
+        File file = file(key);
+        if (!file.exists()) {
+            return null;
+        }
+        Properties entry = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            entry.load(in);
+        } finally {
+            in.close();
+        }
+        MatchRunner.Result result = new MatchRunner.Result(match, entry.getProperty("winner").charAt(0), Integer.parseInt(entry.getProperty("rounds")));
+        result.reason = entry.getProperty("reason");
+        result.millis = Long.parseLong(entry.getProperty("millis", "0"));
+        result.replay = entry.containsKey("replay") ? new File(entry.getProperty("replay")) : null;
+        result.cached = true;
+        return result;
+    }
+
+    public void put(String key, MatchRunner.Result result) throws IOException {
+        Properties entry = new Properties();
+        entry.setProperty("teamA", result.match.a.pkg);
+        entry.setProperty("teamB", result.match.b.pkg);
+        entry.setProperty("map", result.match.map);
+        entry.setProperty("seed", String.valueOf(result.match.seed));
+        entry.setProperty("winner", String.valueOf(result.winner));
+        entry.setProperty("rounds", String.valueOf(result.rounds));
+        entry.setProperty("millis", String.valueOf(result.millis));
+        if (result.reason != null) {
+            entry.setProperty("reason", result.reason);
+        }
+        if (result.replay != null) {
+            entry.setProperty("replay", result.replay.getAbsolutePath());
+        }
+        File file = file(key);
+        file.getParentFile().mkdirs();
+        File temp = File.createTempFile(key, ".tmp", file.getParentFile());
+        OutputStream out = new FileOutputStream(temp);
+        try {
+            entry.store(out, null);
+        } finally {
+            out.close();
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    File file(String key) {
+        return new File(dir, key.substring(0, 2) + "/" + key);
+    }
+
+    /** Hash of every file of the player's package, by path relative to its classes directory and contents. */
+    String classesHash(PlayerBuild.Player player) throws IOException {
+        File root = new File(player.classes, player.pkg.replace('.', '/'));
+        List<File> files = new ArrayList<File>();
+        collect(root, files);
+        Collections.sort(files);
+        long newest = 0;
+        for (File file : files) {
+            newest = Math.max(newest, file.lastModified());
+        }
+        String memo = root.getAbsolutePath() + "@" + newest + "#" + files.size();
+        String hash = hashes.get(memo);
+        if (hash == null) {
+            MessageDigest digest = digest();
+            for (File file : files) {
+                digest.update(root.toPath().relativize(file.toPath()).toString().replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(Files.readAllBytes(file.toPath()));
+            }
+            hash = hex(digest.digest());
+            hashes.put(memo, hash);
+        }
+        return hash;
+    }
+
+    static void collect(File file, List<File> files) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                collect(child, files);
+            }
+        } else if (file.isFile()) {
+            files.add(file);
+        }
+    }
+
+    String mapHash(File mapFile) throws IOException {
+        String memo = mapFile.getAbsolutePath() + "@" + mapFile.lastModified() + "#" + mapFile.length();
+        String hash = hashes.get(memo);
+        if (hash == null) {
+            hash = new MapReader(mapFile).hash();
+            hashes.put(memo, hash);
+        }
+        return hash;
+    }
+
+    static String sha256(String text) {
+        return hex(digest().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b & 0xff));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,195 @@
+package matches;
+
+import maps.MapWriter;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A long-lived local match service, so short matches stop paying gradle configuration and a cold JVM each.
+ *
+ *   java matches.MatchDaemon --classpath <engine classpath> --map-dir maps --port 7023 --workers 8
+ *
+ * The daemon keeps --workers MatchWorker JVMs with the engine loaded and hands each request to an idle one,
+ * so up to --workers matches run at once and each runs on a warm engine. Requests arrive on a localhost
+ * socket, one per line, answered in order on the same connection:
+ *
+ *   <teamA package>\t<teamA classes>\t<teamB package>\t<teamB classes>\t<map>\t<seed or ->\t<replay file or ->
+ *   -> ok <A|B> <rounds>   or   error <message>
+ *
+ * A seed replaces the map's random seed: the daemon writes a copy of the map with that seed under its work
+ * directory and plays on the copy. A worker that dies (the engine can exit the JVM on errors) is replaced and
+ * its request answered with an error. MatchRunner.useDaemon(port) sends a runner's matches here.
+ */
+public class MatchDaemon {
+    public static final int defaultPort = 7023;
+
+    final String classpath;
+    final File mapDir;
+    final File workDir;
+    final BlockingQueue<Worker> idle = new LinkedBlockingQueue<Worker>();
+
+    /** A MatchWorker JVM and the pipes to it. */
+    class Worker {
+        Process process;
+        BufferedWriter requests;
+        BufferedReader results;
+
+        Worker() throws IOException {
+            String workerClasses = new File(MatchDaemon.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+            process = new ProcessBuilder(
+                new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-cp", classpath + File.pathSeparator + workerClasses,
+                MatchWorker.class.getName())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+            requests = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            results = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        String run(String properties) throws IOException {
+            requests.write(properties);
+            requests.newLine();
+            requests.flush();
+            String line;
+            while ((line = results.readLine()) != null) {
+                if (line.startsWith(MatchWorker.resultPrefix)) {
+                    return line.substring(MatchWorker.resultPrefix.length());
+                }
+            }
+            try {
+                process.waitFor(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("worker exited" + (process.isAlive() ? "" : " with status " + process.exitValue()));
+        }
+    }
+
+    public MatchDaemon(String classpath, File mapDir, File workDir, int workers) throws IOException {
+        this.classpath = classpath;
+        this.mapDir = mapDir;
+        this.workDir = workDir;
+        for (int i = 0; i < workers; i ++) {
+            idle.add(new Worker());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("java.class.path");
+        String mapDir = "maps";
+        String workDir = "build/match-daemon";
+        int port = defaultPort;
+        int workers = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            if (args[i].equals("--classpath")) {
+                classpath = value;
+            } else if (args[i].equals("--map-dir")) {
+                mapDir = value;
+            } else if (args[i].equals("--work")) {
+                workDir = value;
+            } else if (args[i].equals("--port")) {
+                port = Integer.parseInt(value);
+            } else if (args[i].equals("--workers")) {
+                workers = Integer.parseInt(value);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        final MatchDaemon daemon = new MatchDaemon(classpath, new File(mapDir), new File(workDir), workers);
+        ServerSocket server = new ServerSocket(port, 64, InetAddress.getLoopbackAddress());
+        System.out.println("match daemon on port " + port + " with " + workers + " workers");
+        ExecutorService connections = Executors.newCachedThreadPool();
+        while (true) {
+            final Socket socket = server.accept();
+            connections.submit(new Runnable() {
+                public void run() {
+                    daemon.serve(socket);
+                }
+            });
+        }
+    }
+
+    void serve(Socket socket) {
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    out.write(handle(line) + "\n");
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            //client went away
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                //already closed
+            }
+        }
+    }
+
+    String handle(String request) {
+        String[] fields = request.split("\t", -1);
+        if (fields.length != 7) {
+            return "error expected 7 tab separated fields, got " + fields.length;
+        }
+        File replay = null;
+        Worker worker = null;
+        try {
+            String matchMapDir = mapDir.getPath();
+            if (!fields[5].equals("-")) {
+                matchMapDir = MapWriter.seededCopy(mapDir, fields[4], Integer.parseInt(fields[5]), workDir).getPath();
+            }
+            replay = fields[6].equals("-") ? File.createTempFile("match", ".bc23") : new File(fields[6]);
+            String properties = String.join("\t",
+                "bc.server.wait-for-client=false",
+                "bc.server.mode=headless",
+                "bc.server.map-path=" + matchMapDir,
+                "bc.server.robot-player-to-system-out=false",
+                "bc.server.debug=false",
+                "bc.engine.debug-methods=false",
+                "bc.engine.enable-profiler=false",
+                "bc.engine.show-indicators=false",
+                "bc.game.team-a=" + fields[0],
+                "bc.game.team-b=" + fields[2],
+                "bc.game.team-a.url=" + fields[1],
+                "bc.game.team-b.url=" + fields[3],
+                "bc.game.team-a.package=" + fields[0],
+                "bc.game.team-b.package=" + fields[2],
+                "bc.game.maps=" + fields[4],
+                "bc.server.save-file=" + replay.getPath());
+            worker = idle.take();
+            return worker.run(properties);
+        } catch (IOException e) {
+            if (worker != null) {
+                worker.process.destroy();
+                try {
+                    worker = new Worker();
+                } catch (IOException restart) {
+                    worker = null;
+                    return "error " + e.getMessage() + "; could not restart the worker: " + restart.getMessage();
+                }
+            }
+            return "error " + e.getMessage();
+        } catch (InterruptedException | NumberFormatException e) {
+            return "error " + e;
+        } finally {
+            if (worker != null) {
+                idle.add(worker);
+            }
+            if (replay != null && fields[6].equals("-")) {
+                replay.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package matches;
+
+import maps.MapWriter;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs headless battlecode.server.Main matches, each in its own JVM so matches can run side by side on
+ * every core. Settings mirror the run task in build.gradle, with robot output and indicators off.
+ */
+public class MatchRunner {
+    static final Pattern winLine = Pattern.compile("\\(([AB])\\) wins \\(round (\\d+)\\)");
+    static final Pattern reasonLine = Pattern.compile("Reason: (.*)");
+
+    public static class Match {
+        public final PlayerBuild.Player a;
+        public final PlayerBuild.Player b;
+        public final String map;
+        public final int seed; //replaces the map's random seed; -1 keeps it
+
+        public Match(PlayerBuild.Player a, PlayerBuild.Player b, String map) {
+            this(a, b, map, -1);
+        }
+
+        public Match(PlayerBuild.Player a, PlayerBuild.Player b, String map, int seed) {
+            this.a = a;
+            this.b = b;
+            this.map = map;
+            this.seed = seed;
+        }
+
+        public String toString() {
+            return a + " vs " + b + " on " + map;
+        }
+    }
+
+    public static class Result {
+        public final Match match;
+        public final char winner; //'A' or 'B'
+        public final int rounds;
+        public String reason; //the engine's reason for the win, if it gave one
+        public long millis; //wall time the match took when it was played
+        public File replay; //null when replays were thrown away
+        public boolean cached; //came from a MatchCache rather than a match
+
+        public Result(Match match, char winner, int rounds) {
+            this.match = match;
+            this.winner = winner;
+            this.rounds = rounds;
+        }
+
+        public PlayerBuild.Player winningPlayer() {
+            return winner == 'A' ? match.a : match.b;
+        }
+    }
+
+    final String classpath;
+    final File mapDir;
+    final File replayDir; //null to throw replays away
+    int daemonPort = -1;
+    MatchCache cache;
+
+    /** classpath: the engine and its dependencies, without any player classes. */
+    public MatchRunner(String classpath, File mapDir, File replayDir) {
+        this.classpath = classpath;
+        this.mapDir = mapDir;
+        this.replayDir = replayDir;
+    }
+
+    /** Sends matches to the MatchDaemon on this port instead of starting a JVM for each. */
+    public MatchRunner useDaemon(int port) {
+        daemonPort = port;
+        return this;
+    }
+
+    /** Answers matches whose inputs were played before from cache, and records the rest there. */
+    public MatchRunner useCache(MatchCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    public Result run(Match match) throws IOException, InterruptedException {
+        String key = null;
+        if (cache != null) {
+            key = cache.key(match, mapDir);
+            Result cached = cache.get(key, match);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long start = System.currentTimeMillis();
+        Result result = daemonPort != -1 ? runOnDaemon(match, key) : runInJvm(match, key);
+        result.millis = System.currentTimeMillis() - start;
+        if (key != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Where the replay of match goes. The seed and the cache key (null without a cache) are part of the name, so
+     * matches that differ only in those do not overwrite a replay a cache entry points to.
+     */
+    File replayFile(Match match, String key) {
+        return new File(replayDir, match.a.pkg + "-vs-" + match.b.pkg + "-on-" + match.map
+            + (match.seed == -1 ? "" : "-seed" + match.seed) + (key == null ? "" : "-" + key.substring(0, 12)) + ".bc23");
+    }
+
+    Result runInJvm(Match match, String key) throws IOException, InterruptedException {
+        File matchMapDir = match.seed == -1 ? mapDir : MapWriter.seededCopy(mapDir, match.map, match.seed, new File(System.getProperty("java.io.tmpdir"), "bc-maps"));
+        File replay;
+        if (replayDir != null) {
+            replayDir.mkdirs();
+            replay = replayFile(match, key);
+        } else {
+            replay = File.createTempFile("match", ".bc23");
+        }
+        List<String> command = new ArrayList<String>(Arrays.asList(
+            new File(System.getProperty("java.home"), "bin/java").getPath(),
+            "-Dbc.server.wait-for-client=false",
+            "-Dbc.server.mode=headless",
+            "-Dbc.server.map-path=" + matchMapDir.getPath(),
+            "-Dbc.server.robot-player-to-system-out=false",
+            "-Dbc.server.debug=false",
+            "-Dbc.engine.debug-methods=false",
+            "-Dbc.engine.enable-profiler=false",
+            "-Dbc.engine.show-indicators=false",
+            "-Dbc.game.team-a=" + match.a.pkg,
+            "-Dbc.game.team-b=" + match.b.pkg,
+            "-Dbc.game.team-a.url=" + match.a.classes.getPath(),
+            "-Dbc.game.team-b.url=" + match.b.classes.getPath(),
+            "-Dbc.game.team-a.package=" + match.a.pkg,
+            "-Dbc.game.team-b.package=" + match.b.pkg,
+            "-Dbc.game.maps=" + match.map,
+            "-Dbc.server.save-file=" + replay.getPath(),
+            "-cp", classpath,
+            "battlecode.server.Main",
+            "-c=-"));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        StringBuilder output = new StringBuilder();
+        Result result = null;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            output.append(line).append('\n');
+            Matcher m = winLine.matcher(line);
+            if (m.find()) {
+                result = new Result(match, m.group(1).charAt(0), Integer.parseInt(m.group(2)));
+            }
+            Matcher reason = reasonLine.matcher(line);
+            if (result != null && reason.find()) {
+                result.reason = reason.group(1).trim();
+            }
+        }
+        int exit = process.waitFor();
+        if (replayDir == null) {
+            replay.delete();
+        } else if (result != null) {
+            result.replay = replay;
+        }
+        if (result == null) {
+            throw new IOException(match + ": no winner (exit " + exit + ")\n" + tail(output, 20));
+        }
+        return result;
+    }
+
+    Result runOnDaemon(Match match, String key) throws IOException {
+        String replay = "-";
+        if (replayDir != null) {
+            replayDir.mkdirs();
+            replay = replayFile(match, key).getAbsolutePath();
+        }
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemonPort);
+        try {
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            out.write(match.a.pkg + "\t" + match.a.classes.getAbsolutePath() + "\t" + match.b.pkg + "\t" + match.b.classes.getAbsolutePath() + "\t" + match.map + "\t" + (match.seed == -1 ? "-" : String.valueOf(match.seed)) + "\t" + replay + "\n");
+            out.flush();
+            String response = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine();
+            String[] words = response == null ? new String[0] : response.split(" ");
+            if (words.length != 3 || !words[0].equals("ok")) {
+                throw new IOException(match + ": " + response);
+            }
+            Result result = new Result(match, words[1].charAt(0), Integer.parseInt(words[2]));
+            if (replayDir != null) {
+                result.replay = new File(replay);
+            }
+            return result;
+        } finally {
+            socket.close();
+        }
+    }
+
+    static String tail(StringBuilder output, int lines) {
+        String[] all = output.toString().split("\n");
+        StringBuilder out = new StringBuilder();
+        for (int i = Math.max(0, all.length - lines); i < all.length; i ++) {
+            out.append(all[i]).append('\n');
+        }
+        return out.toString();
+    }
+}
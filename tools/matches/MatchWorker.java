@@ -0,0 +1,75 @@
+package matches;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+
+/**
+ * One warm engine for MatchDaemon: a JVM that runs battlecode.server.Main in-process, one match at a time, for
+ * as long as the daemon lives, so engine classes stay loaded and JIT-compiled across matches.
+ *
+ * Requests come on stdin, one per line, as the tab separated system properties of a match (key=value), the
+ * same ones MatchRunner passes with -D. Each gets exactly one line on stdout: "@@result ok <A|B> <rounds>" or
+ * "@@result error <message>". Everything the engine prints goes to the match's own buffer instead.
+ */
+public class MatchWorker {
+    static final String resultPrefix = "@@result ";
+
+    public static void main(String[] args) throws Exception {
+        PrintStream protocol = new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8");
+        BufferedReader requests = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        Class<?> main = Class.forName("battlecode.server.Main");
+        Method setupConfig = null;
+        Method run = null;
+        Method mainMethod = null;
+        try {
+            setupConfig = main.getMethod("setupConfig", String[].class);
+            run = main.getMethod("run", setupConfig.getReturnType());
+        } catch (NoSuchMethodException e) {
+            //older engines: only main(), which exits the JVM on errors; the daemon restarts us then
+            mainMethod = main.getMethod("main", String[].class);
+        }
+
+        String line;
+        while ((line = requests.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            for (String property : line.split("\t")) {
+                int eq = property.indexOf('=');
+                System.setProperty(property.substring(0, eq), property.substring(eq + 1));
+            }
+            ByteArrayOutputStream captured = new ByteArrayOutputStream();
+            PrintStream capture = new PrintStream(captured, true, "UTF-8");
+            System.setOut(capture);
+            System.setErr(capture);
+            String failure = null;
+            try {
+                String[] engineArgs = {"-c=-"};
+                if (run != null) {
+                    Object config = setupConfig.invoke(null, (Object) engineArgs);
+                    if (!Boolean.TRUE.equals(run.invoke(null, config))) {
+                        failure = "engine reported an error";
+                    }
+                } else {
+                    mainMethod.invoke(null, (Object) engineArgs);
+                }
+            } catch (Throwable t) {
+                failure = String.valueOf(t.getCause() != null ? t.getCause() : t);
+            } finally {
+                capture.flush();
+            }
+
+            String output = captured.toString("UTF-8");
+            Matcher m = MatchRunner.winLine.matcher(output);
+            if (m.find()) {
+                protocol.println(resultPrefix + "ok " + m.group(1) + " " + m.group(2));
+            } else {
+                String[] lines = output.trim().split("\n");
+                String last = lines.length == 0 ? "" : lines[lines.length - 1];
+                protocol.println(resultPrefix + "error " + (failure != null ? failure : "no winner") + ": " + last.replace('\t', ' '));
+            }
+        }
+    }
+}
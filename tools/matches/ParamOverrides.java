@@ -0,0 +1,127 @@
+package matches;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads and rewrites the static final fields of a player's Params.java, the same way build.gradle does for
+ * -Pparams. Override files hold one <package>.<field>=<value> per line, arrays as comma separated values;
+ * values are written without type suffixes, which are added from the field's declared type.
+ */
+public class ParamOverrides {
+    static final Pattern field = Pattern.compile("^(\\s*(?:public\\s+)?static\\s+final\\s+(\\w+(?:\\[\\])?)\\s+(\\w+)\\s*=\\s*)(.+?);(.*)$");
+
+    /** Overrides in file, in file order. */
+    public static Map<String, String> load(File file) throws IOException {
+        Map<String, String> overrides = new LinkedHashMap<String, String>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int eq = line.indexOf('=');
+            if (eq < 0) {
+                throw new IOException(file + ": expected <package>.<field>=<value>, got " + line);
+            }
+            overrides.put(line.substring(0, eq).trim(), line.substring(eq + 1).trim());
+        }
+        return overrides;
+    }
+
+    public static void save(Map<String, String> overrides, File file) throws IOException {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, String> entry : overrides.entrySet()) {
+            out.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Fields of source (a Params.java) as <pkg>.<field> to value in override syntax, in declaration order. */
+    public static Map<String, String> defaults(String source, String pkg) {
+        Map<String, String> values = new LinkedHashMap<String, String>();
+        for (String line : source.split("\n", -1)) {
+            Matcher m = field.matcher(line);
+            if (m.matches()) {
+                values.put(pkg + "." + m.group(3), plain(m.group(4)));
+            }
+        }
+        return values;
+    }
+
+    /** Declared type of every field of source, keyed like defaults(). */
+    public static Map<String, String> types(String source, String pkg) {
+        Map<String, String> types = new LinkedHashMap<String, String>();
+        for (String line : source.split("\n", -1)) {
+            Matcher m = field.matcher(line);
+            if (m.matches()) {
+                types.put(pkg + "." + m.group(3), m.group(2));
+            }
+        }
+        return types;
+    }
+
+    /** source with every field named in overrides (for pkg) replaced; names it replaced are added to applied. */
+    public static String apply(String source, String pkg, Map<String, String> overrides, Set<String> applied) {
+        StringBuilder out = new StringBuilder();
+        String[] lines = source.split("\n", -1);
+        for (int i = 0; i < lines.length; i ++) {
+            String line = lines[i];
+            Matcher m = field.matcher(line);
+            if (m.matches() && overrides.containsKey(pkg + "." + m.group(3))) {
+                String key = pkg + "." + m.group(3);
+                line = m.group(1) + literal(m.group(2), overrides.get(key)) + ";" + m.group(5);
+                applied.add(key);
+            }
+            out.append(line);
+            if (i < lines.length - 1) {
+                out.append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    static String plain(String literal) {
+        String value = literal.trim();
+        if (value.startsWith("{")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        StringBuilder out = new StringBuilder();
+        for (String element : value.split(",")) {
+            String v = element.trim();
+            if (v.endsWith("f") || v.endsWith("F") || v.endsWith("d") || v.endsWith("D") || v.endsWith("L")) {
+                v = v.substring(0, v.length() - 1);
+            }
+            if (out.length() > 0) {
+                out.append(',');
+            }
+            out.append(v);
+        }
+        return out.toString();
+    }
+
+    static String literal(String type, String value) {
+        if (type.endsWith("[]")) {
+            String elementType = type.substring(0, type.length() - 2);
+            StringBuilder out = new StringBuilder("{");
+            for (String element : value.split(",")) {
+                if (out.length() > 1) {
+                    out.append(", ");
+                }
+                out.append(literal(elementType, element.trim()));
+            }
+            return out.append('}').toString();
+        }
+        if (type.equals("float")) {
+            return value + "f";
+        }
+        if (type.equals("int") || type.equals("long")) {
+            return String.valueOf(Math.round(Double.parseDouble(value)));
+        }
+        return value;
+    }
+}
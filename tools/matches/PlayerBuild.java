@@ -0,0 +1,119 @@
+package matches;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds a copy of a player package for local matches: sources are copied under a (possibly different)
+ * package name, compiled with Debug.enabled off like a submission, with Params overrides applied.
+ * Renaming lets several versions of the same bot share one match, each in its own package.
+ */
+public class PlayerBuild {
+    /** A compiled player: what bc.game.team-?.package and .url should be set to. */
+    public static class Player {
+        public final String pkg;
+        public final File classes;
+
+        public Player(String pkg, File classes) {
+            this.pkg = pkg;
+            this.classes = classes;
+        }
+
+        public String toString() {
+            return pkg;
+        }
+    }
+
+    /**
+     * Copies srcRoot/<pkg> (sub-packages included) to workDir/src/<newPkg>, renames the package, switches
+     * Debug off, applies overrides (keyed <pkg>.<field>) and compiles to workDir/classes against classpath.
+     * Fails if an override names no field.
+     */
+    public static Player build(File srcRoot, String pkg, String newPkg, Map<String, String> overrides, File workDir, String classpath) throws IOException {
+        Path from = new File(srcRoot, pkg.replace('.', '/')).toPath();
+        Path srcOut = new File(workDir, "src").toPath();
+        Path to = srcOut.resolve(newPkg.replace('.', '/'));
+        File classes = new File(workDir, "classes");
+        deleteRecursively(workDir.toPath());
+        Files.createDirectories(to);
+        classes.mkdirs();
+
+        Pattern packageRef = Pattern.compile("\\b" + Pattern.quote(pkg) + "(?=[.;])");
+        Set<String> applied = new HashSet<String>();
+        List<File> sources = new ArrayList<File>();
+        for (Path file : listFiles(from)) {
+            if (!file.toString().endsWith(".java")) {
+                continue;
+            }
+            String source = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            String name = file.getFileName().toString();
+            if (name.equals("Debug.java")) {
+                source = source.replace("static final boolean enabled = true;", "static final boolean enabled = false;");
+            } else if (name.equals("Params.java")) {
+                String relative = from.relativize(file.getParent()).toString().replace(File.separatorChar, '.');
+                source = ParamOverrides.apply(source, relative.isEmpty() ? pkg : pkg + "." + relative, overrides, applied);
+            }
+            if (!newPkg.equals(pkg)) {
+                source = packageRef.matcher(source).replaceAll(Matcher.quoteReplacement(newPkg));
+            }
+            Path target = to.resolve(from.relativize(file).toString());
+            Files.createDirectories(target.getParent());
+            Files.write(target, source.getBytes(StandardCharsets.UTF_8));
+            sources.add(target.toFile());
+        }
+        for (String key : overrides.keySet()) {
+            if (key.startsWith(pkg + ".") && !applied.contains(key)) {
+                throw new IOException("no Params field for override " + key);
+            }
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IOException("no Java compiler; run on a JDK");
+        }
+        List<String> args = new ArrayList<String>(Arrays.asList("-nowarn", "-source", "1.8", "-target", "1.8", "-cp", classpath, "-d", classes.getPath()));
+        for (File source : sources) {
+            args.add(source.getPath());
+        }
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        if (compiler.run(null, null, errors, args.toArray(new String[0])) != 0) {
+            throw new IOException("compiling " + newPkg + " failed:\n" + errors.toString("UTF-8"));
+        }
+        return new Player(newPkg, classes);
+    }
+
+    static List<Path> listFiles(Path dir) throws IOException {
+        final List<Path> files = new ArrayList<Path>();
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            public FileVisitResult visitFile(Path file, java.nio.file.attribute.BasicFileAttributes attrs) {
+                files.add(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(files);
+        return files;
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            public FileVisitResult visitFile(Path file, java.nio.file.attribute.BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            public FileVisitResult postVisitDirectory(Path d, IOException e) throws IOException {
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package optimizer;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.*;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Post-compile optimizer for player packages. The engine charges every executed bytecode, so this rewrites
+ * compiled classes to execute fewer of them:
+ *   - InlinePass inlines small straight-line static helpers (directionToInt, resourceTypeToInt, ...)
+ *   - EnumSwitchPass turns enum switches over synthetic $SwitchMap arrays into switches on ordinal()
+ *   - LoopUnrollPass fully unrolls `for (int i = A; i < B; i++)` loops with small constant bounds
+ *
+ * Every class under --in is copied to --out, with classes of --packages rewritten, and a per-method report of
+ * the estimated bytecodes saved per execution is written to --report.
+ *
+ * Usage: BytecodeOptimizer --in build/classes --out build/optimized-classes --packages gopherbot
+ *                          [--report build/reports/bytecode-optimizer.txt]
+ */
+public class BytecodeOptimizer {
+    final List<String> packages = new ArrayList<String>();
+    final Map<String, ClassNode> playerClasses = new TreeMap<String, ClassNode>();
+    final Map<String, MethodReport> reports = new TreeMap<String, MethodReport>();
+    ClassLoader loader;
+
+    static class MethodReport {
+        int sizeBefore;
+        int sizeAfter;
+        int inlinedCalls;
+        int switchesRewritten;
+        int loopsUnrolled;
+        int savedPerExecution;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path in = null;
+        Path out = null;
+        Path report = Paths.get("build/reports/bytecode-optimizer.txt");
+        BytecodeOptimizer optimizer = new BytecodeOptimizer();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--in")) {
+                in = Paths.get(args[i + 1]);
+            } else if (args[i].equals("--out")) {
+                out = Paths.get(args[i + 1]);
+            } else if (args[i].equals("--packages")) {
+                for (String pkg : args[i + 1].split(",")) {
+                    optimizer.packages.add(pkg.trim().replace('.', '/') + "/");
+                }
+            } else if (args[i].equals("--report")) {
+                report = Paths.get(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (in == null || out == null || optimizer.packages.isEmpty()) {
+            throw new IllegalArgumentException("Usage: BytecodeOptimizer --in <dir> --out <dir> --packages <pkg,...> [--report <file>]");
+        }
+        optimizer.run(in, out, report);
+    }
+
+    static int realSize(InsnList insns) {
+        int size = 0;
+        for (AbstractInsnNode insn = insns.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn.getOpcode() >= 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    boolean isPlayerClass(String internalName) {
+        for (String pkg : packages) {
+            if (internalName.startsWith(pkg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    MethodReport report(ClassNode cn, MethodNode mn) {
+        String key = cn.name.replace('/', '.') + "." + mn.name + mn.desc;
+        MethodReport report = reports.get(key);
+        if (report == null) {
+            report = new MethodReport();
+            report.sizeBefore = realSize(mn.instructions);
+            reports.put(key, report);
+        }
+        return report;
+    }
+
+    void run(final Path in, final Path out, Path reportPath) throws IOException {
+        loader = new URLClassLoader(new URL[]{in.toUri().toURL()}, BytecodeOptimizer.class.getClassLoader());
+        final List<Path> classFiles = new ArrayList<Path>();
+        Files.walkFileTree(in, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path target = out.resolve(in.relativize(file).toString());
+                Files.createDirectories(target.getParent());
+                Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                if (file.toString().endsWith(".class")) {
+                    classFiles.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        for (Path file : classFiles) {
+            ClassNode cn = new ClassNode();
+            new ClassReader(Files.readAllBytes(file)).accept(cn, ClassReader.SKIP_FRAMES);
+            if (isPlayerClass(cn.name)) {
+                playerClasses.put(cn.name, cn);
+            }
+        }
+
+        InlinePass inlinePass = new InlinePass(this);
+        EnumSwitchPass enumSwitchPass = new EnumSwitchPass(this);
+        LoopUnrollPass loopUnrollPass = new LoopUnrollPass(this);
+        for (ClassNode cn : playerClasses.values()) {
+            boolean changed = false;
+            for (MethodNode mn : cn.methods) {
+                if (mn.instructions.size() == 0) {
+                    continue;
+                }
+                int before = realSize(mn.instructions);
+                boolean methodChanged = inlinePass.apply(cn, mn);
+                methodChanged |= enumSwitchPass.apply(cn, mn);
+                methodChanged |= loopUnrollPass.apply(cn, mn);
+                if (methodChanged) {
+                    MethodReport report = report(cn, mn);
+                    report.sizeBefore = before;
+                    report.sizeAfter = realSize(mn.instructions);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+                    @Override
+                    protected ClassLoader getClassLoader() {
+                        return loader;
+                    }
+                };
+                cn.accept(writer);
+                Files.write(out.resolve(cn.name + ".class"), writer.toByteArray());
+            }
+        }
+
+        writeReport(reportPath);
+    }
+
+    void writeReport(Path reportPath) throws IOException {
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        PrintWriter out = new PrintWriter(Files.newBufferedWriter(reportPath));
+        try {
+            int totalSaved = 0;
+            out.printf("%-70s %6s %6s %7s %8s %6s %10s%n", "method", "before", "after", "inlined", "switches", "loops", "saved/exec");
+            for (Map.Entry<String, MethodReport> entry : reports.entrySet()) {
+                MethodReport r = entry.getValue();
+                if (r.inlinedCalls + r.switchesRewritten + r.loopsUnrolled == 0) {
+                    continue;
+                }
+                out.printf("%-70s %6d %6d %7d %8d %6d %10d%n", entry.getKey(), r.sizeBefore, r.sizeAfter,
+                    r.inlinedCalls, r.switchesRewritten, r.loopsUnrolled, r.savedPerExecution);
+                totalSaved += r.savedPerExecution;
+            }
+            out.println();
+            out.println("saved/exec is the estimated number of bytecodes saved by one pass through every rewritten site");
+            out.println("of the method (unrolled loops count one full run of the loop). Total: " + totalSaved);
+        } finally {
+            out.close();
+        }
+        System.out.println("Bytecode optimizer report written to " + reportPath);
+    }
+}
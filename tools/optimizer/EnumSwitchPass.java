@@ -0,0 +1,228 @@
+package optimizer;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+/**
+ * javac compiles `switch (e)` on an enum into
+ *   getstatic Outer$1.$SwitchMap$pkg$Enum; <e>; invokevirtual ordinal; iaload; tableswitch
+ * where the synthetic $SwitchMap array maps ordinals to case numbers. This pass reads the mapping out of
+ * the synthetic class's static initializer and switches on ordinal() directly, saving the getstatic and
+ * iaload on every execution.
+ */
+class EnumSwitchPass {
+    final BytecodeOptimizer optimizer;
+    /** "Outer$1.$SwitchMap$pkg$Enum" -> case number -> enum ordinal */
+    final Map<String, Map<Integer, Integer>> switchMaps = new HashMap<String, Map<Integer, Integer>>();
+
+    EnumSwitchPass(BytecodeOptimizer optimizer) {
+        this.optimizer = optimizer;
+        for (ClassNode cn : optimizer.playerClasses.values()) {
+            for (MethodNode mn : cn.methods) {
+                if (mn.name.equals("<clinit>")) {
+                    readSwitchMaps(cn, mn);
+                }
+            }
+        }
+    }
+
+    /** Matches `getstatic $SwitchMap; getstatic Enum.CONST; invokevirtual ordinal; push k; iastore`. */
+    void readSwitchMaps(ClassNode cn, MethodNode clinit) {
+        for (AbstractInsnNode insn = clinit.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn.getOpcode() != Opcodes.GETSTATIC || !((FieldInsnNode) insn).name.startsWith("$SwitchMap$")) {
+                continue;
+            }
+            FieldInsnNode map = (FieldInsnNode) insn;
+            AbstractInsnNode constant = next(insn);
+            AbstractInsnNode ordinal = next(constant);
+            AbstractInsnNode caseNumber = next(ordinal);
+            AbstractInsnNode store = next(caseNumber);
+            if (constant == null || constant.getOpcode() != Opcodes.GETSTATIC || !isOrdinalCall(ordinal)
+                    || intValue(caseNumber) == null || store == null || store.getOpcode() != Opcodes.IASTORE) {
+                continue;
+            }
+            FieldInsnNode enumConstant = (FieldInsnNode) constant;
+            Integer enumOrdinal = ordinalOf(enumConstant.owner, enumConstant.name);
+            if (enumOrdinal == null) {
+                continue;
+            }
+            String key = map.owner + "." + map.name;
+            Map<Integer, Integer> mapping = switchMaps.get(key);
+            if (mapping == null) {
+                mapping = new HashMap<Integer, Integer>();
+                switchMaps.put(key, mapping);
+            }
+            mapping.put(intValue(caseNumber), enumOrdinal);
+        }
+    }
+
+    Integer ordinalOf(String enumOwner, String constantName) {
+        try {
+            Class<?> enumClass = Class.forName(enumOwner.replace('/', '.'), true, optimizer.loader);
+            for (Object constant : enumClass.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equals(constantName)) {
+                    return ((Enum<?>) constant).ordinal();
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            System.err.println("Bytecode optimizer: cannot load " + enumOwner + ", leaving its switches alone");
+        } catch (LinkageError e) {
+            System.err.println("Bytecode optimizer: cannot initialize " + enumOwner + ", leaving its switches alone");
+        }
+        return null;
+    }
+
+    boolean apply(ClassNode cn, MethodNode mn) {
+        boolean changed = false;
+        for (AbstractInsnNode insn = mn.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn.getOpcode() != Opcodes.GETSTATIC) {
+                continue;
+            }
+            FieldInsnNode map = (FieldInsnNode) insn;
+            Map<Integer, Integer> mapping = switchMaps.get(map.owner + "." + map.name);
+            if (mapping == null) {
+                continue;
+            }
+            //the selector expression sits between the getstatic and the iaload; bail if it branches
+            AbstractInsnNode load = insn.getNext();
+            boolean straightLine = true;
+            while (load != null && load.getOpcode() != Opcodes.IALOAD) {
+                if (load instanceof JumpInsnNode || load instanceof TableSwitchInsnNode || load instanceof LookupSwitchInsnNode || isTryCatchLabel(mn, load)) {
+                    straightLine = false;
+                    break;
+                }
+                load = load.getNext();
+            }
+            if (!straightLine || load == null || !isOrdinalCall(previous(load))) {
+                continue;
+            }
+            AbstractInsnNode switchInsn = next(load);
+            AbstractInsnNode replacement = remap(switchInsn, mapping);
+            if (replacement == null) {
+                continue;
+            }
+            mn.instructions.set(switchInsn, replacement);
+            mn.instructions.remove(load);
+            AbstractInsnNode resume = insn.getNext();
+            mn.instructions.remove(insn);
+            insn = resume;
+
+            BytecodeOptimizer.MethodReport report = optimizer.report(cn, mn);
+            report.switchesRewritten++;
+            report.savedPerExecution += 2;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /** Rebuilds a switch keyed by case number into one keyed by ordinal, or null if some case is unmapped. */
+    static AbstractInsnNode remap(AbstractInsnNode switchInsn, Map<Integer, Integer> mapping) {
+        TreeMap<Integer, LabelNode> cases = new TreeMap<Integer, LabelNode>();
+        LabelNode dflt;
+        if (switchInsn instanceof TableSwitchInsnNode) {
+            TableSwitchInsnNode table = (TableSwitchInsnNode) switchInsn;
+            dflt = table.dflt;
+            for (int i = 0; i < table.labels.size(); i ++) {
+                if (table.labels.get(i) == dflt) {
+                    continue;
+                }
+                Integer ordinal = mapping.get(table.min + i);
+                if (ordinal == null) {
+                    return null;
+                }
+                cases.put(ordinal, table.labels.get(i));
+            }
+        } else if (switchInsn instanceof LookupSwitchInsnNode) {
+            LookupSwitchInsnNode lookup = (LookupSwitchInsnNode) switchInsn;
+            dflt = lookup.dflt;
+            for (int i = 0; i < lookup.keys.size(); i ++) {
+                Integer ordinal = mapping.get(lookup.keys.get(i));
+                if (ordinal == null) {
+                    return null;
+                }
+                cases.put(ordinal, lookup.labels.get(i));
+            }
+        } else {
+            return null;
+        }
+        if (cases.isEmpty()) {
+            return null;
+        }
+
+        int min = cases.firstKey();
+        int max = cases.lastKey();
+        if (max - min + 1 <= 2 * cases.size()) {
+            LabelNode[] labels = new LabelNode[max - min + 1];
+            for (int i = min; i <= max; i ++) {
+                LabelNode label = cases.get(i);
+                labels[i - min] = label == null ? dflt : label;
+            }
+            return new TableSwitchInsnNode(min, max, dflt, labels);
+        }
+        int[] keys = new int[cases.size()];
+        LabelNode[] labels = new LabelNode[cases.size()];
+        int i = 0;
+        for (Map.Entry<Integer, LabelNode> entry : cases.entrySet()) {
+            keys[i] = entry.getKey();
+            labels[i] = entry.getValue();
+            i++;
+        }
+        return new LookupSwitchInsnNode(dflt, keys, labels);
+    }
+
+    static boolean isTryCatchLabel(MethodNode mn, AbstractInsnNode insn) {
+        if (!(insn instanceof LabelNode) || mn.tryCatchBlocks == null) {
+            return false;
+        }
+        for (TryCatchBlockNode block : mn.tryCatchBlocks) {
+            if (block.start == insn || block.end == insn || block.handler == insn) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isOrdinalCall(AbstractInsnNode insn) {
+        return insn instanceof MethodInsnNode && insn.getOpcode() == Opcodes.INVOKEVIRTUAL
+            && ((MethodInsnNode) insn).name.equals("ordinal") && ((MethodInsnNode) insn).desc.equals("()I");
+    }
+
+    static Integer intValue(AbstractInsnNode insn) {
+        if (insn == null) {
+            return null;
+        }
+        int op = insn.getOpcode();
+        if (op >= Opcodes.ICONST_M1 && op <= Opcodes.ICONST_5) {
+            return op - Opcodes.ICONST_0;
+        }
+        if (op == Opcodes.BIPUSH || op == Opcodes.SIPUSH) {
+            return ((IntInsnNode) insn).operand;
+        }
+        if (op == Opcodes.LDC && ((LdcInsnNode) insn).cst instanceof Integer) {
+            return (Integer) ((LdcInsnNode) insn).cst;
+        }
+        return null;
+    }
+
+    /** Next real instruction, skipping labels, line numbers and frames. */
+    static AbstractInsnNode next(AbstractInsnNode insn) {
+        if (insn == null) {
+            return null;
+        }
+        insn = insn.getNext();
+        while (insn != null && insn.getOpcode() < 0) {
+            insn = insn.getNext();
+        }
+        return insn;
+    }
+
+    static AbstractInsnNode previous(AbstractInsnNode insn) {
+        insn = insn.getPrevious();
+        while (insn != null && insn.getOpcode() < 0) {
+            insn = insn.getPrevious();
+        }
+        return insn;
+    }
+}
@@ -0,0 +1,256 @@
+package optimizer;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+/**
+ * Inlines calls to small static helpers in player packages. A helper qualifies when it is straight-line code
+ * (no jumps, switches or exception handlers), ends in its only return, and inlining it executes fewer
+ * bytecodes than the call did; a call site only gets the body if everything it touches is accessible from
+ * the calling class. Arguments are spilled to fresh locals; a spill immediately followed by its only load is
+ * then dropped so the value stays on the stack.
+ */
+class InlinePass {
+    static final int maxCalleeSize = 12;
+
+    final BytecodeOptimizer optimizer;
+    final Map<String, MethodNode> candidates = new HashMap<String, MethodNode>();
+
+    InlinePass(BytecodeOptimizer optimizer) {
+        this.optimizer = optimizer;
+        for (ClassNode cn : optimizer.playerClasses.values()) {
+            for (MethodNode mn : cn.methods) {
+                if (isCandidate(cn, mn)) {
+                    candidates.put(cn.name + "." + mn.name + mn.desc, mn);
+                }
+            }
+        }
+    }
+
+    boolean isCandidate(ClassNode cn, MethodNode mn) {
+        if ((mn.access & Opcodes.ACC_STATIC) == 0 || (mn.access & (Opcodes.ACC_SYNCHRONIZED | Opcodes.ACC_NATIVE | Opcodes.ACC_ABSTRACT)) != 0) {
+            return false;
+        }
+        if (mn.name.startsWith("<") || (mn.tryCatchBlocks != null && !mn.tryCatchBlocks.isEmpty())) {
+            return false;
+        }
+        if (BytecodeOptimizer.realSize(mn.instructions) > maxCalleeSize) {
+            return false;
+        }
+        AbstractInsnNode last = mn.instructions.getLast();
+        while (last != null && last.getOpcode() < 0) {
+            last = last.getPrevious();
+        }
+        if (last == null || last.getOpcode() < Opcodes.IRETURN || last.getOpcode() > Opcodes.RETURN) {
+            return false;
+        }
+        for (AbstractInsnNode insn = mn.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            int op = insn.getOpcode();
+            if (insn instanceof JumpInsnNode || insn instanceof TableSwitchInsnNode || insn instanceof LookupSwitchInsnNode) {
+                return false;
+            }
+            if (op >= Opcodes.IRETURN && op <= Opcodes.RETURN && insn != last) {
+                return false;
+            }
+            if (op == Opcodes.ATHROW || op == Opcodes.MONITORENTER || op == Opcodes.MONITOREXIT || insn instanceof InvokeDynamicInsnNode) {
+                return false;
+            }
+            if (insn instanceof MethodInsnNode) {
+                MethodInsnNode call = (MethodInsnNode) insn;
+                if (op == Opcodes.INVOKESPECIAL && !call.name.equals("<init>")) {
+                    return false;
+                }
+                if (call.owner.equals(cn.name) && call.name.equals(mn.name) && call.desc.equals(mn.desc)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether every class and member callee touches can still be reached once its body is copied into caller:
+     * private members only from their own class, package-private and protected ones (and anything of a
+     * non-public class) only from the same package. Classes outside the player packages are taken as public.
+     */
+    boolean accessibleFrom(String caller, MethodNode callee) {
+        for (AbstractInsnNode insn = callee.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof MethodInsnNode) {
+                MethodInsnNode call = (MethodInsnNode) insn;
+                if (!isAccessible(caller, call.owner, call.name, call.desc, true)) {
+                    return false;
+                }
+            } else if (insn instanceof FieldInsnNode) {
+                FieldInsnNode field = (FieldInsnNode) insn;
+                if (!isAccessible(caller, field.owner, field.name, field.desc, false)) {
+                    return false;
+                }
+            } else if (insn instanceof TypeInsnNode) {
+                if (!isClassAccessible(caller, Type.getObjectType(((TypeInsnNode) insn).desc))) {
+                    return false;
+                }
+            } else if (insn instanceof LdcInsnNode && ((LdcInsnNode) insn).cst instanceof Type) {
+                if (!isClassAccessible(caller, (Type) ((LdcInsnNode) insn).cst)) {
+                    return false;
+                }
+            } else if (insn instanceof MultiANewArrayInsnNode) {
+                if (!isClassAccessible(caller, Type.getType(((MultiANewArrayInsnNode) insn).desc))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    boolean isClassAccessible(String caller, Type type) {
+        while (type.getSort() == Type.ARRAY) {
+            type = type.getElementType();
+        }
+        if (type.getSort() != Type.OBJECT) {
+            return true;
+        }
+        ClassNode cn = optimizer.playerClasses.get(type.getInternalName());
+        return cn == null || (cn.access & Opcodes.ACC_PUBLIC) != 0 || samePackage(caller, cn.name);
+    }
+
+    boolean isAccessible(String caller, String owner, String name, String desc, boolean isMethod) {
+        if (!isClassAccessible(caller, Type.getObjectType(owner))) {
+            return false;
+        }
+        ClassNode cn = optimizer.playerClasses.get(owner);
+        while (cn != null) {
+            int access = -1;
+            if (isMethod) {
+                for (MethodNode mn : cn.methods) {
+                    if (mn.name.equals(name) && mn.desc.equals(desc)) {
+                        access = mn.access;
+                    }
+                }
+            } else {
+                for (FieldNode fn : cn.fields) {
+                    if (fn.name.equals(name) && fn.desc.equals(desc)) {
+                        access = fn.access;
+                    }
+                }
+            }
+            if (access != -1) {
+                if ((access & Opcodes.ACC_PRIVATE) != 0) {
+                    return caller.equals(cn.name);
+                }
+                return (access & Opcodes.ACC_PUBLIC) != 0 || samePackage(caller, cn.name);
+            }
+            cn = optimizer.playerClasses.get(cn.superName);
+        }
+        return optimizer.playerClasses.get(owner) == null; //declared outside the player packages, or not found: keep the call
+    }
+
+    static boolean samePackage(String a, String b) {
+        return a.substring(0, a.lastIndexOf('/') + 1).equals(b.substring(0, b.lastIndexOf('/') + 1));
+    }
+
+    boolean apply(ClassNode cn, MethodNode mn) {
+        boolean changed = false;
+        for (AbstractInsnNode insn = mn.instructions.getFirst(); insn != null; ) {
+            AbstractInsnNode next = insn.getNext();
+            if (insn.getOpcode() == Opcodes.INVOKESTATIC) {
+                MethodInsnNode call = (MethodInsnNode) insn;
+                String key = call.owner + "." + call.name + call.desc;
+                MethodNode callee = candidates.get(key);
+                if (callee != null && callee != mn && (callee.access & Opcodes.ACC_STRICT) == (mn.access & Opcodes.ACC_STRICT) && accessibleFrom(cn.name, callee)) {
+                    int saved = inline(mn, call, callee);
+                    if (saved > 0) {
+                        BytecodeOptimizer.MethodReport report = optimizer.report(cn, mn);
+                        report.inlinedCalls++;
+                        report.savedPerExecution += saved;
+                        changed = true;
+                    }
+                }
+            }
+            insn = next;
+        }
+        return changed;
+    }
+
+    /** Replaces call with callee's body; returns bytecodes saved per execution, or 0 if it left the call alone. */
+    int inline(MethodNode caller, MethodInsnNode call, MethodNode callee) {
+        int base = caller.maxLocals;
+        InsnList body = new InsnList();
+
+        Type[] argTypes = Type.getArgumentTypes(callee.desc);
+        int[] argSlots = new int[argTypes.length];
+        int slot = 0;
+        for (int i = 0; i < argTypes.length; i ++) {
+            argSlots[i] = slot;
+            slot += argTypes[i].getSize();
+        }
+        for (int i = argTypes.length - 1; i >= 0; i --) {
+            body.add(new VarInsnNode(argTypes[i].getOpcode(Opcodes.ISTORE), base + argSlots[i]));
+        }
+
+        Map<LabelNode, LabelNode> labels = new HashMap<LabelNode, LabelNode>();
+        for (AbstractInsnNode insn = callee.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof LabelNode) {
+                labels.put((LabelNode) insn, new LabelNode());
+            }
+        }
+        for (AbstractInsnNode insn = callee.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            int op = insn.getOpcode();
+            if (op < 0 || (op >= Opcodes.IRETURN && op <= Opcodes.RETURN)) {
+                continue;
+            }
+            AbstractInsnNode copy = insn.clone(labels);
+            if (copy instanceof VarInsnNode) {
+                ((VarInsnNode) copy).var += base;
+            } else if (copy instanceof IincInsnNode) {
+                ((IincInsnNode) copy).var += base;
+            }
+            body.add(copy);
+        }
+        dropSpills(body);
+
+        int calleeCost = BytecodeOptimizer.realSize(callee.instructions) + 1; //+1 for the invoke itself
+        int inlinedCost = BytecodeOptimizer.realSize(body);
+        if (inlinedCost >= calleeCost) {
+            return 0;
+        }
+        caller.instructions.insert(call, body);
+        caller.instructions.remove(call);
+        caller.maxLocals = base + callee.maxLocals;
+        return calleeCost - inlinedCost;
+    }
+
+    /** Removes `xSTORE k; xLOAD k` pairs whose local is used nowhere else in the inlined body. */
+    static void dropSpills(InsnList body) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (AbstractInsnNode insn = body.getFirst(); insn != null && insn.getNext() != null; insn = insn.getNext()) {
+                if (!(insn instanceof VarInsnNode) || !(insn.getNext() instanceof VarInsnNode)) {
+                    continue;
+                }
+                VarInsnNode store = (VarInsnNode) insn;
+                VarInsnNode load = (VarInsnNode) insn.getNext();
+                if (store.getOpcode() < Opcodes.ISTORE || store.getOpcode() > Opcodes.ASTORE || load.var != store.var
+                        || load.getOpcode() != store.getOpcode() - (Opcodes.ISTORE - Opcodes.ILOAD)) {
+                    continue;
+                }
+                int uses = 0;
+                for (AbstractInsnNode other = body.getFirst(); other != null; other = other.getNext()) {
+                    if ((other instanceof VarInsnNode && ((VarInsnNode) other).var == store.var)
+                            || (other instanceof IincInsnNode && ((IincInsnNode) other).var == store.var)) {
+                        uses++;
+                    }
+                }
+                if (uses == 2) {
+                    body.remove(load);
+                    body.remove(store);
+                    changed = true;
+                    break;
+                }
+            }
+        }
+    }
+}
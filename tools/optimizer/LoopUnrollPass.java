@@ -0,0 +1,193 @@
+package optimizer;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+/**
+ * Fully unrolls counted loops with constant bounds, as javac emits them for
+ * `for (int i = A; i < B; i++)` (or `i <= B`):
+ *
+ *   push A; istore i; HEAD: iload i; push B; if_icmpge END; BODY; iinc i 1; goto HEAD; END:
+ *
+ * becomes `push A; istore i; BODY; iinc i 1; BODY'; iinc i 1; ...; END:`, which keeps i's value exact at
+ * every point (so continue/break and reads of i after the loop still behave) but drops the compare and
+ * jump from every iteration. The body must not write i, jump back to HEAD, or contain exception handlers.
+ */
+class LoopUnrollPass {
+    static final int maxIterations = 8;
+    static final int maxUnrolledSize = 240;
+
+    final BytecodeOptimizer optimizer;
+
+    LoopUnrollPass(BytecodeOptimizer optimizer) {
+        this.optimizer = optimizer;
+    }
+
+    boolean apply(ClassNode cn, MethodNode mn) {
+        boolean changed = false;
+        boolean found = true;
+        while (found) {
+            found = false;
+            for (AbstractInsnNode insn = mn.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                if (insn.getOpcode() == Opcodes.ISTORE && tryUnroll(cn, mn, (VarInsnNode) insn)) {
+                    found = true;
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    boolean tryUnroll(ClassNode cn, MethodNode mn, VarInsnNode init) {
+        Integer start = EnumSwitchPass.intValue(EnumSwitchPass.previous(init));
+        if (start == null) {
+            return false;
+        }
+        int var = init.var;
+
+        //HEAD: iload i; push B; if_icmpge/if_icmpgt END
+        LabelNode head = null;
+        for (AbstractInsnNode insn = init.getNext(); insn != null && insn.getOpcode() < 0; insn = insn.getNext()) {
+            if (insn instanceof LabelNode) {
+                head = (LabelNode) insn;
+            }
+        }
+        AbstractInsnNode load = EnumSwitchPass.next(init);
+        AbstractInsnNode bound = EnumSwitchPass.next(load);
+        AbstractInsnNode test = EnumSwitchPass.next(bound);
+        if (head == null || load == null || load.getOpcode() != Opcodes.ILOAD || ((VarInsnNode) load).var != var
+                || EnumSwitchPass.intValue(bound) == null || test == null
+                || (test.getOpcode() != Opcodes.IF_ICMPGE && test.getOpcode() != Opcodes.IF_ICMPGT)) {
+            return false;
+        }
+        int iterations = EnumSwitchPass.intValue(bound) - start + (test.getOpcode() == Opcodes.IF_ICMPGT ? 1 : 0);
+        LabelNode end = ((JumpInsnNode) test).label;
+
+        //... BODY; iinc i 1; goto HEAD; END
+        AbstractInsnNode backJump = end.getPrevious();
+        while (backJump != null && backJump.getOpcode() < 0) {
+            backJump = backJump.getPrevious();
+        }
+        if (backJump == null || backJump.getOpcode() != Opcodes.GOTO || ((JumpInsnNode) backJump).label != head) {
+            return false;
+        }
+        AbstractInsnNode increment = EnumSwitchPass.previous(backJump);
+        if (!(increment instanceof IincInsnNode) || ((IincInsnNode) increment).var != var || ((IincInsnNode) increment).incr != 1) {
+            return false;
+        }
+        if (iterations < 1 || iterations > maxIterations) {
+            return false;
+        }
+
+        //collect the body and check it is self-contained
+        List<AbstractInsnNode> body = new ArrayList<AbstractInsnNode>();
+        Set<LabelNode> bodyLabels = new HashSet<LabelNode>();
+        int bodySize = 0;
+        for (AbstractInsnNode insn = test.getNext(); insn != increment; insn = insn.getNext()) {
+            body.add(insn);
+            if (insn instanceof LabelNode) {
+                bodyLabels.add((LabelNode) insn);
+            }
+            if (insn.getOpcode() >= 0) {
+                bodySize++;
+            }
+            if ((insn instanceof VarInsnNode && insn.getOpcode() == Opcodes.ISTORE && ((VarInsnNode) insn).var == var)
+                    || (insn instanceof IincInsnNode && ((IincInsnNode) insn).var == var)
+                    || insn.getOpcode() == Opcodes.JSR || insn.getOpcode() == Opcodes.RET) {
+                return false;
+            }
+        }
+        if (bodySize * iterations > maxUnrolledSize) {
+            return false;
+        }
+        for (AbstractInsnNode insn : body) {
+            for (LabelNode target : jumpTargets(insn)) {
+                if (target != end && !bodyLabels.contains(target)) {
+                    return false;
+                }
+            }
+        }
+        if (isJumpedTo(mn, head, backJump) || touchesTryCatch(mn, bodyLabels) || touchesTryCatch(mn, Collections.singleton(head))) {
+            return false;
+        }
+        //labels in the body must not be reachable from outside it
+        for (AbstractInsnNode insn = mn.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (body.contains(insn)) {
+                continue;
+            }
+            for (LabelNode target : jumpTargets(insn)) {
+                if (bodyLabels.contains(target)) {
+                    return false;
+                }
+            }
+        }
+
+        //rewrite: drop the test and the back jump, then append copies of BODY; iinc after the original
+        mn.instructions.remove(load);
+        mn.instructions.remove(bound);
+        mn.instructions.remove(test);
+        mn.instructions.remove(backJump);
+        AbstractInsnNode tail = increment;
+        for (int k = 1; k < iterations; k ++) {
+            Map<LabelNode, LabelNode> labels = new HashMap<LabelNode, LabelNode>();
+            for (LabelNode label : bodyLabels) {
+                labels.put(label, new LabelNode());
+            }
+            labels.put(end, end);
+            InsnList copy = new InsnList();
+            for (AbstractInsnNode insn : body) {
+                copy.add(insn.clone(labels));
+            }
+            copy.add(new IincInsnNode(var, 1));
+            AbstractInsnNode newTail = copy.getLast();
+            mn.instructions.insert(tail, copy);
+            tail = newTail;
+        }
+
+        BytecodeOptimizer.MethodReport report = optimizer.report(cn, mn);
+        report.loopsUnrolled++;
+        report.savedPerExecution += 4 * iterations + 3;
+        return true;
+    }
+
+    static List<LabelNode> jumpTargets(AbstractInsnNode insn) {
+        if (insn instanceof JumpInsnNode) {
+            return Collections.singletonList(((JumpInsnNode) insn).label);
+        }
+        if (insn instanceof TableSwitchInsnNode) {
+            List<LabelNode> targets = new ArrayList<LabelNode>(((TableSwitchInsnNode) insn).labels);
+            targets.add(((TableSwitchInsnNode) insn).dflt);
+            return targets;
+        }
+        if (insn instanceof LookupSwitchInsnNode) {
+            List<LabelNode> targets = new ArrayList<LabelNode>(((LookupSwitchInsnNode) insn).labels);
+            targets.add(((LookupSwitchInsnNode) insn).dflt);
+            return targets;
+        }
+        return Collections.emptyList();
+    }
+
+    static boolean isJumpedTo(MethodNode mn, LabelNode label, AbstractInsnNode except) {
+        for (AbstractInsnNode insn = mn.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn != except && jumpTargets(insn).contains(label)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean touchesTryCatch(MethodNode mn, Set<LabelNode> labels) {
+        if (mn.tryCatchBlocks == null) {
+            return false;
+        }
+        for (TryCatchBlockNode block : mn.tryCatchBlocks) {
+            if (labels.contains(block.start) || labels.contains(block.end) || labels.contains(block.handler)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
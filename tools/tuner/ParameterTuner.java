@@ -0,0 +1,319 @@
+package tuner;
+
+import matches.MatchCache;
+import matches.MatchRunner;
+import matches.ParamOverrides;
+import matches.PlayerBuild;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Tunes a player's Params with a genetic algorithm over self-play.
+ *
+ *   java tuner.ParameterTuner --src src --package gopherbot --space tools/tuner/gopherbot.space
+ *       --classpath <engine classpath> --maps maptestsmall,goofygoober --population 16 --generations 40
+ *       --threads 8 --out build/tuner
+ *
+ * The space file lists the fields to tune, one per line: <field> <min> <max> [int], with name[i] for one
+ * element of an array field. Each candidate is a set of Params overrides compiled into its own copy of the
+ * package, and scores its win rate against the unmodified player over every map, once from each side; all of
+ * a generation's matches run in parallel, one JVM each. A generation keeps the elite best candidates and fills
+ * the rest by tournament selection, blend crossover and gaussian mutation scaled to each field's range.
+ *
+ * With --daemon <port>, matches run on a MatchDaemon instead of a new JVM each; with --cache <dir>, matches
+ * played before with the same classes, map and engine come from a MatchCache.
+ *
+ * After every generation the best candidate so far goes to <out>/best.params (usable as -Pparams) and a line
+ * to <out>/log.txt, so an overnight run can be stopped at any point.
+ */
+public class ParameterTuner {
+    static final int elite = 2;
+    static final int tournamentSize = 3;
+    static final double mutationRate = 0.3;
+    static final double mutationScale = 0.1; //of a field's range
+    static final double initialScale = 0.25;
+    static final double blendMargin = 0.25;
+
+    static class Dimension {
+        String field;
+        int index = -1; //element of an array field, or -1
+        double min;
+        double max;
+        boolean integer;
+    }
+
+    static class Candidate {
+        double[] genes;
+        double fitness;
+        Map<String, String> overrides;
+    }
+
+    final String pkg;
+    final File srcRoot;
+    final String classpath;
+    final List<String> maps;
+    final File out;
+    final MatchRunner runner;
+    final ExecutorService pool;
+    final Random random;
+    final List<Dimension> dimensions = new ArrayList<Dimension>();
+    final Map<String, String> defaults;
+
+    ParameterTuner(String pkg, File srcRoot, File space, String classpath, List<String> maps, File mapDir, File out, int threads, long seed) throws IOException {
+        this.pkg = pkg;
+        this.srcRoot = srcRoot;
+        this.classpath = classpath;
+        this.maps = maps;
+        this.out = out;
+        this.runner = new MatchRunner(classpath, mapDir, null);
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.random = new Random(seed);
+        File params = new File(srcRoot, pkg.replace('.', '/') + "/Params.java");
+        defaults = ParamOverrides.defaults(new String(Files.readAllBytes(params.toPath()), StandardCharsets.UTF_8), pkg);
+        readSpace(space);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String pkg = "gopherbot";
+        String src = "src";
+        String space = "tools/tuner/gopherbot.space";
+        String classpath = System.getProperty("java.class.path");
+        String maps = "maptestsmall";
+        String mapDir = "maps";
+        String out = "build/tuner";
+        int population = 16;
+        int generations = 40;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        int daemon = -1;
+        String cache = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            if (args[i].equals("--package")) {
+                pkg = value;
+            } else if (args[i].equals("--src")) {
+                src = value;
+            } else if (args[i].equals("--space")) {
+                space = value;
+            } else if (args[i].equals("--classpath")) {
+                classpath = value;
+            } else if (args[i].equals("--maps")) {
+                maps = value;
+            } else if (args[i].equals("--map-dir")) {
+                mapDir = value;
+            } else if (args[i].equals("--out")) {
+                out = value;
+            } else if (args[i].equals("--population")) {
+                population = Integer.parseInt(value);
+            } else if (args[i].equals("--generations")) {
+                generations = Integer.parseInt(value);
+            } else if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(value);
+            } else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(value);
+            } else if (args[i].equals("--daemon")) {
+                daemon = Integer.parseInt(value);
+            } else if (args[i].equals("--cache")) {
+                cache = value;
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        ParameterTuner tuner = new ParameterTuner(pkg, new File(src), new File(space), classpath, Arrays.asList(maps.split(",")), new File(mapDir), new File(out), threads, seed);
+        if (daemon != -1) {
+            tuner.runner.useDaemon(daemon);
+        }
+        if (cache != null) {
+            tuner.runner.useCache(new MatchCache(new File(cache), MatchCache.engineVersion(new File("."))));
+        }
+        try {
+            tuner.run(population, generations);
+        } finally {
+            tuner.pool.shutdownNow();
+        }
+    }
+
+    void readSpace(File space) throws IOException {
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(space.toPath(), StandardCharsets.UTF_8)) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            String[] words = line.trim().split("\\s+");
+            if (words.length == 1 && words[0].isEmpty()) {
+                continue;
+            }
+            if (words.length < 3) {
+                throw new IOException(space + ":" + lineNumber + ": expected <field> <min> <max> [int]");
+            }
+            Dimension dimension = new Dimension();
+            dimension.field = words[0];
+            int bracket = words[0].indexOf('[');
+            if (bracket >= 0) {
+                dimension.field = words[0].substring(0, bracket);
+                dimension.index = Integer.parseInt(words[0].substring(bracket + 1, words[0].length() - 1));
+            }
+            dimension.min = Double.parseDouble(words[1]);
+            dimension.max = Double.parseDouble(words[2]);
+            dimension.integer = words.length > 3 && words[3].equals("int");
+            if (!defaults.containsKey(pkg + "." + dimension.field)) {
+                throw new IOException(space + ":" + lineNumber + ": " + pkg + ".Params has no field " + dimension.field);
+            }
+            dimensions.add(dimension);
+        }
+    }
+
+    double defaultValue(Dimension dimension) {
+        String value = defaults.get(pkg + "." + dimension.field);
+        return Double.parseDouble(dimension.index < 0 ? value : value.split(",")[dimension.index]);
+    }
+
+    Map<String, String> overrides(double[] genes) {
+        Map<String, String> overrides = new LinkedHashMap<String, String>();
+        for (int d = 0; d < dimensions.size(); d ++) {
+            Dimension dimension = dimensions.get(d);
+            String key = pkg + "." + dimension.field;
+            String value = dimension.integer ? String.valueOf(Math.round(genes[d])) : format(genes[d]);
+            if (dimension.index < 0) {
+                overrides.put(key, value);
+            } else {
+                String[] elements = (overrides.containsKey(key) ? overrides.get(key) : defaults.get(key)).split(",");
+                elements[dimension.index] = value;
+                StringBuilder joined = new StringBuilder();
+                for (String element : elements) {
+                    if (joined.length() > 0) {
+                        joined.append(',');
+                    }
+                    joined.append(element);
+                }
+                overrides.put(key, joined.toString());
+            }
+        }
+        return overrides;
+    }
+
+    static String format(double value) {
+        String text = String.format(Locale.ROOT, "%.4f", value);
+        text = text.replaceAll("0+$", "");
+        return text.endsWith(".") ? text + "0" : text;
+    }
+
+    double clamp(Dimension dimension, double value) {
+        return Math.max(dimension.min, Math.min(dimension.max, value));
+    }
+
+    void run(int population, int generations) throws Exception {
+        out.mkdirs();
+        PlayerBuild.Player baseline = PlayerBuild.build(srcRoot, pkg, pkg + "_base", Collections.<String, String>emptyMap(), new File(out, "players/base"), classpath);
+
+        List<Candidate> candidates = new ArrayList<Candidate>();
+        for (int i = 0; i < population; i ++) {
+            Candidate candidate = new Candidate();
+            candidate.genes = new double[dimensions.size()];
+            for (int d = 0; d < dimensions.size(); d ++) {
+                Dimension dimension = dimensions.get(d);
+                double noise = i == 0 ? 0 : random.nextGaussian() * initialScale * (dimension.max - dimension.min);
+                candidate.genes[d] = clamp(dimension, defaultValue(dimension) + noise);
+            }
+            candidates.add(candidate);
+        }
+
+        Candidate best = null;
+        for (int generation = 0; generation < generations; generation ++) {
+            evaluate(candidates, baseline);
+            Collections.sort(candidates, new Comparator<Candidate>() {
+                public int compare(Candidate x, Candidate y) {
+                    return Double.compare(y.fitness, x.fitness);
+                }
+            });
+            if (best == null || candidates.get(0).fitness >= best.fitness) {
+                best = candidates.get(0);
+                ParamOverrides.save(best.overrides, new File(out, "best.params"));
+            }
+            double mean = 0;
+            for (Candidate candidate : candidates) {
+                mean += candidate.fitness;
+            }
+            mean /= candidates.size();
+            String line = String.format(Locale.ROOT, "generation %d: best %.3f mean %.3f %s", generation, candidates.get(0).fitness, mean, candidates.get(0).overrides);
+            System.out.println(line);
+            Files.write(new File(out, "log.txt").toPath(), (line + "\n").getBytes(StandardCharsets.UTF_8), java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.APPEND);
+
+            List<Candidate> next = new ArrayList<Candidate>(candidates.subList(0, Math.min(elite, candidates.size())));
+            while (next.size() < population) {
+                next.add(child(select(candidates), select(candidates)));
+            }
+            candidates = next;
+        }
+        System.out.println("best " + String.format(Locale.ROOT, "%.3f", best.fitness) + " written to " + new File(out, "best.params"));
+    }
+
+    /** Compiles every candidate and scores it by its win rate against baseline over every map and side. */
+    void evaluate(List<Candidate> candidates, PlayerBuild.Player baseline) throws Exception {
+        List<PlayerBuild.Player> players = new ArrayList<PlayerBuild.Player>();
+        for (int i = 0; i < candidates.size(); i ++) {
+            Candidate candidate = candidates.get(i);
+            candidate.overrides = overrides(candidate.genes);
+            players.add(PlayerBuild.build(srcRoot, pkg, pkg + "_c" + i, candidate.overrides, new File(out, "players/c" + i), classpath));
+        }
+        List<List<Future<MatchRunner.Result>>> results = new ArrayList<List<Future<MatchRunner.Result>>>();
+        for (PlayerBuild.Player player : players) {
+            List<Future<MatchRunner.Result>> games = new ArrayList<Future<MatchRunner.Result>>();
+            for (String map : maps) {
+                games.add(submit(new MatchRunner.Match(player, baseline, map)));
+                games.add(submit(new MatchRunner.Match(baseline, player, map)));
+            }
+            results.add(games);
+        }
+        for (int i = 0; i < candidates.size(); i ++) {
+            int wins = 0;
+            for (Future<MatchRunner.Result> game : results.get(i)) {
+                if (game.get().winningPlayer() == players.get(i)) {
+                    wins++;
+                }
+            }
+            candidates.get(i).fitness = (double) wins / results.get(i).size();
+        }
+    }
+
+    Future<MatchRunner.Result> submit(final MatchRunner.Match match) {
+        return pool.submit(new Callable<MatchRunner.Result>() {
+            public MatchRunner.Result call() throws Exception {
+                return runner.run(match);
+            }
+        });
+    }
+
+    Candidate select(List<Candidate> candidates) {
+        Candidate best = null;
+        for (int i = 0; i < tournamentSize; i ++) {
+            Candidate entrant = candidates.get(random.nextInt(candidates.size()));
+            if (best == null || entrant.fitness > best.fitness) {
+                best = entrant;
+            }
+        }
+        return best;
+    }
+
+    Candidate child(Candidate x, Candidate y) {
+        Candidate child = new Candidate();
+        child.genes = new double[dimensions.size()];
+        for (int d = 0; d < dimensions.size(); d ++) {
+            Dimension dimension = dimensions.get(d);
+            double u = -blendMargin + random.nextDouble() * (1 + 2 * blendMargin);
+            double gene = x.genes[d] + u * (y.genes[d] - x.genes[d]);
+            if (random.nextDouble() < mutationRate) {
+                gene += random.nextGaussian() * mutationScale * (dimension.max - dimension.min);
+            }
+            child.genes[d] = clamp(dimension, gene);
+        }
+        return child;
+    }
+}